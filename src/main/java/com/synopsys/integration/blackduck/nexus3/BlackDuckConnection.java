@@ -23,16 +23,33 @@
  */
 package com.synopsys.integration.blackduck.nexus3;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.synopsys.integration.blackduck.configuration.BlackDuckServerConfig;
 import com.synopsys.integration.blackduck.nexus3.capability.BlackDuckCapabilityConfiguration;
 import com.synopsys.integration.blackduck.nexus3.capability.BlackDuckCapabilityFinder;
+import com.synopsys.integration.blackduck.nexus3.http.CircuitBreakerInterceptor;
+import com.synopsys.integration.blackduck.nexus3.http.CircuitBreakerRetryHandler;
+import com.synopsys.integration.blackduck.nexus3.http.ConditionalRequestInterceptor;
+import com.synopsys.integration.blackduck.nexus3.http.HttpConnectionPool;
+import com.synopsys.integration.blackduck.nexus3.http.HttpResponseCache;
+import com.synopsys.integration.blackduck.nexus3.http.LimitedRequestExecutor;
+import com.synopsys.integration.blackduck.nexus3.http.OverloadRetryStrategy;
+import com.synopsys.integration.blackduck.nexus3.task.common.BlackDuckCircuitBreaker;
+import com.synopsys.integration.blackduck.nexus3.task.common.BlackDuckRequestLimiter;
+import com.synopsys.integration.blackduck.rest.BlackDuckHttpClient;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
@@ -42,52 +59,141 @@ import com.synopsys.integration.log.Slf4jIntLogger;
 @Singleton
 public class BlackDuckConnection {
     private final BlackDuckCapabilityFinder blackDuckCapabilityFinder;
+    private final HttpResponseCache httpResponseCache;
+    private final BlackDuckRequestLimiter blackDuckRequestLimiter;
+    private final BlackDuckCircuitBreaker blackDuckCircuitBreaker;
     private final Logger logger = LoggerFactory.getLogger(getClass());
-    private boolean needsUpdate;
-    private BlackDuckServerConfig blackDuckServerConfig;
-    private BlackDuckServicesFactory blackDuckServicesFactory;
+    private final AtomicLong configurationVersion = new AtomicLong();
+    private final AtomicReference<BlackDuckCapabilityConfiguration> capabilityConfiguration = new AtomicReference<>();
+    private final AtomicReference<BlackDuckConnectionSnapshot> currentSnapshot = new AtomicReference<>();
+    private final ReentrantLock updateLock = new ReentrantLock();
 
     @Inject
-    public BlackDuckConnection(BlackDuckCapabilityFinder blackDuckCapabilityFinder) {
+    public BlackDuckConnection(BlackDuckCapabilityFinder blackDuckCapabilityFinder, HttpResponseCache httpResponseCache, BlackDuckRequestLimiter blackDuckRequestLimiter,
+        BlackDuckCircuitBreaker blackDuckCircuitBreaker) {
         this.blackDuckCapabilityFinder = blackDuckCapabilityFinder;
+        this.httpResponseCache = httpResponseCache;
+        this.blackDuckRequestLimiter = blackDuckRequestLimiter;
+        this.blackDuckCircuitBreaker = blackDuckCircuitBreaker;
+    }
+
+    public BlackDuckServerConfig getBlackDuckServerConfig() throws IntegrationException {
+        return getSnapshot().getBlackDuckServerConfig();
+    }
+
+    public BlackDuckServicesFactory getBlackDuckServicesFactory() throws IntegrationException {
+        return getSnapshot().getBlackDuckServicesFactory();
+    }
+
+    public BlackDuckCircuitBreaker getBlackDuckCircuitBreaker() {
+        return blackDuckCircuitBreaker;
+    }
+
+    public void markForUpdate() {
+        configurationVersion.incrementAndGet();
+    }
+
+    public void updateCapabilityConfiguration(BlackDuckCapabilityConfiguration blackDuckCapabilityConfiguration) {
+        capabilityConfiguration.set(blackDuckCapabilityConfiguration);
         markForUpdate();
     }
 
-    public void updateHubServerConfig() throws IntegrationException {
-        BlackDuckCapabilityConfiguration blackDuckCapabilityConfiguration = blackDuckCapabilityFinder.retrieveBlackDuckCapabilityConfiguration();
-        if (blackDuckCapabilityConfiguration == null) {
-            throw new IntegrationException("Black Duck server configuration not found.");
+    public void removeCapabilityConfiguration() {
+        capabilityConfiguration.set(null);
+        markForUpdate();
+    }
+
+    // only the first task after a configuration change builds the new snapshot, the other tasks keep the previous one until it is published
+    public BlackDuckConnectionSnapshot getSnapshot() throws IntegrationException {
+        BlackDuckConnectionSnapshot snapshot = currentSnapshot.get();
+        if (null != snapshot && snapshot.isCurrent(configurationVersion.get())) {
+            return snapshot;
+        }
+        if (null == snapshot) {
+            updateLock.lock();
+        } else if (!updateLock.tryLock()) {
+            return snapshot;
+        }
+        try {
+            BlackDuckConnectionSnapshot previousSnapshot = currentSnapshot.get();
+            long version = configurationVersion.get();
+            if (null != previousSnapshot && previousSnapshot.isCurrent(version)) {
+                return previousSnapshot;
+            }
+            BlackDuckConnectionSnapshot updatedSnapshot = createSnapshot(version);
+            currentSnapshot.set(updatedSnapshot);
+            if (null != previousSnapshot) {
+                previousSnapshot.release();
+            }
+            return updatedSnapshot;
+        } finally {
+            updateLock.unlock();
         }
-        BlackDuckServerConfig updatedBlackDuckServerConfig = blackDuckCapabilityConfiguration.createBlackDuckServerConfig();
-        setHubServerConfig(updatedBlackDuckServerConfig);
     }
 
-    public BlackDuckServerConfig getBlackDuckServerConfig() throws IntegrationException {
-        if (needsUpdate || blackDuckServerConfig == null) {
-            updateHubServerConfig();
+    // the tasks release the snapshot when they are done, the connection pool of a replaced snapshot is shut down by the last of them
+    public BlackDuckConnectionSnapshot acquireSnapshot() throws IntegrationException {
+        while (true) {
+            BlackDuckConnectionSnapshot snapshot = getSnapshot();
+            if (snapshot.acquire()) {
+                return snapshot;
+            }
+        }
+    }
+
+    // the capability events only report changes, a capability loaded before this component existed is looked up once
+    protected BlackDuckCapabilityConfiguration retrieveBlackDuckCapabilityConfiguration() {
+        BlackDuckCapabilityConfiguration blackDuckCapabilityConfiguration = capabilityConfiguration.get();
+        if (null != blackDuckCapabilityConfiguration) {
+            return blackDuckCapabilityConfiguration;
         }
+        return blackDuckCapabilityFinder.retrieveBlackDuckCapabilityConfiguration();
+    }
 
-        return blackDuckServerConfig;
+    private BlackDuckConnectionSnapshot createSnapshot(long version) throws IntegrationException {
+        BlackDuckCapabilityConfiguration blackDuckCapabilityConfiguration = retrieveBlackDuckCapabilityConfiguration();
+        if (blackDuckCapabilityConfiguration == null) {
+            throw new IntegrationException("Black Duck server configuration not found.");
+        }
+        logger.debug("Getting updated blackDuckServicesFactory");
+        BlackDuckServerConfig blackDuckServerConfig = blackDuckCapabilityConfiguration.createBlackDuckServerConfig();
+        IntLogger intLogger = new Slf4jIntLogger(logger);
+        BlackDuckServicesFactory blackDuckServicesFactory = blackDuckServerConfig.createBlackDuckServicesFactory(intLogger);
+        BlackDuckHttpClient blackDuckHttpClient = blackDuckServicesFactory.getBlackDuckHttpClient();
+        HttpConnectionPool httpConnectionPool = createConnectionPool(blackDuckHttpClient, blackDuckCapabilityConfiguration.getMaxConnectionsPerRoute());
+        addResponseCache(blackDuckHttpClient.getClientBuilder());
+        addOverloadControl(blackDuckHttpClient.getClientBuilder());
+        addCircuitBreaker(blackDuckHttpClient.getClientBuilder());
+        return new BlackDuckConnectionSnapshot(version, blackDuckServerConfig, blackDuckServicesFactory, httpConnectionPool);
     }
 
-    public void setHubServerConfig(BlackDuckServerConfig blackDuckServerConfig) {
-        this.blackDuckServerConfig = blackDuckServerConfig;
-        blackDuckServicesFactory = null;
-        needsUpdate = false;
+    // every task uses the http client of this factory, so they all share the open connections and the bearer token of the client
+    private HttpConnectionPool createConnectionPool(BlackDuckHttpClient blackDuckHttpClient, int maxConnectionsPerRoute) throws IntegrationException {
+        HttpConnectionPool httpConnectionPool = new HttpConnectionPool(blackDuckHttpClient.isAlwaysTrustServerCertificate(), maxConnectionsPerRoute);
+        httpConnectionPool.configure(blackDuckHttpClient.getClientBuilder());
+        logger.debug("Sharing up to {} connections per route to Black Duck", maxConnectionsPerRoute);
+        return httpConnectionPool;
     }
 
-    public void markForUpdate() {
-        needsUpdate = true;
+    // a busy Black Duck answers 429 or 503, the requests of all tasks then slow down together and are retried instead of failing
+    private void addOverloadControl(HttpClientBuilder clientBuilder) {
+        clientBuilder.setRequestExecutor(new LimitedRequestExecutor(blackDuckRequestLimiter));
+        clientBuilder.setServiceUnavailableRetryStrategy(new OverloadRetryStrategy());
     }
 
-    public BlackDuckServicesFactory getBlackDuckServicesFactory() throws IntegrationException {
-        if (needsUpdate || blackDuckServicesFactory == null) {
-            logger.debug("Getting updated blackDuckServicesFactory");
-            IntLogger intLogger = new Slf4jIntLogger(logger);
-            blackDuckServicesFactory = getBlackDuckServerConfig().createBlackDuckServicesFactory(intLogger);
-        }
+    // added first so that a rejected request does not touch the response cache
+    private void addCircuitBreaker(HttpClientBuilder clientBuilder) {
+        CircuitBreakerInterceptor circuitBreakerInterceptor = new CircuitBreakerInterceptor(blackDuckCircuitBreaker);
+        clientBuilder.addInterceptorFirst((HttpRequestInterceptor) circuitBreakerInterceptor);
+        clientBuilder.addInterceptorFirst((HttpResponseInterceptor) circuitBreakerInterceptor);
+        clientBuilder.setRetryHandler(new CircuitBreakerRetryHandler(blackDuckCircuitBreaker));
+    }
 
-        return blackDuckServicesFactory;
+    // the http client builds a new client from this builder for every request, so the interceptors apply to all services of the factory
+    private void addResponseCache(HttpClientBuilder clientBuilder) {
+        ConditionalRequestInterceptor conditionalRequestInterceptor = new ConditionalRequestInterceptor(httpResponseCache);
+        clientBuilder.addInterceptorLast((HttpRequestInterceptor) conditionalRequestInterceptor);
+        clientBuilder.addInterceptorLast((HttpResponseInterceptor) conditionalRequestInterceptor);
     }
 
 }
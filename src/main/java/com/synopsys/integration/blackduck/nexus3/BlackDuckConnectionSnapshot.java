@@ -0,0 +1,63 @@
+package com.synopsys.integration.blackduck.nexus3;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.synopsys.integration.blackduck.configuration.BlackDuckServerConfig;
+import com.synopsys.integration.blackduck.nexus3.http.HttpConnectionPool;
+import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
+
+// everything built from one version of the capability configuration, tasks keep using the snapshot they started with
+public class BlackDuckConnectionSnapshot {
+    private final long configurationVersion;
+    private final BlackDuckServerConfig blackDuckServerConfig;
+    private final BlackDuckServicesFactory blackDuckServicesFactory;
+    private final HttpConnectionPool httpConnectionPool;
+    // the connection holds one reference while the snapshot is current, every task holds one while it runs
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    public BlackDuckConnectionSnapshot(long configurationVersion, BlackDuckServerConfig blackDuckServerConfig, BlackDuckServicesFactory blackDuckServicesFactory, HttpConnectionPool httpConnectionPool) {
+        this.configurationVersion = configurationVersion;
+        this.blackDuckServerConfig = blackDuckServerConfig;
+        this.blackDuckServicesFactory = blackDuckServicesFactory;
+        this.httpConnectionPool = httpConnectionPool;
+    }
+
+    public boolean isCurrent(long currentConfigurationVersion) {
+        return configurationVersion == currentConfigurationVersion;
+    }
+
+    // false once the snapshot was replaced and released by all of its tasks, the connection pool is already shut down then
+    public boolean acquire() {
+        int currentReferences;
+        do {
+            currentReferences = references.get();
+            if (currentReferences <= 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(currentReferences, currentReferences + 1));
+        return true;
+    }
+
+    public void release() {
+        if (0 == references.decrementAndGet()) {
+            httpConnectionPool.close();
+        }
+    }
+
+    public long getConfigurationVersion() {
+        return configurationVersion;
+    }
+
+    public BlackDuckServerConfig getBlackDuckServerConfig() {
+        return blackDuckServerConfig;
+    }
+
+    public BlackDuckServicesFactory getBlackDuckServicesFactory() {
+        return blackDuckServicesFactory;
+    }
+
+    public HttpConnectionPool getHttpConnectionPool() {
+        return httpConnectionPool;
+    }
+
+}
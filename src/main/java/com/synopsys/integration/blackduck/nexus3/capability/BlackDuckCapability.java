@@ -25,22 +25,12 @@ package com.synopsys.integration.blackduck.nexus3.capability;
 
 import java.util.Map;
 
-import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.sonatype.nexus.capability.CapabilitySupport;
 
-import com.synopsys.integration.blackduck.nexus3.BlackDuckConnection;
-
 @Named(BlackDuckCapabilityDescriptor.CAPABILITY_ID)
 public class BlackDuckCapability extends CapabilitySupport<BlackDuckCapabilityConfiguration> {
-    BlackDuckConnection blackDuckConnection;
-
-    @Inject
-    public BlackDuckCapability(final BlackDuckConnection blackDuckConnection) {
-        this.blackDuckConnection = blackDuckConnection;
-    }
-
     @Override
     protected BlackDuckCapabilityConfiguration createConfig(final Map<String, String> properties) {
         return new BlackDuckCapabilityConfiguration(properties);
@@ -53,8 +43,8 @@ public class BlackDuckCapability extends CapabilitySupport<BlackDuckCapabilityCo
 
     @Override
     protected void configure(final BlackDuckCapabilityConfiguration config) {
+        // the BlackDuckCapabilityEventListener passes the new configuration to the Black Duck connection
         log.debug("Configuring BlackDuckCapability");
-        blackDuckConnection.markForUpdate();
     }
 
 }
@@ -33,6 +33,7 @@ public enum BlackDuckCapabilityConfigKeys {
     BLACKDUCK_PROXY_USERNAME("blackduck.proxy.username"),
     BLACKDUCK_PROXY_PASSWORD("blackduck.proxy.password"),
     BLACKDUCK_TIMEOUT("blackduck.timeout"),
+    BLACKDUCK_MAX_CONNECTIONS_PER_ROUTE("blackduck.max.connections.per.route"),
     BLACKDUCK_API_KEY("blackduck.api.key"),
     BLACKDUCK_URL("blackduck.url");
 
@@ -26,6 +26,7 @@ package com.synopsys.integration.blackduck.nexus3.capability;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.sonatype.nexus.capability.CapabilityConfigurationSupport;
 
 import com.synopsys.integration.blackduck.configuration.BlackDuckServerConfig;
@@ -66,4 +67,9 @@ public class BlackDuckCapabilityConfiguration extends CapabilityConfigurationSup
         return blackDuckServerConfigBuilder.build();
     }
 
+    public int getMaxConnectionsPerRoute() {
+        String maxConnectionsPerRoute = capabilitySettings.get(BlackDuckCapabilityConfigKeys.BLACKDUCK_MAX_CONNECTIONS_PER_ROUTE.getKey());
+        return NumberUtils.toInt(maxConnectionsPerRoute, BlackDuckCapabilityDescriptor.DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+    }
+
 }
@@ -46,9 +46,11 @@ public class BlackDuckCapabilityDescriptor extends CapabilityDescriptorSupport<B
     public static final String CAPABILITY_DESCRIPTION = "Settings required to communicate with Black Duck.";
 
     public static final String DEFAULT_BLACKDUCK_TIMEOUT = "300";
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
 
     private static final String DESCRIPTION_BLACKDUCK_TRUST_CERT = "Automatically trust the SSL Certificates from the specified HTTPS Black Duck Server.";
     private static final String DESCRIPTION_BLACKDUCK_TIMEOUT = "The timeout in seconds for a request to the Black Duck server.";
+    private static final String DESCRIPTION_MAX_CONNECTIONS_PER_ROUTE = "The maximum number of connections to the Black Duck server that are kept open and shared by all Black Duck tasks.";
     private static final String DESCRIPTION_BLACKDUCK_SERVER_URL = "Provide the URL that lets you access your Black Duck server. For example \"https://blackduck.example.com/\".";
     private static final String DESCRIPTION_BLACKDUCK_API_KEY = "API key used to access the Black Duck instance.";
     private static final String DESCRIPTION_PROXY_HOST = "The hostname of the proxy to communicate with your Black Duck server.";
@@ -57,6 +59,7 @@ public class BlackDuckCapabilityDescriptor extends CapabilityDescriptorSupport<B
     private static final String DESCRIPTION_PROXY_USERNAME = "Username for your authenticated proxy.";
 
     private static final String LABEL_CONNECTION_TIMEOUT = "Black Duck Connection Timeout";
+    private static final String LABEL_MAX_CONNECTIONS_PER_ROUTE = "Black Duck Maximum Connections";
     private static final String LABEL_BLACKDUCK_SERVER_URL = "Black Duck Server URL";
     private static final String LABEL_TRUST_BLACKDUCK_SSL_CERTIFICATE = "Trust Black Duck SSL Certificate";
     private static final String LABEL_BLACKDUCK_API_KEY = "Black Duck API Key";
@@ -70,6 +73,8 @@ public class BlackDuckCapabilityDescriptor extends CapabilityDescriptorSupport<B
     private static final StringTextFormField blackDuckApiKey = new StringTextFormField(BlackDuckCapabilityConfigKeys.BLACKDUCK_API_KEY.getKey(), LABEL_BLACKDUCK_API_KEY, DESCRIPTION_BLACKDUCK_API_KEY, FormField.MANDATORY);
     private static final StringTextFormField timeoutField = new StringTextFormField(BlackDuckCapabilityConfigKeys.BLACKDUCK_TIMEOUT.getKey(), LABEL_CONNECTION_TIMEOUT, DESCRIPTION_BLACKDUCK_TIMEOUT, FormField.MANDATORY)
                                                                 .withInitialValue(DEFAULT_BLACKDUCK_TIMEOUT);
+    private static final StringTextFormField maxConnectionsPerRouteField = new StringTextFormField(BlackDuckCapabilityConfigKeys.BLACKDUCK_MAX_CONNECTIONS_PER_ROUTE.getKey(), LABEL_MAX_CONNECTIONS_PER_ROUTE, DESCRIPTION_MAX_CONNECTIONS_PER_ROUTE, FormField.OPTIONAL)
+                                                                              .withInitialValue(String.valueOf(DEFAULT_MAX_CONNECTIONS_PER_ROUTE));
     private static final CheckboxFormField trustCert = new CheckboxFormField(BlackDuckCapabilityConfigKeys.BLACKDUCK_TRUST_CERT.getKey(), LABEL_TRUST_BLACKDUCK_SSL_CERTIFICATE, DESCRIPTION_BLACKDUCK_TRUST_CERT, FormField.OPTIONAL);
 
     private static final StringTextFormField proxyHostField = new StringTextFormField(BlackDuckCapabilityConfigKeys.BLACKDUCK_PROXY_HOST.getKey(), LABEL_PROXY_HOST, DESCRIPTION_PROXY_HOST, FormField.OPTIONAL);
@@ -102,6 +107,7 @@ public class BlackDuckCapabilityDescriptor extends CapabilityDescriptorSupport<B
         fields.add(blackDuckUrlField);
         fields.add(blackDuckApiKey);
         fields.add(timeoutField);
+        fields.add(maxConnectionsPerRouteField);
         fields.add(trustCert);
         fields.add(proxyHostField);
         fields.add(proxyPortField);
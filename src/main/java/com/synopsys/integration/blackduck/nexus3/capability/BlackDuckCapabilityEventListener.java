@@ -0,0 +1,68 @@
+package com.synopsys.integration.blackduck.nexus3.capability;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonatype.nexus.capability.CapabilityEvent;
+import org.sonatype.nexus.capability.CapabilityReference;
+import org.sonatype.nexus.common.event.EventAware;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import com.synopsys.integration.blackduck.nexus3.BlackDuckConnection;
+import com.synopsys.integration.exception.IntegrationException;
+
+// hands the Black Duck capability configuration to the connection when it changes, so tasks never have to look it up in the capability registry
+@Named
+@Singleton
+public class BlackDuckCapabilityEventListener implements EventAware, EventAware.Asynchronous {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final BlackDuckCapabilityFinder blackDuckCapabilityFinder;
+    private final BlackDuckConnection blackDuckConnection;
+
+    @Inject
+    public BlackDuckCapabilityEventListener(BlackDuckCapabilityFinder blackDuckCapabilityFinder, BlackDuckConnection blackDuckConnection) {
+        this.blackDuckCapabilityFinder = blackDuckCapabilityFinder;
+        this.blackDuckConnection = blackDuckConnection;
+    }
+
+    @Subscribe
+    @AllowConcurrentEvents
+    public void on(CapabilityEvent.Created event) {
+        updateConnection(event.getReference());
+    }
+
+    @Subscribe
+    @AllowConcurrentEvents
+    public void on(CapabilityEvent.AfterUpdate event) {
+        updateConnection(event.getReference());
+    }
+
+    @Subscribe
+    @AllowConcurrentEvents
+    public void on(CapabilityEvent.AfterRemove event) {
+        if (blackDuckCapabilityFinder.isBlackDuckCapability(event.getReference())) {
+            logger.info("The Black Duck capability was removed.");
+            blackDuckConnection.removeCapabilityConfiguration();
+        }
+    }
+
+    private void updateConnection(CapabilityReference capabilityReference) {
+        if (!blackDuckCapabilityFinder.isBlackDuckCapability(capabilityReference)) {
+            return;
+        }
+        logger.info("The Black Duck capability changed, updating the Black Duck connection.");
+        blackDuckConnection.updateCapabilityConfiguration(new BlackDuckCapabilityConfiguration(capabilityReference.context().properties()));
+        try {
+            blackDuckConnection.getSnapshot();
+        } catch (IntegrationException e) {
+            // the next task reports the problem when it tries to connect
+            logger.warn("Could not update the Black Duck connection: {}", e.getMessage());
+            logger.debug(e.getMessage(), e);
+        }
+    }
+
+}
@@ -67,6 +67,10 @@ public class BlackDuckCapabilityFinder {
         return capabilityReferences.stream().findFirst();
     }
 
+    public boolean isBlackDuckCapability(CapabilityReference capabilityReference) {
+        return matchesBlackDuckCapabilityType(capabilityReference, CapabilityType.capabilityType(BlackDuckCapabilityDescriptor.CAPABILITY_ID));
+    }
+
     private boolean matchesBlackDuckCapabilityType(CapabilityReference capabilityReference, CapabilityType blackDuckCapabilityType) {
         if (null != capabilityReference && null != capabilityReference.context() && null != capabilityReference.context().type()) {
             return capabilityReference.context().type().equals(blackDuckCapabilityType);
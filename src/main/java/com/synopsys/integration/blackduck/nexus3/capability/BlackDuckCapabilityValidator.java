@@ -16,9 +16,10 @@ public class BlackDuckCapabilityValidator {
     public void validateCapability(final Map<String, String> capabilitySettings) {
         final Optional<String> urlError = validateBlackDuckUrl(capabilitySettings);
         final Optional<String> timeoutError = validateBlackDuckTimeout(capabilitySettings);
+        final Optional<String> maxConnectionsError = validateMaxConnectionsPerRoute(capabilitySettings);
         final Optional<String> apiKeyError = validateBlackDuckCredentials(capabilitySettings);
         final Optional<String> proxyError = validateProxySettings(capabilitySettings);
-        final List<String> errors = Stream.of(urlError, timeoutError, apiKeyError, proxyError).filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
+        final List<String> errors = Stream.of(urlError, timeoutError, maxConnectionsError, apiKeyError, proxyError).filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
         if (!errors.isEmpty()) {
             throw new IllegalArgumentException(StringUtils.join(errors, "  "));
         }
@@ -56,6 +57,21 @@ public class BlackDuckCapabilityValidator {
         return Optional.empty();
     }
 
+    private Optional<String> validateMaxConnectionsPerRoute(final Map<String, String> capabilitySettings) {
+        final String configuredMaxConnections = capabilitySettings.get(BlackDuckCapabilityConfigKeys.BLACKDUCK_MAX_CONNECTIONS_PER_ROUTE.getKey());
+        if (StringUtils.isNotBlank(configuredMaxConnections)) {
+            try {
+                final Integer maxConnections = Integer.valueOf(configuredMaxConnections);
+                if (maxConnections <= 0) {
+                    return Optional.of("Maximum Connections: The maximum connections must be greater than 0.");
+                }
+            } catch (final NumberFormatException e) {
+                return Optional.of(String.format("Maximum Connections: The String : %s, is not an Integer.", configuredMaxConnections));
+            }
+        }
+        return Optional.empty();
+    }
+
     private Optional<String> validateBlackDuckCredentials(final Map<String, String> capabilitySettings) {
         final String configuredApiKey = capabilitySettings.get(BlackDuckCapabilityConfigKeys.BLACKDUCK_API_KEY.getKey());
         if (StringUtils.isBlank(configuredApiKey)) {
@@ -0,0 +1,10 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.io.IOException;
+
+public class BlackDuckUnavailableException extends IOException {
+    public BlackDuckUnavailableException(String message) {
+        super(message);
+    }
+
+}
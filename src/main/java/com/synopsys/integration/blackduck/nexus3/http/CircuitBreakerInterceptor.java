@@ -0,0 +1,34 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.io.IOException;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.protocol.HttpContext;
+
+import com.synopsys.integration.blackduck.nexus3.task.common.BlackDuckCircuitBreaker;
+
+// the request interceptors run before a connection is opened, so an open circuit fails the request right away instead of after the timeout
+public class CircuitBreakerInterceptor implements HttpRequestInterceptor, HttpResponseInterceptor {
+    private final BlackDuckCircuitBreaker blackDuckCircuitBreaker;
+
+    public CircuitBreakerInterceptor(BlackDuckCircuitBreaker blackDuckCircuitBreaker) {
+        this.blackDuckCircuitBreaker = blackDuckCircuitBreaker;
+    }
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) throws IOException {
+        if (!blackDuckCircuitBreaker.tryAcquire()) {
+            throw new BlackDuckUnavailableException("Black Duck is unavailable, the request was not sent.");
+        }
+    }
+
+    // any answer means Black Duck can be reached
+    @Override
+    public void process(HttpResponse response, HttpContext context) {
+        blackDuckCircuitBreaker.recordSuccess();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.io.IOException;
+
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.protocol.HttpContext;
+
+import com.synopsys.integration.blackduck.nexus3.task.common.BlackDuckCircuitBreaker;
+
+// the retry handler is the only part of the client that sees the connection failures, so it reports them to the circuit breaker
+public class CircuitBreakerRetryHandler implements HttpRequestRetryHandler {
+    private final BlackDuckCircuitBreaker blackDuckCircuitBreaker;
+    private final HttpRequestRetryHandler retryHandler;
+
+    public CircuitBreakerRetryHandler(BlackDuckCircuitBreaker blackDuckCircuitBreaker) {
+        this(blackDuckCircuitBreaker, DefaultHttpRequestRetryHandler.INSTANCE);
+    }
+
+    public CircuitBreakerRetryHandler(BlackDuckCircuitBreaker blackDuckCircuitBreaker, HttpRequestRetryHandler retryHandler) {
+        this.blackDuckCircuitBreaker = blackDuckCircuitBreaker;
+        this.retryHandler = retryHandler;
+    }
+
+    @Override
+    public boolean retryRequest(IOException exception, int executionCount, HttpContext context) {
+        if (exception instanceof BlackDuckUnavailableException) {
+            return false;
+        }
+        if (BlackDuckCircuitBreaker.isConnectionFailure(exception)) {
+            blackDuckCircuitBreaker.recordFailure();
+            if (!blackDuckCircuitBreaker.allowsRequests()) {
+                return false;
+            }
+        }
+        return retryHandler.retryRequest(exception, executionCount, context);
+    }
+
+}
@@ -0,0 +1,189 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// turns GET requests for cached responses into conditional requests and answers a 304 with the cached body, so callers only ever see a 200
+public class ConditionalRequestInterceptor implements HttpRequestInterceptor, HttpResponseInterceptor {
+    private static final String CACHE_KEY_ATTRIBUTE = "blackduck.cache.key";
+    private static final String CACHED_RESPONSE_ATTRIBUTE = "blackduck.cache.response";
+    private static final String CACHED_BODY_ATTRIBUTE = "blackduck.cache.body";
+    private static final String CONDITIONAL_HEADERS_ATTRIBUTE = "blackduck.cache.conditionalHeaders";
+    private static final String NO_STORE = "no-store";
+    private static final String JSON = "json";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final HttpResponseCache httpResponseCache;
+
+    public ConditionalRequestInterceptor(HttpResponseCache httpResponseCache) {
+        this.httpResponseCache = httpResponseCache;
+    }
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        // the context is shared by the retries and redirects of one execution, and a retry sends the same request again
+        removeConditionalHeaders(request, context);
+        context.removeAttribute(CACHE_KEY_ATTRIBUTE);
+        context.removeAttribute(CACHED_RESPONSE_ATTRIBUTE);
+        context.removeAttribute(CACHED_BODY_ATTRIBUTE);
+        if (!"GET".equalsIgnoreCase(request.getRequestLine().getMethod())) {
+            return;
+        }
+        String key = createKey(request, context);
+        context.setAttribute(CACHE_KEY_ATTRIBUTE, key);
+        if (request.containsHeader(HttpHeaders.IF_NONE_MATCH) || request.containsHeader(HttpHeaders.IF_MODIFIED_SINCE)) {
+            return;
+        }
+
+        Optional<HttpResponseCache.CachedResponse> cachedResponse = httpResponseCache.get(key);
+        if (!cachedResponse.isPresent()) {
+            return;
+        }
+        Optional<byte[]> cachedBody = httpResponseCache.readBody(cachedResponse.get());
+        if (!cachedBody.isPresent()) {
+            return;
+        }
+        List<Header> conditionalHeaders = new ArrayList<>();
+        cachedResponse.get().getEtag().ifPresent(etag -> conditionalHeaders.add(new BasicHeader(HttpHeaders.IF_NONE_MATCH, etag)));
+        cachedResponse.get().getLastModified().ifPresent(lastModified -> conditionalHeaders.add(new BasicHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified)));
+        conditionalHeaders.forEach(request::addHeader);
+        context.setAttribute(CONDITIONAL_HEADERS_ATTRIBUTE, conditionalHeaders);
+        context.setAttribute(CACHED_RESPONSE_ATTRIBUTE, cachedResponse.get());
+        context.setAttribute(CACHED_BODY_ATTRIBUTE, cachedBody.get());
+    }
+
+    // only the headers added by this interceptor are removed, conditional headers of the caller are kept
+    @SuppressWarnings("unchecked")
+    private void removeConditionalHeaders(HttpRequest request, HttpContext context) {
+        List<Header> conditionalHeaders = (List<Header>) context.removeAttribute(CONDITIONAL_HEADERS_ATTRIBUTE);
+        if (null != conditionalHeaders) {
+            conditionalHeaders.forEach(request::removeHeader);
+        }
+    }
+
+    @Override
+    public void process(HttpResponse response, HttpContext context) throws IOException {
+        String key = (String) context.getAttribute(CACHE_KEY_ATTRIBUTE);
+        if (null == key) {
+            return;
+        }
+        int statusCode = response.getStatusLine().getStatusCode();
+        HttpResponseCache.CachedResponse cachedResponse = (HttpResponseCache.CachedResponse) context.getAttribute(CACHED_RESPONSE_ATTRIBUTE);
+        byte[] cachedBody = (byte[]) context.getAttribute(CACHED_BODY_ATTRIBUTE);
+        if (HttpStatus.SC_NOT_MODIFIED == statusCode && null != cachedResponse && null != cachedBody) {
+            logger.debug("Using the cached response for {}", key);
+            response.setStatusCode(HttpStatus.SC_OK);
+            response.setReasonPhrase("OK");
+            response.setEntity(createEntity(cachedBody, cachedResponse.getContentType().orElse(null)));
+        } else if (HttpStatus.SC_OK == statusCode) {
+            storeResponse(key, response);
+        }
+    }
+
+    private void storeResponse(String key, HttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        String etag = getHeaderValue(response, HttpHeaders.ETAG);
+        String lastModified = getHeaderValue(response, HttpHeaders.LAST_MODIFIED);
+        String cacheControl = getHeaderValue(response, HttpHeaders.CACHE_CONTROL);
+        if (null == entity || (null == etag && null == lastModified) || StringUtils.containsIgnoreCase(cacheControl, NO_STORE)) {
+            httpResponseCache.remove(key);
+            return;
+        }
+        String contentType = null == entity.getContentType() ? null : entity.getContentType().getValue();
+        // the scan client downloads share this client, only api responses are worth buffering
+        if (!StringUtils.containsIgnoreCase(contentType, JSON) || entity.getContentLength() > httpResponseCache.getMaximumEntryBytes()) {
+            return;
+        }
+        InputStream content = entity.getContent();
+        if (null == content) {
+            return;
+        }
+        ByteArrayOutputStream bufferedBody = new ByteArrayOutputStream();
+        if (!readBody(content, bufferedBody, httpResponseCache.getMaximumEntryBytes())) {
+            // a chunked body only turns out to be too large while it is read, the caller gets the buffered part and reads the rest from the connection
+            response.setEntity(createStreamedEntity(entity, new SequenceInputStream(new ByteArrayInputStream(bufferedBody.toByteArray()), content)));
+            return;
+        }
+        content.close();
+        byte[] body = bufferedBody.toByteArray();
+        response.setEntity(createEntity(body, contentType));
+        httpResponseCache.put(key, etag, lastModified, contentType, body);
+    }
+
+    // false once the body is larger than the maximum, the rest of the body is left unread
+    private boolean readBody(InputStream content, ByteArrayOutputStream body, long maximumBytes) throws IOException {
+        byte[] buffer = new byte[4096];
+        int read;
+        while (-1 != (read = content.read(buffer))) {
+            body.write(buffer, 0, read);
+            if (body.size() > maximumBytes) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private HttpEntity createStreamedEntity(HttpEntity entity, InputStream content) {
+        InputStreamEntity streamedEntity = new InputStreamEntity(content, entity.getContentLength());
+        streamedEntity.setContentType(entity.getContentType());
+        streamedEntity.setContentEncoding(entity.getContentEncoding());
+        streamedEntity.setChunked(entity.isChunked());
+        return streamedEntity;
+    }
+
+    private HttpEntity createEntity(byte[] body, String contentType) {
+        ByteArrayEntity entity = new ByteArrayEntity(body);
+        entity.setContentType(contentType);
+        return entity;
+    }
+
+    private String getHeaderValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        if (null == header || StringUtils.isBlank(header.getValue())) {
+            return null;
+        }
+        return header.getValue();
+    }
+
+    // the Accept header selects the Black Duck media type, so it is part of the key
+    private String createKey(HttpRequest request, HttpContext context) {
+        StringBuilder key = new StringBuilder();
+        HttpHost targetHost = (HttpHost) context.getAttribute(HttpCoreContext.HTTP_TARGET_HOST);
+        String uri = request.getRequestLine().getUri();
+        if (null != targetHost && uri.startsWith("/")) {
+            key.append(targetHost.toURI());
+        }
+        key.append(uri);
+        Header accept = request.getFirstHeader(HttpHeaders.ACCEPT);
+        if (null != accept) {
+            key.append(' ');
+            key.append(accept.getValue());
+        }
+        return key.toString();
+    }
+
+}
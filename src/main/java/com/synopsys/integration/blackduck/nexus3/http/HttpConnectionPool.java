@@ -0,0 +1,80 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.io.Closeable;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustAllStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.SSLContexts;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+// keeps the connections to Black Duck open between requests, the http client builds a new client for every request and would otherwise repeat the TLS handshake each time
+public class HttpConnectionPool implements Closeable {
+    public static final int TOTAL_CONNECTIONS_PER_ROUTE_FACTOR = 2;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final int maxConnectionsPerRoute;
+
+    public HttpConnectionPool(boolean alwaysTrustServerCertificate, int maxConnectionsPerRoute) throws IntegrationException {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                                                                      .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                                                                      .register("https", createSslSocketFactory(alwaysTrustServerCertificate))
+                                                                      .build();
+        connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        // the proxy and the Black Duck server are separate routes
+        connectionManager.setMaxTotal(maxConnectionsPerRoute * TOTAL_CONNECTIONS_PER_ROUTE_FACTOR);
+    }
+
+    // the clients built from the builder are closed after each request, they must not shut the shared pool down with them
+    public void configure(HttpClientBuilder clientBuilder) {
+        clientBuilder.setConnectionManager(connectionManager);
+        clientBuilder.setConnectionManagerShared(true);
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public int getLeasedConnections() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    public int getAvailableConnections() {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    // only called once no task uses the pool anymore, a request started afterwards fails
+    @Override
+    public void close() {
+        connectionManager.shutdown();
+    }
+
+    // a connection manager replaces the socket factory of the builder, so it has to trust the same certificates the http client does
+    private SSLConnectionSocketFactory createSslSocketFactory(boolean alwaysTrustServerCertificate) throws IntegrationException {
+        if (!alwaysTrustServerCertificate) {
+            return new SSLConnectionSocketFactory(SSLContexts.createDefault(), SSLConnectionSocketFactory.getDefaultHostnameVerifier());
+        }
+        try {
+            SSLContext sslContext = SSLContextBuilder.create().loadTrustMaterial(new TrustAllStrategy()).build();
+            return new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
+        } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
+            throw new IntegrationException(e.getMessage(), e);
+        }
+    }
+
+}
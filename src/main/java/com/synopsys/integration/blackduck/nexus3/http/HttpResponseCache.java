@@ -0,0 +1,228 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonatype.nexus.common.app.ApplicationDirectories;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+// the bodies of Black Duck responses that carry an ETag or Last-Modified header, evicted least recently used first once the cache is full
+@Named
+@Singleton
+public class HttpResponseCache {
+    public static final long MAXIMUM_CACHE_BYTES = 256L * 1024 * 1024;
+    public static final long MAXIMUM_ENTRY_BYTES = 8L * 1024 * 1024;
+    private static final String METADATA_EXTENSION = ".json";
+    private static final String BODY_EXTENSION = ".body";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final Gson gson = new Gson();
+    private final File cacheDirectory;
+    private final long maximumBytes;
+    private final long maximumEntryBytes;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes = 0;
+    private boolean loaded = false;
+
+    @Inject
+    public HttpResponseCache(ApplicationDirectories applicationDirectories) {
+        this(new File(applicationDirectories.getWorkDirectory("blackduck"), "http-cache"), MAXIMUM_CACHE_BYTES, MAXIMUM_ENTRY_BYTES);
+    }
+
+    public HttpResponseCache(File cacheDirectory, long maximumBytes, long maximumEntryBytes) {
+        this.cacheDirectory = cacheDirectory;
+        this.maximumBytes = maximumBytes;
+        this.maximumEntryBytes = maximumEntryBytes;
+    }
+
+    public synchronized Optional<CachedResponse> get(String key) {
+        ensureLoaded();
+        CachedResponse cachedResponse = entries.get(key);
+        if (null != cachedResponse) {
+            // keeps the least recently used order across restarts
+            getMetadataFile(cachedResponse.getFileName()).setLastModified(System.currentTimeMillis());
+        }
+        return Optional.ofNullable(cachedResponse);
+    }
+
+    public Optional<byte[]> readBody(CachedResponse cachedResponse) {
+        try {
+            return Optional.of(Files.readAllBytes(getBodyFile(cachedResponse.getFileName()).toPath()));
+        } catch (IOException e) {
+            logger.debug("Could not read the cached response {}: {}", cachedResponse.getKey(), e.getMessage());
+            remove(cachedResponse.getKey());
+            return Optional.empty();
+        }
+    }
+
+    public synchronized void put(String key, String etag, String lastModified, String contentType, byte[] body) {
+        if (body.length > maximumEntryBytes || body.length > maximumBytes) {
+            return;
+        }
+        ensureLoaded();
+        CachedResponse cachedResponse = new CachedResponse(key, DigestUtils.sha256Hex(key), etag, lastModified, contentType, body.length);
+        try {
+            Files.createDirectories(cacheDirectory.toPath());
+            writeAtomically(getBodyFile(cachedResponse.getFileName()), body);
+            writeAtomically(getMetadataFile(cachedResponse.getFileName()), gson.toJson(cachedResponse).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Could not write the cached response {}: {}", key, e.getMessage());
+            logger.debug(e.getMessage(), e);
+            remove(key);
+            return;
+        }
+        CachedResponse replacedResponse = entries.put(key, cachedResponse);
+        if (null != replacedResponse) {
+            totalBytes -= replacedResponse.getSize();
+        }
+        totalBytes += cachedResponse.getSize();
+        evictLeastRecentlyUsed();
+    }
+
+    public synchronized void remove(String key) {
+        CachedResponse removedResponse = entries.remove(key);
+        if (null != removedResponse) {
+            totalBytes -= removedResponse.getSize();
+            deleteFiles(removedResponse.getFileName());
+        }
+    }
+
+    public synchronized int size() {
+        ensureLoaded();
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        ensureLoaded();
+        return totalBytes;
+    }
+
+    public long getMaximumEntryBytes() {
+        return maximumEntryBytes;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<CachedResponse> leastRecentlyUsed = entries.values().iterator();
+        while (totalBytes > maximumBytes && leastRecentlyUsed.hasNext()) {
+            CachedResponse evictedResponse = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            totalBytes -= evictedResponse.getSize();
+            deleteFiles(evictedResponse.getFileName());
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        File[] metadataFiles = cacheDirectory.listFiles((directory, name) -> name.endsWith(METADATA_EXTENSION));
+        if (null == metadataFiles) {
+            return;
+        }
+        List<File> sortedMetadataFiles = new ArrayList<>(Arrays.asList(metadataFiles));
+        sortedMetadataFiles.sort(Comparator.comparingLong(File::lastModified));
+        for (File metadataFile : sortedMetadataFiles) {
+            try (Reader reader = Files.newBufferedReader(metadataFile.toPath(), StandardCharsets.UTF_8)) {
+                CachedResponse cachedResponse = gson.fromJson(reader, CachedResponse.class);
+                if (null != cachedResponse && getBodyFile(cachedResponse.getFileName()).length() == cachedResponse.getSize()) {
+                    entries.put(cachedResponse.getKey(), cachedResponse);
+                    totalBytes += cachedResponse.getSize();
+                } else {
+                    Files.deleteIfExists(metadataFile.toPath());
+                }
+            } catch (IOException | JsonParseException e) {
+                // an entry that can not be read is simply fetched again
+                logger.debug("Could not read the cached response {}: {}", metadataFile.getAbsolutePath(), e.getMessage());
+            }
+        }
+        evictLeastRecentlyUsed();
+        logger.debug("Loaded {} cached responses from {}", entries.size(), cacheDirectory.getAbsolutePath());
+    }
+
+    private void writeAtomically(File file, byte[] content) throws IOException {
+        File temporaryFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        Files.write(temporaryFile.toPath(), content);
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void deleteFiles(String fileName) {
+        try {
+            Files.deleteIfExists(getMetadataFile(fileName).toPath());
+            Files.deleteIfExists(getBodyFile(fileName).toPath());
+        } catch (IOException e) {
+            logger.debug("Could not delete the cached response {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    private File getMetadataFile(String fileName) {
+        return new File(cacheDirectory, fileName + METADATA_EXTENSION);
+    }
+
+    private File getBodyFile(String fileName) {
+        return new File(cacheDirectory, fileName + BODY_EXTENSION);
+    }
+
+    public static class CachedResponse {
+        private final String key;
+        private final String fileName;
+        private final String etag;
+        private final String lastModified;
+        private final String contentType;
+        private final long size;
+
+        public CachedResponse(String key, String fileName, String etag, String lastModified, String contentType, long size) {
+            this.key = key;
+            this.fileName = fileName;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+            this.size = size;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public Optional<String> getEtag() {
+            return Optional.ofNullable(etag);
+        }
+
+        public Optional<String> getLastModified() {
+            return Optional.ofNullable(lastModified);
+        }
+
+        public Optional<String> getContentType() {
+            return Optional.ofNullable(contentType);
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import com.synopsys.integration.blackduck.nexus3.task.common.BlackDuckRequestLimiter;
+
+// every attempt of every request to Black Duck goes through the limiter, until the server answers
+public class LimitedRequestExecutor extends HttpRequestExecutor {
+    private final BlackDuckRequestLimiter blackDuckRequestLimiter;
+
+    public LimitedRequestExecutor(BlackDuckRequestLimiter blackDuckRequestLimiter) {
+        this.blackDuckRequestLimiter = blackDuckRequestLimiter;
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequest request, HttpClientConnection connection, HttpContext context) throws IOException, HttpException {
+        long generation;
+        try {
+            generation = blackDuckRequestLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to send a request to Black Duck.");
+        }
+        HttpResponse response;
+        try {
+            response = super.execute(request, connection, context);
+        } catch (IOException | HttpException | RuntimeException e) {
+            blackDuckRequestLimiter.releaseFailed();
+            throw e;
+        }
+        if (ServerOverload.isOverloaded(response)) {
+            blackDuckRequestLimiter.releaseOverloaded(generation, ServerOverload.getRetryAfterMillis(response));
+        } else {
+            blackDuckRequestLimiter.releaseSucceeded();
+        }
+        return response;
+    }
+
+}
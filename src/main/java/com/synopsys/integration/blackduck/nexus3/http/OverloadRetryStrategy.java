@@ -0,0 +1,51 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ServiceUnavailableRetryStrategy;
+import org.apache.http.protocol.HttpContext;
+
+import com.synopsys.integration.blackduck.nexus3.task.common.BlackDuckRequestLimiter;
+
+// retries a 429 or 503 after an exponential backoff with full jitter, waiting at least as long as the Retry-After of the server
+public class OverloadRetryStrategy implements ServiceUnavailableRetryStrategy {
+    public static final int MAXIMUM_RETRIES = 5;
+    public static final long BASE_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    public static final long MAXIMUM_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final int maximumRetries;
+    private final long baseDelayMillis;
+    // the client asks for the interval right after deciding to retry, on the same thread
+    private final ThreadLocal<Long> retryInterval = new ThreadLocal<>();
+
+    public OverloadRetryStrategy() {
+        this(MAXIMUM_RETRIES, BASE_DELAY_MILLIS);
+    }
+
+    public OverloadRetryStrategy(int maximumRetries, long baseDelayMillis) {
+        this.maximumRetries = maximumRetries;
+        this.baseDelayMillis = baseDelayMillis;
+    }
+
+    @Override
+    public boolean retryRequest(HttpResponse response, int executionCount, HttpContext context) {
+        if (executionCount > maximumRetries || !ServerOverload.isOverloaded(response)) {
+            return false;
+        }
+        long backoffMillis = Math.min(MAXIMUM_DELAY_MILLIS, baseDelayMillis << Math.min(executionCount - 1, 30));
+        long jitteredMillis = ThreadLocalRandom.current().nextLong(backoffMillis + 1);
+        long retryAfterMillis = Math.min(ServerOverload.getRetryAfterMillis(response), BlackDuckRequestLimiter.MAXIMUM_PAUSE_MILLIS);
+        retryInterval.set(Math.max(jitteredMillis, retryAfterMillis));
+        return true;
+    }
+
+    @Override
+    public long getRetryInterval() {
+        Long interval = retryInterval.get();
+        retryInterval.remove();
+        return null == interval ? baseDelayMillis : interval;
+    }
+
+}
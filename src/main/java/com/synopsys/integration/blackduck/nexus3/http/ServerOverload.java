@@ -0,0 +1,42 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.utils.DateUtils;
+
+public class ServerOverload {
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    private ServerOverload() {
+    }
+
+    public static boolean isOverloaded(HttpResponse response) {
+        int statusCode = response.getStatusLine().getStatusCode();
+        return TOO_MANY_REQUESTS == statusCode || HttpStatus.SC_SERVICE_UNAVAILABLE == statusCode;
+    }
+
+    // Retry-After is either a number of seconds or an http date, 0 when the server did not send one
+    public static long getRetryAfterMillis(HttpResponse response) {
+        Header retryAfter = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (null == retryAfter || StringUtils.isBlank(retryAfter.getValue())) {
+            return 0;
+        }
+        String value = retryAfter.getValue().trim();
+        if (NumberUtils.isDigits(value)) {
+            return TimeUnit.SECONDS.toMillis(NumberUtils.toLong(value));
+        }
+        Date retryDate = DateUtils.parseDate(value);
+        if (null == retryDate) {
+            return 0;
+        }
+        return Math.max(0, retryDate.getTime() - System.currentTimeMillis());
+    }
+
+}
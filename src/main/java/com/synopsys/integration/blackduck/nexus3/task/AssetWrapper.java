@@ -27,6 +27,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -43,10 +44,11 @@ import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
 import com.synopsys.integration.exception.IntegrationException;
 
 public class AssetWrapper {
+    private static final DateTimeParser DATE_TIME_PARSER = new DateTimeParser();
+
     private final Asset asset;
     private final Repository repository;
     private final QueryManager queryManager;
-    private final DateTimeParser dateTimeParser;
     private final AssetPanelLabel statusLabel;
     private Component associatedComponent;
     private Blob associatedBlob;
@@ -68,7 +70,6 @@ public class AssetWrapper {
         this.asset = asset;
         this.repository = repository;
         this.queryManager = queryManager;
-        dateTimeParser = new DateTimeParser();
         this.statusLabel = statusLabel;
     }
 
@@ -133,7 +134,26 @@ public class AssetWrapper {
     }
 
     public DateTime getAssetLastUpdated() {
-        return dateTimeParser.formatDateTime(asset.blobUpdated());
+        return DATE_TIME_PARSER.formatDateTime(asset.blobUpdated());
+    }
+
+    public long getAssetLastUpdatedEpochMillis() {
+        return asset.blobUpdated().getMillis();
+    }
+
+    // the epoch is stored next to the display string so the time can be compared without parsing it
+    public void addProcessedTimeToBlackDuckPanel(long processedEpochMillis) {
+        addToBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME, DATE_TIME_PARSER.convertFromEpochMillisToString(processedEpochMillis));
+        getAssetPanel().addToBlackDuckPanel(AssetPanelLabel.TASK_FINISHED_EPOCH, processedEpochMillis);
+    }
+
+    // assets processed before the epoch was stored only have the display string
+    public Optional<Long> getProcessedEpochMillis() {
+        Optional<Long> processedEpochMillis = getAssetPanel().getNumberFromBlackDuckPanel(AssetPanelLabel.TASK_FINISHED_EPOCH);
+        if (processedEpochMillis.isPresent()) {
+            return processedEpochMillis;
+        }
+        return DATE_TIME_PARSER.convertFromStringToEpochMillis(getFromBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME));
     }
 
     public void addToBlackDuckAssetPanel(AssetPanelLabel label, String value) {
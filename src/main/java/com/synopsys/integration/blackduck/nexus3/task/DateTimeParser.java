@@ -23,11 +23,14 @@
  */
 package com.synopsys.integration.blackduck.nexus3.task;
 
+import java.util.Optional;
+
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
@@ -35,27 +38,45 @@ import org.joda.time.format.DateTimeFormatter;
 @Singleton
 public class DateTimeParser {
     public static final String DATE_TIME_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS";
+    // the formatters are immutable and thread safe, so they are only created once
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormat.forPattern(DATE_TIME_PATTERN);
+    private static final DateTimeFormatter UTC_DATE_TIME_FORMATTER = DATE_TIME_FORMATTER.withZoneUTC();
 
     // convert to using the new Java 8 time library that replaces Joda
     // we should wait until nexus converts to Java 8 time
     public String getCurrentDateTime() {
-        return new DateTime().toString(DATE_TIME_PATTERN);
+        return convertFromEpochMillisToString(getCurrentEpochMillis());
+    }
+
+    public long getCurrentEpochMillis() {
+        return System.currentTimeMillis();
     }
 
+    // the same as printing the date and parsing it back as UTC, without the string in between
     public DateTime formatDateTime(DateTime dateTime) {
-        String dateTimeString = convertFromDateToString(dateTime);
-        return convertFromStringToDate(dateTimeString);
+        return dateTime.withZoneRetainFields(DateTimeZone.UTC);
     }
 
     public String convertFromDateToString(DateTime dateTime) {
-        DateTimeFormatter dateTimeFormatter = DateTimeFormat.forPattern(DATE_TIME_PATTERN);
-        return dateTimeFormatter.print(dateTime);
+        return DATE_TIME_FORMATTER.print(dateTime);
     }
 
     public DateTime convertFromStringToDate(String date) {
         if (StringUtils.isBlank(date)) {
             return null;
         }
-        return DateTime.parse(date, DateTimeFormat.forPattern(DATE_TIME_PATTERN).withZoneUTC());
+        return UTC_DATE_TIME_FORMATTER.parseDateTime(date);
+    }
+
+    // the display string is written in the local time zone
+    public String convertFromEpochMillisToString(long epochMillis) {
+        return DATE_TIME_FORMATTER.print(epochMillis);
+    }
+
+    public Optional<Long> convertFromStringToEpochMillis(String date) {
+        if (StringUtils.isBlank(date)) {
+            return Optional.empty();
+        }
+        return Optional.of(DATE_TIME_FORMATTER.parseMillis(date));
     }
 }
@@ -0,0 +1,112 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.blackduck.nexus3.http.BlackDuckUnavailableException;
+
+// stops sending requests to Black Duck after consecutive connection failures, once the open time has passed a single probe request decides whether Black Duck is back
+@Named
+@Singleton
+public class BlackDuckCircuitBreaker {
+    public static final int FAILURE_THRESHOLD = 5;
+    public static final long OPEN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private long probeStartedAt = 0;
+
+    public BlackDuckCircuitBreaker() {
+        this(FAILURE_THRESHOLD, OPEN_MILLIS, System::currentTimeMillis);
+    }
+
+    public BlackDuckCircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    public static boolean isConnectionFailure(Throwable throwable) {
+        Throwable cause = throwable;
+        while (null != cause) {
+            if (cause instanceof BlackDuckUnavailableException || cause instanceof SocketException || cause instanceof SocketTimeoutException || cause instanceof ConnectTimeoutException
+                    || cause instanceof UnknownHostException || cause instanceof NoHttpResponseException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    // called for every request, only lets the probe through while the circuit is not closed
+    public synchronized boolean tryAcquire() {
+        if (State.CLOSED == state) {
+            return true;
+        }
+        long now = clock.getAsLong();
+        if (State.OPEN == state && now - openedAt >= openMillis) {
+            logger.info("Checking whether Black Duck is available again.");
+            state = State.HALF_OPEN;
+            probeStartedAt = now;
+            return true;
+        }
+        // a probe that never reported back is replaced
+        if (State.HALF_OPEN == state && now - probeStartedAt >= openMillis) {
+            probeStartedAt = now;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized boolean allowsRequests() {
+        long now = clock.getAsLong();
+        switch (state) {
+            case OPEN:
+                return now - openedAt >= openMillis;
+            case HALF_OPEN:
+                return now - probeStartedAt >= openMillis;
+            default:
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (State.CLOSED != state) {
+            logger.info("Black Duck is available again.");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (State.HALF_OPEN == state || (State.CLOSED == state && consecutiveFailures >= failureThreshold)) {
+            logger.warn("Black Duck is unavailable after {} failed connections, skipping Black Duck requests for {} seconds.", consecutiveFailures, TimeUnit.MILLISECONDS.toSeconds(openMillis));
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+}
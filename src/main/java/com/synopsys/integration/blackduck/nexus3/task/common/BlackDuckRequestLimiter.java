@@ -0,0 +1,84 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+// shared by every task so that all requests to Black Duck together stay below a limit that follows what the server can handle:
+// each successful request raises the limit a little, each overloaded response halves it and a Retry-After pauses new requests
+@Named
+@Singleton
+public class BlackDuckRequestLimiter {
+    public static final int MINIMUM_IN_FLIGHT_REQUESTS = 1;
+    public static final int MAXIMUM_IN_FLIGHT_REQUESTS = 16;
+    public static final double DECREASE_RATIO = 0.5;
+    public static final long MAXIMUM_PAUSE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final int minimumInFlightRequests;
+    private final int maximumInFlightRequests;
+    private double limit;
+    private int inFlightRequests = 0;
+    private long pausedUntil = 0;
+    // requests sent before the last decrease do not decrease the limit again
+    private long decreaseGeneration = 0;
+
+    public BlackDuckRequestLimiter() {
+        this(MINIMUM_IN_FLIGHT_REQUESTS, MAXIMUM_IN_FLIGHT_REQUESTS);
+    }
+
+    public BlackDuckRequestLimiter(int minimumInFlightRequests, int maximumInFlightRequests) {
+        this.minimumInFlightRequests = minimumInFlightRequests;
+        this.maximumInFlightRequests = maximumInFlightRequests;
+        this.limit = maximumInFlightRequests;
+    }
+
+    public synchronized long acquire() throws InterruptedException {
+        while (true) {
+            long remainingPause = pausedUntil - System.currentTimeMillis();
+            if (remainingPause > 0) {
+                wait(remainingPause);
+            } else if (inFlightRequests >= getLimit()) {
+                wait();
+            } else {
+                inFlightRequests++;
+                return decreaseGeneration;
+            }
+        }
+    }
+
+    public synchronized void releaseSucceeded() {
+        limit = Math.min(maximumInFlightRequests, limit + 1.0 / limit);
+        release();
+    }
+
+    public synchronized void releaseOverloaded(long generation, long retryAfterMillis) {
+        if (generation == decreaseGeneration) {
+            limit = Math.max(minimumInFlightRequests, limit * DECREASE_RATIO);
+            decreaseGeneration++;
+        }
+        if (retryAfterMillis > 0) {
+            pausedUntil = Math.max(pausedUntil, System.currentTimeMillis() + Math.min(retryAfterMillis, MAXIMUM_PAUSE_MILLIS));
+        }
+        release();
+    }
+
+    // a request that never got an answer says nothing about the load of the server
+    public synchronized void releaseFailed() {
+        release();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getAvailablePermits() {
+        return Math.max(0, getLimit() - inFlightRequests);
+    }
+
+    private void release() {
+        inFlightRequests--;
+        notifyAll();
+    }
+
+}
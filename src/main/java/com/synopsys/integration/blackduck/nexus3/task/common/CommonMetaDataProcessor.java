@@ -29,19 +29,23 @@ import static com.synopsys.integration.blackduck.api.generated.enumeration.Compo
 import static com.synopsys.integration.blackduck.api.generated.enumeration.ComponentVersionRiskProfileRiskDataCountsCountTypeType.MEDIUM;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
+import java.util.Date;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.synopsys.integration.blackduck.api.generated.component.ComponentVersionRiskProfileRiskDataCountsView;
 import com.synopsys.integration.blackduck.api.generated.enumeration.ComponentVersionRiskProfileRiskDataCountsCountTypeType;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionComponentView;
@@ -49,6 +53,8 @@ import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionPolic
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
 import com.synopsys.integration.blackduck.api.generated.view.TagView;
+import com.synopsys.integration.blackduck.api.manual.throwaway.generated.response.VersionRiskProfileView;
+import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
 import com.synopsys.integration.blackduck.nexus3.TagService;
 import com.synopsys.integration.blackduck.nexus3.task.AssetWrapper;
 import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
@@ -60,14 +66,22 @@ import com.synopsys.integration.blackduck.service.model.ProjectSyncModel;
 import com.synopsys.integration.blackduck.service.model.ProjectVersionWrapper;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.Slf4jIntLogger;
+import com.synopsys.integration.rest.RestConstants;
 
 @Named
 @Singleton
 public class CommonMetaDataProcessor {
     public static final String NEXUS_PROJECT_TAG = "blackduck_nexus3";
+    public static final String RISK_PROFILE_LINK = "riskProfile";
+    public static final String RISK_PROFILE_CATEGORIES = "categories";
+    public static final String RISK_PROFILE_VULNERABILITY = "VULNERABILITY";
 
     private Map<ComponentVersionRiskProfileRiskDataCountsCountTypeType, Integer> countsToPriorty = new EnumMap<>(ComponentVersionRiskProfileRiskDataCountsCountTypeType.class);
     private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final ProjectVersionCache projectVersionCache = new ProjectVersionCache();
+    // parallel workers and tasks ask for the same Project Version and project tag at the same moment
+    private final SingleFlight<String, ProjectVersionWrapper> projectVersionFlights = new SingleFlight<>();
+    private final SingleFlight<String, Boolean> projectTagFlights = new SingleFlight<>();
 
     public CommonMetaDataProcessor() {
         countsToPriorty.put(CRITICAL, 10);
@@ -95,15 +109,25 @@ public class CommonMetaDataProcessor {
         }
     }
 
+    // a plain loop instead of a stream, this runs for every component of every BOM
     public void addMaxAssetVulnerabilityCounts(List<ComponentVersionRiskProfileRiskDataCountsView> vulnerabilities, VulnerabilityLevels vulnerabilityLevels) {
-        Optional<ComponentVersionRiskProfileRiskDataCountsCountTypeType> highestSeverity =
-            vulnerabilities.stream()
-                .filter(Objects::nonNull)
-                .filter(this::hasVulnerabilities)
-                .map(ComponentVersionRiskProfileRiskDataCountsView::getCountType)
-                .max(Comparator.comparingInt(this::getCountTypePriority));
+        ComponentVersionRiskProfileRiskDataCountsCountTypeType highestSeverity = null;
+        int highestPriority = -1;
+        for (ComponentVersionRiskProfileRiskDataCountsView riskCountView : vulnerabilities) {
+            if (null == riskCountView || !hasVulnerabilities(riskCountView)) {
+                continue;
+            }
+            ComponentVersionRiskProfileRiskDataCountsCountTypeType countType = riskCountView.getCountType();
+            int priority = getCountTypePriority(countType);
+            if (priority > highestPriority) {
+                highestSeverity = countType;
+                highestPriority = priority;
+            }
+        }
 
-        highestSeverity.ifPresent(vulnerabilityLevels::addVulnerability);
+        if (null != highestSeverity) {
+            vulnerabilityLevels.addVulnerability(highestSeverity);
+        }
     }
 
     private int getCountTypePriority(ComponentVersionRiskProfileRiskDataCountsCountTypeType countType) {
@@ -111,15 +135,24 @@ public class CommonMetaDataProcessor {
     }
 
     private boolean hasVulnerabilities(ComponentVersionRiskProfileRiskDataCountsView riskCountView) {
-        return Optional
-                   .ofNullable(riskCountView.getCount())
-                   .filter(bigDecimal -> bigDecimal.compareTo(BigDecimal.ZERO) > 0)
-                   .isPresent();
+        BigDecimal count = riskCountView.getCount();
+        return null != count && count.signum() > 0;
     }
 
     public void removeAssetVulnerabilityData(AssetWrapper assetWrapper) {
         assetWrapper.removeFromBlackDuckAssetPanel(AssetPanelLabel.VULNERABILITIES);
         assetWrapper.removeFromBlackDuckAssetPanel(AssetPanelLabel.VULNERABLE_COMPONENTS);
+        assetWrapper.removeFromBlackDuckAssetPanel(AssetPanelLabel.BOM_FINGERPRINT);
+    }
+
+    // the BOM only has to be downloaded again when its last update or the policy evaluation changed
+    public Optional<String> createBomFingerprint(Optional<VersionRiskProfileView> riskProfileView, Optional<ProjectVersionPolicyStatusView> policyStatusView) {
+        Optional<Date> bomLastUpdatedAt = riskProfileView.map(VersionRiskProfileView::getBomLastUpdatedAt);
+        Optional<Date> policyUpdatedAt = policyStatusView.map(ProjectVersionPolicyStatusView::getUpdatedAt);
+        if (!bomLastUpdatedAt.isPresent() || !policyUpdatedAt.isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(bomLastUpdatedAt.get().getTime() + ":" + policyUpdatedAt.get().getTime());
     }
 
     public void setAssetPolicyData(ProjectVersionPolicyStatusView policyStatusView, AssetWrapper assetWrapper) {
@@ -141,16 +174,78 @@ public class CommonMetaDataProcessor {
         return blackDuckService.getResponse(projectVersionView, ProjectVersionView.POLICY_STATUS_LINK_RESPONSE);
     }
 
+    public Optional<VersionRiskProfileView> getRiskProfile(BlackDuckService blackDuckService, ProjectVersionView projectVersionView) throws IntegrationException {
+        Optional<String> riskProfileUrl = projectVersionView.getFirstLink(RISK_PROFILE_LINK);
+        if (!riskProfileUrl.isPresent()) {
+            logger.debug("The '{}' link is missing from the Project Version: '{}'.", RISK_PROFILE_LINK, projectVersionView.getHref().orElse("MISSING HREF"));
+            return Optional.empty();
+        }
+        return Optional.ofNullable(blackDuckService.getResponse(riskProfileUrl.get(), VersionRiskProfileView.class));
+    }
+
+    // the vulnerability category of the risk profile counts every BOM component once at its highest severity
+    public Optional<VulnerabilityLevels> getVulnerableComponentCounts(Optional<VersionRiskProfileView> riskProfileView) {
+        Optional<JsonObject> vulnerabilityCounts = riskProfileView
+                                                       .map(this::getRiskProfileJson)
+                                                       .filter(JsonElement::isJsonObject)
+                                                       .map(JsonElement::getAsJsonObject)
+                                                       .map(riskProfileJson -> riskProfileJson.get(RISK_PROFILE_CATEGORIES))
+                                                       .filter(JsonElement::isJsonObject)
+                                                       .map(categories -> categories.getAsJsonObject().get(RISK_PROFILE_VULNERABILITY))
+                                                       .filter(JsonElement::isJsonObject)
+                                                       .map(JsonElement::getAsJsonObject);
+        if (!vulnerabilityCounts.isPresent()) {
+            return Optional.empty();
+        }
+        VulnerabilityLevels vulnerabilityLevels = new VulnerabilityLevels();
+        for (ComponentVersionRiskProfileRiskDataCountsCountTypeType countType : countsToPriorty.keySet()) {
+            JsonElement count = vulnerabilityCounts.get().get(countType.name());
+            if (null != count && count.isJsonPrimitive()) {
+                vulnerabilityLevels.addVulnerabilities(countType, count.getAsLong());
+            }
+        }
+        return Optional.of(vulnerabilityLevels);
+    }
+
+    private JsonElement getRiskProfileJson(VersionRiskProfileView riskProfileView) {
+        if (null != riskProfileView.getJsonElement()) {
+            return riskProfileView.getJsonElement();
+        }
+        if (StringUtils.isNotBlank(riskProfileView.getJson())) {
+            return new JsonParser().parse(riskProfileView.getJson());
+        }
+        return JsonNull.INSTANCE;
+    }
+
     public void removeAllMetaData(AssetWrapper assetWrapper) {
         removePolicyData(assetWrapper);
         removeAssetVulnerabilityData(assetWrapper);
     }
 
     public ProjectVersionView getOrCreateProjectVersion(BlackDuckService blackDuckService, ProjectService projectService, String name, String versionName) throws IntegrationException {
+        Optional<ProjectVersionWrapper> cachedProjectVersionWrapper = projectVersionCache.get(name, versionName);
+        if (cachedProjectVersionWrapper.isPresent()) {
+            logger.debug("Using the cached project in Black Duck : {}. Version: {}", name, versionName);
+            return cachedProjectVersionWrapper.get().getProjectVersionView();
+        }
+        ProjectVersionWrapper projectVersionWrapper = projectVersionFlights.execute(ProjectVersionCache.createKey(name, versionName),
+            () -> retrieveProjectVersion(blackDuckService, projectService, name, versionName));
+        return projectVersionWrapper.getProjectVersionView();
+    }
+
+    private ProjectVersionWrapper retrieveProjectVersion(BlackDuckService blackDuckService, ProjectService projectService, String name, String versionName) throws IntegrationException {
         ProjectVersionWrapper projectVersionWrapper = handleGetOrCreateProjectVersion(projectService, name, versionName);
 
+        if (!projectVersionCache.isTagged(name)) {
+            projectTagFlights.execute(name, () -> tagProject(blackDuckService, name, projectVersionWrapper.getProjectView()));
+        }
+
+        projectVersionCache.put(name, versionName, projectVersionWrapper);
+        return projectVersionWrapper;
+    }
+
+    private Boolean tagProject(BlackDuckService blackDuckService, String name, ProjectView projectView) throws IntegrationException {
         TagService tagService = new TagService(blackDuckService, new Slf4jIntLogger(logger));
-        ProjectView projectView = projectVersionWrapper.getProjectView();
         Optional<TagView> matchingTag = tagService.findMatchingTag(projectView, NEXUS_PROJECT_TAG);
         if (!matchingTag.isPresent()) {
             logger.debug("Adding tag {} to project {} in Black Duck.", NEXUS_PROJECT_TAG, name);
@@ -158,8 +253,16 @@ public class CommonMetaDataProcessor {
             tagView.setName(NEXUS_PROJECT_TAG);
             tagService.createTag(projectView, tagView);
         }
+        projectVersionCache.markTagged(name);
+        return Boolean.TRUE;
+    }
 
-        return projectVersionWrapper.getProjectVersionView();
+    // a Project Version that was deleted in Black Duck has to be looked up or created again
+    public void invalidateProjectVersion(String name, String versionName, IntegrationException exception) {
+        if (exception instanceof BlackDuckApiException && RestConstants.NOT_FOUND_404 == ((BlackDuckApiException) exception).getOriginalIntegrationRestException().getHttpStatusCode()) {
+            logger.debug("Removing the cached project {}. Version: {}", name, versionName);
+            projectVersionCache.invalidate(name, versionName);
+        }
     }
 
     private ProjectVersionWrapper handleGetOrCreateProjectVersion(ProjectService projectService, String name, String versionName) throws IntegrationException {
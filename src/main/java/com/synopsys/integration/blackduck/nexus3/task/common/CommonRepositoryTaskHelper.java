@@ -44,6 +44,7 @@ import org.sonatype.nexus.scheduling.TaskConfiguration;
 
 import com.synopsys.integration.blackduck.configuration.BlackDuckServerConfig;
 import com.synopsys.integration.blackduck.nexus3.BlackDuckConnection;
+import com.synopsys.integration.blackduck.nexus3.BlackDuckConnectionSnapshot;
 import com.synopsys.integration.blackduck.nexus3.database.PagedResult;
 import com.synopsys.integration.blackduck.nexus3.database.QueryManager;
 import com.synopsys.integration.blackduck.nexus3.task.AssetWrapper;
@@ -87,10 +88,24 @@ public class CommonRepositoryTaskHelper {
         return blackDuckConnection.getBlackDuckServicesFactory();
     }
 
+    // the snapshot has to be released when the task is done, until then its connection pool stays open
+    public BlackDuckConnectionSnapshot acquireBlackDuckConnection() throws IntegrationException, IllegalStateException {
+        return blackDuckConnection.acquireSnapshot();
+    }
+
+    // false while the circuit breaker is open, the remaining Black Duck work of a run is skipped and the assets keep their status
+    public boolean isBlackDuckAvailable() {
+        return blackDuckConnection.getBlackDuckCircuitBreaker().allowsRequests();
+    }
+
+    public boolean isConnectionFailure(Exception exception) {
+        return BlackDuckCircuitBreaker.isConnectionFailure(exception);
+    }
+
     public void failedConnection(AssetWrapper assetWrapper, String exceptionMessage) {
         assetWrapper.removeAllBlackDuckData();
         assetWrapper.addFailureToBlackDuckPanel("Error connecting to Black Duck. " + exceptionMessage);
-        assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME, dateTimeParser.getCurrentDateTime());
+        assetWrapper.addProcessedTimeToBlackDuckPanel(dateTimeParser.getCurrentEpochMillis());
     }
 
     public Optional<PhoneHomeResponse> phoneHome(String taskName) {
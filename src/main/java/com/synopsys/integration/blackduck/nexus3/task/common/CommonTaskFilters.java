@@ -2,6 +2,7 @@ package com.synopsys.integration.blackduck.nexus3.task.common;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -25,7 +26,6 @@ import org.sonatype.nexus.scheduling.TaskConfiguration;
 
 import com.synopsys.integration.blackduck.nexus3.task.AssetWrapper;
 import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
-import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
 
 @Named
 @Singleton
@@ -80,20 +80,19 @@ public class CommonTaskFilters {
         return dateTimeParser.convertFromStringToDate(assetCutoffString);
     }
 
-    public boolean isAssetTooOldForTask(DateTime lastModified, TaskConfiguration taskConfiguration) {
-        DateTime assetCutoffDate = getAssetCutoffDateTime(taskConfiguration);
+    public CompiledTaskFilter compileTaskFilter(TaskConfiguration taskConfiguration) {
+        return new CompiledTaskFilter(getRepositoryPath(taskConfiguration), getFileExtensionPatterns(taskConfiguration), getAssetCutoffDateTime(taskConfiguration));
+    }
 
-        boolean isAssetTooOld = isAssetTooOld(assetCutoffDate, lastModified);
+    public boolean isAssetTooOldForTask(DateTime lastModified, CompiledTaskFilter compiledTaskFilter) {
+        boolean isAssetTooOld = compiledTaskFilter.isAssetTooOld(lastModified);
         logger.debug("Is asset to old, {}", isAssetTooOld);
         return isAssetTooOld;
     }
 
-    public boolean doesAssetPathAndExtensionMatch(String fullPathName, String fileName, TaskConfiguration taskConfiguration) {
-        String repositoryRegexPath = getRepositoryPath(taskConfiguration);
-        String fileExtensionPatterns = getFileExtensionPatterns(taskConfiguration);
-
-        boolean doesRepositoryPathMatch = doesRepositoryPathMatch(fullPathName, repositoryRegexPath);
-        boolean doesExtensionMatch = doesExtensionMatch(fileName, fileExtensionPatterns);
+    public boolean doesAssetPathAndExtensionMatch(String fullPathName, String fileName, CompiledTaskFilter compiledTaskFilter) {
+        boolean doesRepositoryPathMatch = compiledTaskFilter.doesRepositoryPathMatch(fullPathName);
+        boolean doesExtensionMatch = compiledTaskFilter.doesExtensionMatch(fileName);
 
         logger.debug("Checking if processing of {} should be skipped", fullPathName);
         logger.debug("Does repository match, {}", doesRepositoryPathMatch);
@@ -132,12 +131,10 @@ public class CommonTaskFilters {
     }
 
     public boolean hasAssetBeenModified(AssetWrapper assetWrapper) {
-        DateTime lastModified = assetWrapper.getAssetLastUpdated();
-        String lastProcessedString = assetWrapper.getFromBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME);
-        DateTime lastProcessed = dateTimeParser.convertFromStringToDate(lastProcessedString);
-        boolean neverProcessed = lastProcessed == null;
+        long lastModified = assetWrapper.getAssetLastUpdatedEpochMillis();
+        Optional<Long> lastProcessed = assetWrapper.getProcessedEpochMillis();
         logger.debug("Last modified: {}", lastModified);
         logger.debug("Last processed: {}", lastProcessed);
-        return neverProcessed || lastModified.isAfter(lastProcessed);
+        return !lastProcessed.isPresent() || lastModified > lastProcessed.get();
     }
 }
@@ -0,0 +1,105 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+
+// the task configuration parsed once for a run instead of for every asset
+public class CompiledTaskFilter {
+    private static final char WILDCARD = '*';
+    private static final char SINGLE_WILDCARD = '?';
+
+    private final Pattern repositoryPathPattern;
+    private final SuffixTrie extensionSuffixes = new SuffixTrie();
+    private final List<String> wildcardPatterns = new ArrayList<>();
+    private final Long assetCutoffMillis;
+
+    public CompiledTaskFilter(String repositoryPathRegex, String fileExtensionPatterns, DateTime assetCutoffDateTime) {
+        repositoryPathPattern = StringUtils.isBlank(repositoryPathRegex) ? null : Pattern.compile(repositoryPathRegex);
+        assetCutoffMillis = null == assetCutoffDateTime ? null : assetCutoffDateTime.getMillis();
+        if (null != fileExtensionPatterns) {
+            for (String extensionPattern : fileExtensionPatterns.split(",")) {
+                addExtensionPattern(extensionPattern.trim());
+            }
+        }
+    }
+
+    // patterns like *.jar are matched by their suffix, anything else falls back to the wildcard match
+    private void addExtensionPattern(String extensionPattern) {
+        if (extensionPattern.isEmpty()) {
+            return;
+        }
+        String suffix = extensionPattern.substring(1);
+        if (WILDCARD == extensionPattern.charAt(0) && suffix.indexOf(WILDCARD) < 0 && suffix.indexOf(SINGLE_WILDCARD) < 0) {
+            extensionSuffixes.add(suffix);
+        } else {
+            wildcardPatterns.add(extensionPattern);
+        }
+    }
+
+    public boolean isAssetTooOld(DateTime lastModified) {
+        return null != assetCutoffMillis && lastModified.getMillis() < assetCutoffMillis;
+    }
+
+    public boolean doesAssetPathAndExtensionMatch(String fullPathName, String fileName) {
+        return doesRepositoryPathMatch(fullPathName) && doesExtensionMatch(fileName);
+    }
+
+    public boolean doesRepositoryPathMatch(String assetPath) {
+        return null == repositoryPathPattern || repositoryPathPattern.matcher(assetPath).matches();
+    }
+
+    public boolean doesExtensionMatch(String filename) {
+        if (StringUtils.isBlank(filename)) {
+            return false;
+        }
+        if (extensionSuffixes.matchesSuffixOf(filename)) {
+            return true;
+        }
+        for (String wildcardPattern : wildcardPatterns) {
+            if (FilenameUtils.wildcardMatch(filename, wildcardPattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the suffixes are stored reversed so a filename is checked against all of them in one walk from its last character
+    private static class SuffixTrie {
+        private final Node root = new Node();
+
+        public void add(String suffix) {
+            Node node = root;
+            for (int index = suffix.length() - 1; index >= 0; index--) {
+                node = node.children.computeIfAbsent(suffix.charAt(index), ignored -> new Node());
+            }
+            node.terminal = true;
+        }
+
+        public boolean matchesSuffixOf(String value) {
+            Node node = root;
+            for (int index = value.length() - 1; index >= 0; index--) {
+                if (node.terminal) {
+                    return true;
+                }
+                node = node.children.get(value.charAt(index));
+                if (null == node) {
+                    return false;
+                }
+            }
+            return node.terminal;
+        }
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private boolean terminal = false;
+    }
+
+}
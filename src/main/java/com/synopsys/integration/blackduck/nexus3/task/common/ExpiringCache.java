@@ -0,0 +1,132 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+public class ExpiringCache<V> {
+    private final int maximumSize;
+    private final long timeToLiveMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry<V>> entries;
+    // invalidated keys are still in the stored file, they must not come back when the stored entries are merged in
+    private final Set<String> invalidatedKeys = new HashSet<>();
+
+    public ExpiringCache(int maximumSize, long timeToLiveMillis) {
+        this(maximumSize, timeToLiveMillis, System::currentTimeMillis);
+    }
+
+    public ExpiringCache(int maximumSize, long timeToLiveMillis, LongSupplier clock) {
+        this.maximumSize = maximumSize;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.clock = clock;
+        // access ordered so the least recently used entry is evicted first
+        this.entries = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maximumSize;
+            }
+        };
+    }
+
+    public synchronized Optional<V> get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (null == entry) {
+            return Optional.empty();
+        }
+        if (entry.isExpired(clock.getAsLong())) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entry.getValue());
+    }
+
+    public synchronized boolean contains(String key) {
+        return get(key).isPresent();
+    }
+
+    public void put(String key, V value) {
+        put(key, value, timeToLiveMillis);
+    }
+
+    public synchronized void put(String key, V value, long entryTimeToLiveMillis) {
+        invalidatedKeys.remove(key);
+        entries.put(key, new Entry<>(value, clock.getAsLong() + entryTimeToLiveMillis));
+    }
+
+    public synchronized void putIfAbsent(String key, V value) {
+        if (!contains(key)) {
+            put(key, value);
+        }
+    }
+
+    public synchronized void invalidate(String key) {
+        entries.remove(key);
+        invalidatedKeys.add(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized Map<String, Entry<V>> getUnexpiredEntries() {
+        long now = clock.getAsLong();
+        Map<String, Entry<V>> unexpiredEntries = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry<V>> entry : entries.entrySet()) {
+            if (!entry.getValue().isExpired(now)) {
+                unexpiredEntries.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return unexpiredEntries;
+    }
+
+    // the entries of this cache win, the stored entries of other caches fill the remaining space unless this cache invalidated them
+    public synchronized Map<String, Entry<V>> mergeUnexpiredEntries(Map<String, Entry<V>> storedEntries) {
+        long now = clock.getAsLong();
+        Map<String, Entry<V>> mergedEntries = getUnexpiredEntries();
+        for (Map.Entry<String, Entry<V>> storedEntry : storedEntries.entrySet()) {
+            if (mergedEntries.size() >= maximumSize) {
+                break;
+            }
+            if (null != storedEntry.getValue() && !storedEntry.getValue().isExpired(now) && !invalidatedKeys.contains(storedEntry.getKey())) {
+                mergedEntries.putIfAbsent(storedEntry.getKey(), storedEntry.getValue());
+            }
+        }
+        return mergedEntries;
+    }
+
+    public synchronized void putEntries(Map<String, Entry<V>> loadedEntries) {
+        long now = clock.getAsLong();
+        for (Map.Entry<String, Entry<V>> entry : loadedEntries.entrySet()) {
+            if (null != entry.getValue() && !entry.getValue().isExpired(now)) {
+                entries.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        public Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isExpired(long currentTimeMillis) {
+            return currentTimeMillis >= expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+public class ExpiringCacheStore<V> {
+    // a FileChannel lock is held by the whole JVM, so the tasks inside Nexus are serialized by these locks first
+    private static final Map<File, Object> FILE_LOCKS = new ConcurrentHashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final Gson gson;
+    private final File cacheFile;
+    private final Type entriesType;
+
+    public ExpiringCacheStore(File cacheFile, Class<V> valueClass) {
+        this.gson = new Gson();
+        this.cacheFile = cacheFile.getAbsoluteFile();
+        Type entryType = TypeToken.getParameterized(ExpiringCache.Entry.class, valueClass).getType();
+        this.entriesType = TypeToken.getParameterized(Map.class, String.class, entryType).getType();
+    }
+
+    public void load(ExpiringCache<V> expiringCache) {
+        if (!cacheFile.isFile()) {
+            return;
+        }
+        try {
+            expiringCache.putEntries(readEntries());
+            logger.debug("Loaded {} cached entries from {}", expiringCache.size(), cacheFile.getAbsolutePath());
+        } catch (IOException | JsonParseException e) {
+            // a cache that can not be read is simply rebuilt
+            logger.warn("Could not read the cache file {}: {}", cacheFile.getAbsolutePath(), e.getMessage());
+            logger.debug(e.getMessage(), e);
+        }
+    }
+
+    // the tasks of all repositories share the file, so the entries they saved since this cache was loaded are merged in instead of overwritten
+    public void save(ExpiringCache<V> expiringCache) {
+        File cacheDirectory = cacheFile.getParentFile();
+        File lockFile = new File(cacheDirectory, cacheFile.getName() + ".lock");
+        try {
+            Files.createDirectories(cacheDirectory.toPath());
+            synchronized (FILE_LOCKS.computeIfAbsent(cacheFile, ignored -> new Object())) {
+                try (FileChannel lockChannel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileLock ignored = lockChannel.lock()) {
+                    writeEntries(expiringCache.mergeUnexpiredEntries(readStoredEntries()));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write the cache file {}: {}", cacheFile.getAbsolutePath(), e.getMessage());
+            logger.debug(e.getMessage(), e);
+        }
+    }
+
+    public File getCacheFile() {
+        return cacheFile;
+    }
+
+    private Map<String, ExpiringCache.Entry<V>> readStoredEntries() {
+        if (!cacheFile.isFile()) {
+            return Collections.emptyMap();
+        }
+        try {
+            return readEntries();
+        } catch (IOException | JsonParseException e) {
+            logger.debug("Replacing the unreadable cache file {}: {}", cacheFile.getAbsolutePath(), e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private Map<String, ExpiringCache.Entry<V>> readEntries() throws IOException {
+        try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+            Map<String, ExpiringCache.Entry<V>> entries = gson.fromJson(reader, entriesType);
+            return null == entries ? Collections.emptyMap() : entries;
+        }
+    }
+
+    // every writer gets its own temporary file, readers only ever see a complete cache file
+    private void writeEntries(Map<String, ExpiringCache.Entry<V>> entries) throws IOException {
+        Path temporaryFile = Files.createTempFile(cacheFile.getParentFile().toPath(), cacheFile.getName(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                gson.toJson(entries, entriesType, writer);
+            }
+            try {
+                Files.move(temporaryFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.synopsys.integration.blackduck.service.model.ProjectVersionWrapper;
+
+// every asset of a hosted repository and every page of a proxy repository resolves the same Project Versions over and over
+public class ProjectVersionCache {
+    public static final int MAXIMUM_ENTRIES = 10000;
+    public static final long TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final ExpiringCache<ProjectVersionWrapper> projectVersions;
+    private final ExpiringCache<Boolean> taggedProjects;
+
+    public ProjectVersionCache() {
+        this(new ExpiringCache<>(MAXIMUM_ENTRIES, TIME_TO_LIVE_MILLIS), new ExpiringCache<>(MAXIMUM_ENTRIES, TIME_TO_LIVE_MILLIS));
+    }
+
+    public ProjectVersionCache(ExpiringCache<ProjectVersionWrapper> projectVersions, ExpiringCache<Boolean> taggedProjects) {
+        this.projectVersions = projectVersions;
+        this.taggedProjects = taggedProjects;
+    }
+
+    public static String createKey(String projectName, String versionName) {
+        // a tab can not be part of a Black Duck project or version name
+        return projectName + "\t" + versionName;
+    }
+
+    public Optional<ProjectVersionWrapper> get(String projectName, String versionName) {
+        return projectVersions.get(createKey(projectName, versionName));
+    }
+
+    public void put(String projectName, String versionName, ProjectVersionWrapper projectVersionWrapper) {
+        projectVersions.put(createKey(projectName, versionName), projectVersionWrapper);
+    }
+
+    public void invalidate(String projectName, String versionName) {
+        projectVersions.invalidate(createKey(projectName, versionName));
+        taggedProjects.invalidate(projectName);
+    }
+
+    public boolean isTagged(String projectName) {
+        return taggedProjects.contains(projectName);
+    }
+
+    public void markTagged(String projectName) {
+        taggedProjects.put(projectName, Boolean.TRUE);
+    }
+
+}
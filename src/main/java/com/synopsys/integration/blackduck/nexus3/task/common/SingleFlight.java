@@ -0,0 +1,67 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+// concurrent lookups of the same key share one call to Black Duck, every caller waiting on the key gets the result or the exception of that call
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Loader<V> loader) throws IntegrationException {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existingFlight = inFlight.putIfAbsent(key, flight);
+        if (null != existingFlight) {
+            return await(existingFlight);
+        }
+        try {
+            V value = loader.load();
+            flight.complete(value);
+            return value;
+        } catch (IntegrationException | RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            // the result is not kept, a later call for the key asks Black Duck again
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    // the callers blocked on the flight of the key, the caller loading the value is not counted
+    public int getWaitingCount(K key) {
+        CompletableFuture<V> flight = inFlight.get(key);
+        return null == flight ? 0 : flight.getNumberOfDependents();
+    }
+
+    private V await(CompletableFuture<V> flight) throws IntegrationException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("Interrupted while waiting for the Black Duck response: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IntegrationException(cause.getMessage(), cause);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws IntegrationException;
+    }
+
+}
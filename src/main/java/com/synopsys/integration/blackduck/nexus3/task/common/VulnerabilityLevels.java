@@ -29,57 +29,58 @@ import static com.synopsys.integration.blackduck.api.generated.enumeration.Compo
 import static com.synopsys.integration.blackduck.api.generated.enumeration.ComponentVersionRiskProfileRiskDataCountsCountTypeType.MEDIUM;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.EnumMap;
-import java.util.Map;
 
 import com.synopsys.integration.blackduck.api.generated.enumeration.ComponentVersionRiskProfileRiskDataCountsCountTypeType;
 
+// the counts are kept by the ordinal of the severity so adding the risk counts of a BOM component does not allocate
 public class VulnerabilityLevels {
-    private final Map<ComponentVersionRiskProfileRiskDataCountsCountTypeType, BigDecimal> trackedVulnerabilities;
+    private final long[] trackedVulnerabilities = new long[ComponentVersionRiskProfileRiskDataCountsCountTypeType.values().length];
 
-    public VulnerabilityLevels() {
-        trackedVulnerabilities = new EnumMap<>(ComponentVersionRiskProfileRiskDataCountsCountTypeType.class);
-        Arrays
-            .stream(ComponentVersionRiskProfileRiskDataCountsCountTypeType.values())
-            .forEach(value -> trackedVulnerabilities.put(value, BigDecimal.ZERO));
+    public void addVulnerability(ComponentVersionRiskProfileRiskDataCountsCountTypeType vulnerability) {
+        addVulnerabilities(vulnerability, 1L);
     }
 
-    public void addVulnerability(ComponentVersionRiskProfileRiskDataCountsCountTypeType vulnerability) {
-        addXVulnerabilities(vulnerability, BigDecimal.ONE);
+    public void addVulnerabilities(ComponentVersionRiskProfileRiskDataCountsCountTypeType vulnerability, long count) {
+        if (null != vulnerability) {
+            trackedVulnerabilities[vulnerability.ordinal()] += count;
+        }
     }
 
     public void addXVulnerabilities(ComponentVersionRiskProfileRiskDataCountsCountTypeType vulnerability, BigDecimal count) {
-        if (null != vulnerability && null != count) {
-            trackedVulnerabilities.computeIfPresent(vulnerability, (key, value) -> value.add(count));
+        if (null != count) {
+            addVulnerabilities(vulnerability, count.longValue());
         }
     }
 
+    public long getVulnerabilityCount(ComponentVersionRiskProfileRiskDataCountsCountTypeType vulnerability) {
+        return trackedVulnerabilities[vulnerability.ordinal()];
+    }
+
     public BigDecimal getCriticalVulnerabilityCount() {
-        return trackedVulnerabilities.get(CRITICAL);
+        return BigDecimal.valueOf(getVulnerabilityCount(CRITICAL));
     }
 
     public BigDecimal getHighVulnerabilityCount() {
-        return trackedVulnerabilities.get(HIGH);
+        return BigDecimal.valueOf(getVulnerabilityCount(HIGH));
     }
 
     public BigDecimal getMediumVulnerabilityCount() {
-        return trackedVulnerabilities.get(MEDIUM);
+        return BigDecimal.valueOf(getVulnerabilityCount(MEDIUM));
     }
 
     public BigDecimal getLowVulnerabilityCount() {
-        return trackedVulnerabilities.get(LOW);
+        return BigDecimal.valueOf(getVulnerabilityCount(LOW));
     }
 
     public String getAllCounts() {
         StringBuilder countBuilder = new StringBuilder();
-        countBuilder.append(getCriticalVulnerabilityCount());
+        countBuilder.append(getVulnerabilityCount(CRITICAL));
         countBuilder.append(" Critical, ");
-        countBuilder.append(getHighVulnerabilityCount());
+        countBuilder.append(getVulnerabilityCount(HIGH));
         countBuilder.append(" High, ");
-        countBuilder.append(getMediumVulnerabilityCount());
+        countBuilder.append(getVulnerabilityCount(MEDIUM));
         countBuilder.append(" Medium, ");
-        countBuilder.append(getLowVulnerabilityCount());
+        countBuilder.append(getVulnerabilityCount(LOW));
         countBuilder.append(" Low.");
         return countBuilder.toString();
     }
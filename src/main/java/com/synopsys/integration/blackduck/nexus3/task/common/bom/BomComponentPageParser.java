@@ -0,0 +1,150 @@
+package com.synopsys.integration.blackduck.nexus3.task.common.bom;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.synopsys.integration.blackduck.api.generated.enumeration.ComponentVersionRiskProfileRiskDataCountsCountTypeType;
+import com.synopsys.integration.blackduck.api.generated.enumeration.PolicyStatusType;
+
+// reads one page of the project version components response token by token so only the summaries are ever held in memory
+public class BomComponentPageParser {
+    public static final String ITEMS = "items";
+    public static final String ORIGINS = "origins";
+    public static final String EXTERNAL_ID = "externalId";
+    public static final String POLICY_STATUS = "policyStatus";
+    public static final String SECURITY_RISK_PROFILE = "securityRiskProfile";
+    public static final String COUNTS = "counts";
+    public static final String COUNT_TYPE = "countType";
+    public static final String COUNT = "count";
+
+    // returns the number of components read from the page
+    public int parsePage(Reader reader, Consumer<BomComponentSummary> componentConsumer) throws IOException {
+        int componentCount = 0;
+        try (JsonReader jsonReader = new JsonReader(reader)) {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                String name = jsonReader.nextName();
+                if (ITEMS.equals(name)) {
+                    jsonReader.beginArray();
+                    while (jsonReader.hasNext()) {
+                        componentConsumer.accept(parseComponent(jsonReader));
+                        componentCount++;
+                    }
+                    jsonReader.endArray();
+                } else {
+                    jsonReader.skipValue();
+                }
+            }
+            jsonReader.endObject();
+        }
+        return componentCount;
+    }
+
+    private BomComponentSummary parseComponent(JsonReader jsonReader) throws IOException {
+        List<String> originExternalIds = Collections.emptyList();
+        PolicyStatusType policyStatus = null;
+        int[] riskCounts = BomComponentSummary.createRiskCounts();
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (isNull(jsonReader)) {
+                continue;
+            }
+            if (ORIGINS.equals(name)) {
+                originExternalIds = parseOrigins(jsonReader);
+            } else if (POLICY_STATUS.equals(name)) {
+                policyStatus = parseEnum(PolicyStatusType.class, jsonReader.nextString());
+            } else if (SECURITY_RISK_PROFILE.equals(name)) {
+                parseSecurityRiskProfile(jsonReader, riskCounts);
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+        return new BomComponentSummary(originExternalIds, policyStatus, riskCounts);
+    }
+
+    private List<String> parseOrigins(JsonReader jsonReader) throws IOException {
+        List<String> originExternalIds = new ArrayList<>(1);
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                String name = jsonReader.nextName();
+                if (EXTERNAL_ID.equals(name) && !isNull(jsonReader)) {
+                    originExternalIds.add(jsonReader.nextString());
+                } else if (!EXTERNAL_ID.equals(name)) {
+                    jsonReader.skipValue();
+                }
+            }
+            jsonReader.endObject();
+        }
+        jsonReader.endArray();
+        return originExternalIds;
+    }
+
+    private void parseSecurityRiskProfile(JsonReader jsonReader, int[] riskCounts) throws IOException {
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (COUNTS.equals(name) && !isNull(jsonReader)) {
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    parseRiskCount(jsonReader, riskCounts);
+                }
+                jsonReader.endArray();
+            } else if (!COUNTS.equals(name)) {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+    }
+
+    private void parseRiskCount(JsonReader jsonReader, int[] riskCounts) throws IOException {
+        ComponentVersionRiskProfileRiskDataCountsCountTypeType countType = null;
+        int count = 0;
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (isNull(jsonReader)) {
+                continue;
+            }
+            if (COUNT_TYPE.equals(name)) {
+                countType = parseEnum(ComponentVersionRiskProfileRiskDataCountsCountTypeType.class, jsonReader.nextString());
+            } else if (COUNT.equals(name)) {
+                count = jsonReader.nextInt();
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+        if (null != countType) {
+            riskCounts[countType.ordinal()] += count;
+        }
+    }
+
+    private boolean isNull(JsonReader jsonReader) throws IOException {
+        if (JsonToken.NULL == jsonReader.peek()) {
+            jsonReader.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    private <T extends Enum<T>> T parseEnum(Class<T> enumClass, String value) {
+        try {
+            return Enum.valueOf(enumClass, value);
+        } catch (IllegalArgumentException e) {
+            // Gson maps values it does not know to null as well
+            return null;
+        }
+    }
+
+}
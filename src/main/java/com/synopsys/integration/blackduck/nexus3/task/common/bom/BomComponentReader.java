@@ -0,0 +1,64 @@
+package com.synopsys.integration.blackduck.nexus3.task.common.bom;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.rest.BlackDuckHttpClient;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+public class BomComponentReader {
+    public static final int PAGE_SIZE = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final BlackDuckHttpClient blackDuckHttpClient;
+    private final BomComponentPageParser bomComponentPageParser;
+
+    public BomComponentReader(BlackDuckHttpClient blackDuckHttpClient) {
+        this.blackDuckHttpClient = blackDuckHttpClient;
+        this.bomComponentPageParser = new BomComponentPageParser();
+    }
+
+    // the BOM is requested one page at a time and every component is handed over as soon as it is read
+    public int readComponents(ProjectVersionView projectVersionView, Consumer<BomComponentSummary> componentConsumer) throws IntegrationException {
+        Optional<String> componentsUrl = projectVersionView.getFirstLink(ProjectVersionView.COMPONENTS_LINK);
+        if (!componentsUrl.isPresent()) {
+            logger.error(String.format("The '%s' link is missing from the Project Version: '%s'.", ProjectVersionView.COMPONENTS_LINK, projectVersionView.getHref().orElse("MISSING HREF")));
+            return 0;
+        }
+
+        int offset = 0;
+        int pageCount;
+        do {
+            pageCount = readPage(componentsUrl.get(), offset, componentConsumer);
+            offset += pageCount;
+        } while (PAGE_SIZE == pageCount);
+        logger.debug("Read {} BOM components from {}", offset, componentsUrl.get());
+        return offset;
+    }
+
+    private int readPage(String componentsUrl, int offset, Consumer<BomComponentSummary> componentConsumer) throws IntegrationException {
+        Request request = new Request.Builder(componentsUrl)
+                              .addQueryParameter("offset", String.valueOf(offset))
+                              .addQueryParameter("limit", String.valueOf(PAGE_SIZE))
+                              .build();
+        try (Response response = blackDuckHttpClient.execute(request)) {
+            blackDuckHttpClient.throwExceptionForError(response);
+            try (Reader reader = new InputStreamReader(response.getContent(), StandardCharsets.UTF_8)) {
+                return bomComponentPageParser.parsePage(reader, componentConsumer);
+            }
+        } catch (IOException e) {
+            throw new IntegrationException(String.format("Could not read the BOM components from %s: %s", componentsUrl, e.getMessage()), e);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.synopsys.integration.blackduck.nexus3.task.common.bom;
+
+import java.util.List;
+
+import com.synopsys.integration.blackduck.api.generated.enumeration.ComponentVersionRiskProfileRiskDataCountsCountTypeType;
+import com.synopsys.integration.blackduck.api.generated.enumeration.PolicyStatusType;
+import com.synopsys.integration.blackduck.nexus3.task.common.VulnerabilityLevels;
+
+// the few fields of a BOM component the plugin uses, the full ProjectVersionComponentView also carries licenses, usages, match types and links
+public class BomComponentSummary {
+    private static final ComponentVersionRiskProfileRiskDataCountsCountTypeType[] COUNT_TYPES = ComponentVersionRiskProfileRiskDataCountsCountTypeType.values();
+
+    private final List<String> originExternalIds;
+    private final PolicyStatusType policyStatus;
+    private final int[] riskCounts;
+
+    public BomComponentSummary(List<String> originExternalIds, PolicyStatusType policyStatus, int[] riskCounts) {
+        this.originExternalIds = originExternalIds;
+        this.policyStatus = policyStatus;
+        this.riskCounts = riskCounts;
+    }
+
+    public static int[] createRiskCounts() {
+        return new int[COUNT_TYPES.length];
+    }
+
+    public List<String> getOriginExternalIds() {
+        return originExternalIds;
+    }
+
+    public PolicyStatusType getPolicyStatus() {
+        return policyStatus;
+    }
+
+    public int getRiskCount(ComponentVersionRiskProfileRiskDataCountsCountTypeType countType) {
+        return riskCounts[countType.ordinal()];
+    }
+
+    public void addRiskCounts(VulnerabilityLevels vulnerabilityLevels) {
+        for (ComponentVersionRiskProfileRiskDataCountsCountTypeType countType : COUNT_TYPES) {
+            vulnerabilityLevels.addVulnerabilities(countType, riskCounts[countType.ordinal()]);
+        }
+    }
+
+}
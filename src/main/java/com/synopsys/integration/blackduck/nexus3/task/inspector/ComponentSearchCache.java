@@ -0,0 +1,66 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector;
+
+import java.io.File;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.blackduck.nexus3.task.common.ExpiringCache;
+import com.synopsys.integration.blackduck.nexus3.task.common.ExpiringCacheStore;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.model.ComponentSearchResult;
+
+// the component searches of every inspected repository, a component that was not found is searched again sooner because the KB keeps growing
+public class ComponentSearchCache {
+    public static final int MAXIMUM_ENTRIES = 250000;
+    public static final long FOUND_TIME_TO_LIVE_MILLIS = TimeUnit.DAYS.toMillis(30);
+    public static final long NOT_FOUND_TIME_TO_LIVE_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final ExpiringCache<ComponentSearchResult> expiringCache;
+    private final ExpiringCacheStore<ComponentSearchResult> expiringCacheStore;
+    private final long notFoundTimeToLiveMillis;
+
+    public static ComponentSearchCache createCache(File workingBlackDuckDirectory) {
+        File cacheFile = new File(new File(workingBlackDuckDirectory, "cache"), "component-search.json");
+        ComponentSearchCache componentSearchCache = new ComponentSearchCache(new ExpiringCache<>(MAXIMUM_ENTRIES, FOUND_TIME_TO_LIVE_MILLIS), new ExpiringCacheStore<>(cacheFile, ComponentSearchResult.class),
+            NOT_FOUND_TIME_TO_LIVE_MILLIS);
+        componentSearchCache.load();
+        return componentSearchCache;
+    }
+
+    public ComponentSearchCache(ExpiringCache<ComponentSearchResult> expiringCache, ExpiringCacheStore<ComponentSearchResult> expiringCacheStore, long notFoundTimeToLiveMillis) {
+        this.expiringCache = expiringCache;
+        this.expiringCacheStore = expiringCacheStore;
+        this.notFoundTimeToLiveMillis = notFoundTimeToLiveMillis;
+    }
+
+    public Optional<ComponentSearchResult> get(ExternalId externalId) {
+        return expiringCache.get(OriginIdCache.createKey(externalId));
+    }
+
+    public void put(ExternalId externalId, ComponentSearchResult componentSearchResult) {
+        String key = OriginIdCache.createKey(externalId);
+        if (componentSearchResult.isFound()) {
+            expiringCache.put(key, componentSearchResult);
+        } else {
+            expiringCache.put(key, componentSearchResult, notFoundTimeToLiveMillis);
+        }
+    }
+
+    public void invalidate(ExternalId externalId) {
+        expiringCache.invalidate(OriginIdCache.createKey(externalId));
+    }
+
+    public int size() {
+        return expiringCache.size();
+    }
+
+    public void load() {
+        expiringCacheStore.load(expiringCache);
+    }
+
+    // inspector tasks running at the same time all write to the same file, the store merges their searches
+    public void save() {
+        expiringCacheStore.save(expiringCache);
+    }
+
+}
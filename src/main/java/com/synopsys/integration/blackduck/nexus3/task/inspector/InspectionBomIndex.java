@@ -0,0 +1,60 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentSummary;
+
+public class InspectionBomIndex {
+    private final Map<String, BomComponentSummary> originIdToComponent = new HashMap<>();
+    private boolean loaded = false;
+    private boolean componentsAdded = false;
+    private Date bomLastUpdatedAt;
+
+    public void clear() {
+        originIdToComponent.clear();
+        loaded = false;
+    }
+
+    public void addComponent(BomComponentSummary bomComponent) {
+        for (String originExternalId : bomComponent.getOriginExternalIds()) {
+            originIdToComponent.put(originExternalId, bomComponent);
+        }
+    }
+
+    public void markRefreshed(Date bomLastUpdatedAt) {
+        this.bomLastUpdatedAt = bomLastUpdatedAt;
+        loaded = true;
+        componentsAdded = false;
+    }
+
+    public void markComponentsAdded() {
+        componentsAdded = true;
+    }
+
+    // the BOM only needs to be downloaded again when the plugin changed it or it is missing components that are being looked for
+    public boolean needsRefresh(Collection<String> originIds) {
+        return !loaded || componentsAdded || !originIdToComponent.keySet().containsAll(originIds);
+    }
+
+    // Black Duck updates bomLastUpdatedAt asynchronously, so it can not be trusted once the plugin added components
+    public boolean isUnchangedSince(Date currentBomLastUpdatedAt) {
+        return loaded && !componentsAdded && null != currentBomLastUpdatedAt && currentBomLastUpdatedAt.equals(bomLastUpdatedAt);
+    }
+
+    public Optional<BomComponentSummary> findComponent(String originId) {
+        return Optional.ofNullable(originIdToComponent.get(originId));
+    }
+
+    public boolean isEmpty() {
+        return originIdToComponent.isEmpty();
+    }
+
+    public int size() {
+        return originIdToComponent.size();
+    }
+
+}
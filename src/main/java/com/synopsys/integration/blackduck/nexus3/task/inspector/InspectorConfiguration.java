@@ -5,6 +5,7 @@ import org.sonatype.nexus.repository.Repository;
 
 import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationService;
 import com.synopsys.integration.blackduck.codelocation.bdioupload.BdioUploadService;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentReader;
 import com.synopsys.integration.blackduck.nexus3.task.inspector.dependency.DependencyType;
 import com.synopsys.integration.blackduck.service.BlackDuckService;
 import com.synopsys.integration.blackduck.service.ComponentService;
@@ -23,18 +24,19 @@ public class InspectorConfiguration {
     private final CodeLocationCreationService codeLocationCreationService;
     private final BdioUploadService bdioUploadService;
     private final ProjectBomService projectBomService;
+    private final BomComponentReader bomComponentReader;
 
     public static InspectorConfiguration createConfigurationWithError(String exceptionMessage, Repository repository, DependencyType dependencyType) {
-        return new InspectorConfiguration(exceptionMessage, repository, dependencyType, null, null, null, null, null, null);
+        return new InspectorConfiguration(exceptionMessage, repository, dependencyType, null, null, null, null, null, null, null);
     }
 
     public static InspectorConfiguration createConfiguration(Repository repository, DependencyType dependencyType, BlackDuckService blackDuckService, ComponentService componentService,
-        ProjectService projectService, CodeLocationCreationService codeLocationCreationService, BdioUploadService bdioUploadService, ProjectBomService projectBomService) {
-        return new InspectorConfiguration(null, repository, dependencyType, blackDuckService, componentService, projectService, codeLocationCreationService, bdioUploadService, projectBomService);
+        ProjectService projectService, CodeLocationCreationService codeLocationCreationService, BdioUploadService bdioUploadService, ProjectBomService projectBomService, BomComponentReader bomComponentReader) {
+        return new InspectorConfiguration(null, repository, dependencyType, blackDuckService, componentService, projectService, codeLocationCreationService, bdioUploadService, projectBomService, bomComponentReader);
     }
 
     public InspectorConfiguration(String exceptionMessage, Repository repository, DependencyType dependencyType, BlackDuckService blackDuckService, ComponentService componentService,
-        ProjectService projectService, CodeLocationCreationService codeLocationCreationService, BdioUploadService bdioUploadService, ProjectBomService projectBomService) {
+        ProjectService projectService, CodeLocationCreationService codeLocationCreationService, BdioUploadService bdioUploadService, ProjectBomService projectBomService, BomComponentReader bomComponentReader) {
         this.exceptionMessage = exceptionMessage;
         this.repository = repository;
         this.dependencyType = dependencyType;
@@ -44,10 +46,11 @@ public class InspectorConfiguration {
         this.codeLocationCreationService = codeLocationCreationService;
         this.bdioUploadService = bdioUploadService;
         this.projectBomService = projectBomService;
+        this.bomComponentReader = bomComponentReader;
     }
 
     public boolean hasErrors() {
-        return StringUtils.isNotBlank(exceptionMessage) || null == blackDuckService || null == projectService || null == codeLocationCreationService || null == bdioUploadService || null == projectBomService;
+        return StringUtils.isNotBlank(exceptionMessage) || null == blackDuckService || null == projectService || null == codeLocationCreationService || null == bdioUploadService || null == projectBomService || null == bomComponentReader;
     }
 
     public String getExceptionMessage() {
@@ -85,4 +88,8 @@ public class InspectorConfiguration {
     public ProjectBomService getProjectBomService() {
         return projectBomService;
     }
+
+    public BomComponentReader getBomComponentReader() {
+        return bomComponentReader;
+    }
 }
@@ -25,9 +25,11 @@ package com.synopsys.integration.blackduck.nexus3.task.inspector;
 
 import static com.synopsys.integration.blackduck.nexus3.task.inspector.InspectorTask.INSPECTOR_VERSION_NAME;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -36,18 +38,21 @@ import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.synopsys.integration.blackduck.api.generated.component.ComponentVersionRiskProfileRiskDataCountsView;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
 import com.synopsys.integration.blackduck.api.generated.enumeration.PolicyStatusType;
-import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionComponentView;
+import com.synopsys.integration.blackduck.api.generated.response.ComponentsView;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
-import com.synopsys.integration.blackduck.api.manual.throwaway.generated.component.VersionBomOriginView;
+import com.synopsys.integration.blackduck.api.manual.throwaway.generated.response.VersionRiskProfileView;
 import com.synopsys.integration.blackduck.nexus3.task.AssetWrapper;
 import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonMetaDataProcessor;
+import com.synopsys.integration.blackduck.nexus3.task.common.SingleFlight;
 import com.synopsys.integration.blackduck.nexus3.task.common.VulnerabilityLevels;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentReader;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentSummary;
 import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
 import com.synopsys.integration.blackduck.service.BlackDuckService;
-import com.synopsys.integration.blackduck.service.ProjectBomService;
+import com.synopsys.integration.blackduck.service.ComponentService;
 import com.synopsys.integration.blackduck.service.ProjectService;
 import com.synopsys.integration.exception.IntegrationException;
 
@@ -57,6 +62,8 @@ public class InspectorMetaDataProcessor {
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final CommonMetaDataProcessor commonMetaDataProcessor;
     private final DateTimeParser dateTimeParser;
+    // inspector tasks of different repositories search for the same components
+    private final SingleFlight<String, Optional<ComponentsView>> componentSearchFlights = new SingleFlight<>();
 
     @Inject
     public InspectorMetaDataProcessor(CommonMetaDataProcessor commonMetaDataProcessor, DateTimeParser dateTimeParser) {
@@ -64,80 +71,92 @@ public class InspectorMetaDataProcessor {
         this.dateTimeParser = dateTimeParser;
     }
 
-    public void updateRepositoryMetaData(ProjectBomService projectBomService, String blackDuckServerUrl, ProjectVersionView projectVersionView, Map<String, AssetWrapper> assetWrapperMap) throws IntegrationException {
-        String projectVersionHref = projectVersionView.getHref().orElse("MISSING HREF");
-        logger.debug("Checking for components in Project Version: '{}'.", projectVersionHref);
-        List<ProjectVersionComponentView> versionComponentViews = commonMetaDataProcessor.getBomComponents(projectBomService, projectVersionView);
-        Map<String, AssetWrapper> remainingAssets = new HashMap<>();
-        if (versionComponentViews.isEmpty()) {
-            logger.error("Could not find components in Project Version: '{}'. Check to see if the Code Locations and scans have finished.", projectVersionHref);
-        } else {
-            logger.debug("Found '{}' components in Project Version: '{}'.", versionComponentViews.size(), projectVersionHref);
-            remainingAssets = processAssetMapAndBlackDuckComponents(versionComponentViews, blackDuckServerUrl, projectVersionView, assetWrapperMap);
-        }
-        logger.debug("The following assets did not have a matching component: {}", remainingAssets);
-        for (AssetWrapper assetWrapper : remainingAssets.values()) {
-            logger.warn("This asset was not found in Black Duck, {}", assetWrapper.getName());
-            assetWrapper.addComponentNotFoundToBlackDuckPanel("Black Duck was not able to find this component.");
-            assetWrapper.updateAsset();
-        }
+    public InspectionBomIndex createBomIndex(BomComponentReader bomComponentReader, ProjectVersionView projectVersionView) throws IntegrationException {
+        InspectionBomIndex bomIndex = new InspectionBomIndex();
+        loadBomIndex(bomComponentReader, projectVersionView, bomIndex, null);
+        return bomIndex;
     }
 
-    public ProjectVersionView getOrCreateProjectVersion(BlackDuckService blackDuckService, ProjectService projectService, String repoName) throws IntegrationException {
-        return commonMetaDataProcessor.getOrCreateProjectVersion(blackDuckService, projectService, repoName, INSPECTOR_VERSION_NAME);
+    public void refreshBomIndex(BlackDuckService blackDuckService, BomComponentReader bomComponentReader, ProjectVersionView projectVersionView, InspectionBomIndex bomIndex, Collection<String> originIds)
+        throws IntegrationException {
+        if (!bomIndex.needsRefresh(originIds)) {
+            logger.debug("The BOM index already contains all the components of this page.");
+            return;
+        }
+        Date bomLastUpdatedAt = commonMetaDataProcessor.getRiskProfile(blackDuckService, projectVersionView)
+                                    .map(VersionRiskProfileView::getBomLastUpdatedAt)
+                                    .orElse(null);
+        if (bomIndex.isUnchangedSince(bomLastUpdatedAt)) {
+            logger.debug("The BOM has not changed since {}, using the existing BOM index.", bomLastUpdatedAt);
+            return;
+        }
+        logger.debug("Refreshing the BOM index of Project Version: '{}'.", projectVersionView.getHref().orElse("MISSING HREF"));
+        loadBomIndex(bomComponentReader, projectVersionView, bomIndex, bomLastUpdatedAt);
     }
 
-    public void updateComponentNotFoundStatus(AssetWrapper assetWrapper, String componentMissingMessage) {
-        assetWrapper.removeAllBlackDuckData();
-        assetWrapper.addComponentNotFoundToBlackDuckPanel(componentMissingMessage);
-        assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME, dateTimeParser.getCurrentDateTime());
-        assetWrapper.updateAsset();
+    private void loadBomIndex(BomComponentReader bomComponentReader, ProjectVersionView projectVersionView, InspectionBomIndex bomIndex, Date bomLastUpdatedAt) throws IntegrationException {
+        bomIndex.clear();
+        bomComponentReader.readComponents(projectVersionView, bomIndex::addComponent);
+        bomIndex.markRefreshed(bomLastUpdatedAt);
     }
 
-    private Map<String, AssetWrapper> processAssetMapAndBlackDuckComponents(List<ProjectVersionComponentView> versionComponentViews, String blackDuckServerUrl,
-        ProjectVersionView projectVersionView, Map<String, AssetWrapper> assetWrapperMap) {
-        Map<String, ProjectVersionComponentView> externalIdToComponent = new HashMap<>();
-        for (ProjectVersionComponentView versionComponentView : versionComponentViews) {
-            versionComponentView.getOrigins().stream()
-                .map(VersionBomOriginView::getExternalId)
-                .forEach(externalId -> externalIdToComponent.put(externalId, versionComponentView));
+    public void updateRepositoryMetaData(InspectionBomIndex bomIndex, String blackDuckServerUrl, ProjectVersionView projectVersionView, Map<String, List<AssetWrapper>> assetWrapperMap) {
+        String projectVersionHref = projectVersionView.getHref().orElse("MISSING HREF");
+        if (bomIndex.isEmpty()) {
+            logger.error("Could not find components in Project Version: '{}'. Check to see if the Code Locations and scans have finished.", projectVersionHref);
+            return;
         }
-        Map<String, AssetWrapper> remainingAssets = new HashMap<>(assetWrapperMap);
-        for (Map.Entry<String, AssetWrapper> assetWrapperEntry : assetWrapperMap.entrySet()) {
+        logger.debug("Found '{}' component origins in Project Version: '{}'.", bomIndex.size(), projectVersionHref);
+        for (Map.Entry<String, List<AssetWrapper>> assetWrapperEntry : assetWrapperMap.entrySet()) {
             String externalId = assetWrapperEntry.getKey();
-            AssetWrapper assetWrapper = assetWrapperEntry.getValue();
 
-            ProjectVersionComponentView versionComponentView = externalIdToComponent.get(externalId);
-            if (null == versionComponentView) {
+            Optional<BomComponentSummary> bomComponent = bomIndex.findComponent(externalId);
+            if (!bomComponent.isPresent()) {
                 String componentNotFoundMessage = String.format("The component %s could not be found in Black Duck.", externalId);
                 logger.warn(componentNotFoundMessage);
-                updateComponentNotFoundStatus(assetWrapper, componentNotFoundMessage);
+                assetWrapperEntry.getValue().forEach(assetWrapper -> updateComponentNotFoundStatus(assetWrapper, componentNotFoundMessage));
             } else {
-                processAssetComponent(versionComponentView, blackDuckServerUrl, projectVersionView, assetWrapper);
-                remainingAssets.remove(externalId);
+                assetWrapperEntry.getValue().forEach(assetWrapper -> processAssetComponent(bomComponent.get(), blackDuckServerUrl, projectVersionView, assetWrapper));
             }
         }
-        return remainingAssets;
     }
 
-    private void processAssetComponent(ProjectVersionComponentView versionComponentView, String blackDuckServerUrl, ProjectVersionView projectVersionView, AssetWrapper assetWrapper) {
+    public Optional<ComponentsView> findComponent(ComponentService componentService, ExternalId externalId) throws IntegrationException {
+        return componentSearchFlights.execute(OriginIdCache.createKey(externalId), () -> componentService.getFirstOrEmptyResult(externalId));
+    }
+
+    public ProjectVersionView getOrCreateProjectVersion(BlackDuckService blackDuckService, ProjectService projectService, String repoName) throws IntegrationException {
+        return commonMetaDataProcessor.getOrCreateProjectVersion(blackDuckService, projectService, repoName, INSPECTOR_VERSION_NAME);
+    }
+
+    public void invalidateProjectVersion(String repoName, IntegrationException exception) {
+        commonMetaDataProcessor.invalidateProjectVersion(repoName, INSPECTOR_VERSION_NAME, exception);
+    }
+
+    public void updateComponentNotFoundStatus(AssetWrapper assetWrapper, String componentMissingMessage) {
+        assetWrapper.removeAllBlackDuckData();
+        assetWrapper.addComponentNotFoundToBlackDuckPanel(componentMissingMessage);
+        assetWrapper.addProcessedTimeToBlackDuckPanel(dateTimeParser.getCurrentEpochMillis());
+        assetWrapper.updateAsset();
+    }
+
+    private void processAssetComponent(BomComponentSummary bomComponent, String blackDuckServerUrl, ProjectVersionView projectVersionView, AssetWrapper assetWrapper) {
         String blackDuckUrl = projectVersionView.getHref().orElse(blackDuckServerUrl);
-        PolicyStatusType policyStatus = versionComponentView.getPolicyStatus();
+        PolicyStatusType policyStatus = bomComponent.getPolicyStatus();
 
         logger.debug("Found component and updating Asset: {}:{}", assetWrapper.getName(), assetWrapper.getVersion());
         assetWrapper.addSuccessToBlackDuckPanel("Successfully pulled inspection data from Black Duck.");
         assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.BLACKDUCK_URL, blackDuckUrl);
         assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.OVERALL_POLICY_STATUS, policyStatus.prettyPrint());
-        assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME, dateTimeParser.getCurrentDateTime());
-        addVulnerabilityStatus(assetWrapper, versionComponentView);
+        assetWrapper.addProcessedTimeToBlackDuckPanel(dateTimeParser.getCurrentEpochMillis());
+        addVulnerabilityStatus(assetWrapper, bomComponent);
         assetWrapper.updateAsset();
     }
 
-    private void addVulnerabilityStatus(AssetWrapper assetWrapper, ProjectVersionComponentView versionComponentView) {
+    private void addVulnerabilityStatus(AssetWrapper assetWrapper, BomComponentSummary bomComponent) {
         VulnerabilityLevels vulnerabilityLevels = new VulnerabilityLevels();
-        List<ComponentVersionRiskProfileRiskDataCountsView> riskCountViews = versionComponentView.getSecurityRiskProfile().getCounts();
         logger.trace("Counting vulnerabilities");
-        commonMetaDataProcessor.addAllAssetVulnerabilityCounts(riskCountViews, vulnerabilityLevels);
+        bomComponent.addRiskCounts(vulnerabilityLevels);
         commonMetaDataProcessor.setAssetVulnerabilityData(vulnerabilityLevels, assetWrapper);
     }
 
@@ -1,11 +1,20 @@
 package com.synopsys.integration.blackduck.nexus3.task.inspector;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.IterableUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -17,6 +26,8 @@ import org.sonatype.nexus.repository.storage.Query;
 import org.sonatype.nexus.scheduling.TaskConfiguration;
 import org.sonatype.nexus.scheduling.TaskInterruptedException;
 
+import com.synopsys.integration.bdio.model.SimpleBdioDocument;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
 import com.synopsys.integration.bdio.model.externalid.ExternalId;
 import com.synopsys.integration.blackduck.api.generated.response.ComponentsView;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
@@ -25,10 +36,16 @@ import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
 import com.synopsys.integration.blackduck.nexus3.database.PagedResult;
 import com.synopsys.integration.blackduck.nexus3.task.AssetWrapper;
 import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
+import com.synopsys.integration.blackduck.nexus3.task.TaskStatus;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonRepositoryTaskHelper;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonTaskFilters;
+import com.synopsys.integration.blackduck.nexus3.task.common.CompiledTaskFilter;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.bdio.BdioUploadFingerprint;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.bdio.InspectorBdioUploader;
 import com.synopsys.integration.blackduck.nexus3.task.inspector.dependency.DependencyGenerator;
 import com.synopsys.integration.blackduck.nexus3.task.inspector.dependency.DependencyType;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.model.ComponentOrigin;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.model.ComponentSearchResult;
 import com.synopsys.integration.blackduck.nexus3.task.inspector.model.TemporaryOriginView;
 import com.synopsys.integration.blackduck.nexus3.task.inspector.wait.ComponentLinkWaitJob;
 import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
@@ -39,9 +56,11 @@ import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.Slf4jIntLogger;
 import com.synopsys.integration.rest.RestConstants;
 import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.util.NameVersion;
 import com.synopsys.integration.wait.WaitJob;
 
 public class InspectorScanner {
+    private static final String COMPONENT_MEDIA_TYPE = "application/json";
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final CommonRepositoryTaskHelper commonRepositoryTaskHelper;
@@ -51,6 +70,10 @@ public class InspectorScanner {
     private final CommonTaskFilters commonTaskFilters;
     private final TaskConfiguration taskConfiguration;
     private final InspectorConfiguration inspectorConfiguration;
+    private final CompiledTaskFilter compiledTaskFilter;
+    private OriginIdCache originIdCache;
+    private ComponentSearchCache componentSearchCache;
+    private InspectionBomIndex bomIndex;
 
     public InspectorScanner(CommonRepositoryTaskHelper commonRepositoryTaskHelper, DateTimeParser dateTimeParser, DependencyGenerator dependencyGenerator,
         InspectorMetaDataProcessor inspectorMetaDataProcessor, CommonTaskFilters commonTaskFilters, TaskConfiguration taskConfiguration, InspectorConfiguration inspectorConfiguration) {
@@ -59,6 +82,7 @@ public class InspectorScanner {
         this.dependencyGenerator = dependencyGenerator;
         this.inspectorMetaDataProcessor = inspectorMetaDataProcessor;
         this.commonTaskFilters = commonTaskFilters;
+        this.compiledTaskFilter = commonTaskFilters.compileTaskFilter(taskConfiguration);
         this.taskConfiguration = taskConfiguration;
         this.inspectorConfiguration = inspectorConfiguration;
     }
@@ -74,15 +98,38 @@ public class InspectorScanner {
             throw new TaskInterruptedException(message, true);
         }
         String blackDuckUrl = blackDuckServerConfig.getBlackDuckUrl().toString();
+        boolean uploadBdio = taskConfiguration.getBoolean(InspectorTaskDescriptor.KEY_BDIO_UPLOAD, false);
 
         String repositoryName = inspectorConfiguration.getRepository().getName();
         logger.info("Checking repository for assets: {}", repositoryName);
         Query pagedQuery = commonRepositoryTaskHelper.createPagedQuery(Optional.empty()).build();
         PagedResult<Asset> filteredAssets = commonRepositoryTaskHelper.retrievePagedAssets(inspectorConfiguration.getRepository(), pagedQuery);
         ProjectVersionView projectVersionView = getProjectVersion(repositoryName);
+        originIdCache = OriginIdCache.createCache(getWorkingBlackDuckDirectory(), repositoryName);
+        componentSearchCache = ComponentSearchCache.createCache(getWorkingBlackDuckDirectory());
+        bomIndex = new InspectionBomIndex();
+        try {
+            inspectPages(blackDuckServerConfig, blackDuckUrl, uploadBdio, repositoryName, filteredAssets, projectVersionView);
+        } finally {
+            originIdCache.save();
+            componentSearchCache.save();
+        }
+    }
 
+    private void inspectPages(BlackDuckServerConfig blackDuckServerConfig, String blackDuckUrl, boolean uploadBdio, String repositoryName, PagedResult<Asset> firstPage, ProjectVersionView projectVersionView) {
+        PagedResult<Asset> filteredAssets = firstPage;
+        // the components of all pages are uploaded together as the code location of the repository
+        Map<ExternalId, Dependency> bdioDependencies = new LinkedHashMap<>();
+        boolean allPagesInspected = true;
         while (filteredAssets.hasResults()) {
-            Map<String, AssetWrapper> originIdToAsset = new HashMap<>();
+            if (!commonRepositoryTaskHelper.isBlackDuckAvailable()) {
+                logger.warn("Black Duck is unavailable, the remaining assets in repository {} will be inspected by the next run.", repositoryName);
+                allPagesInspected = false;
+                break;
+            }
+            Map<String, List<AssetWrapper>> originIdToAsset = new HashMap<>();
+            Map<String, ExternalId> cachedOriginIds = new HashMap<>();
+            Map<ExternalId, List<AssetWrapper>> assetsByComponent = new LinkedHashMap<>();
             Iterable<Asset> assetsTypeList = filteredAssets.getTypeList();
             int assetCount = IterableUtils.size(assetsTypeList);
             logger.info("Found {} assets to inspect.", assetCount);
@@ -93,25 +140,128 @@ public class InspectorScanner {
                     commonRepositoryTaskHelper.failedConnection(assetWrapper, inspectorConfiguration.getExceptionMessage());
                     assetWrapper.updateAsset();
                 } else {
-                    processAsset(inspectorConfiguration.getProjectBomService(), inspectorConfiguration.getComponentService(), inspectorConfiguration.getBlackDuckService(), projectVersionView, assetWrapper,
-                        inspectorConfiguration.getDependencyType(), originIdToAsset);
+                    createAssetExternalId(assetWrapper, inspectorConfiguration.getDependencyType())
+                        .ifPresent(externalId -> assetsByComponent.computeIfAbsent(externalId, ignored -> new ArrayList<>()).add(assetWrapper));
                 }
             }
 
-            try {
-                inspectorMetaDataProcessor.updateRepositoryMetaData(inspectorConfiguration.getProjectBomService(), blackDuckUrl, projectVersionView, originIdToAsset);
-            } catch (IntegrationException e) {
-                logger.error("Problem updating the assets with the Black Duck information: {}.", e.getMessage());
-                logger.debug(e.getMessage(), e);
-                updateErrorStatus(originIdToAsset.values(), e.getMessage());
+            // several assets (jar, pom, sources, ...) belong to the same component so Black Duck only needs to be asked once per component
+            logger.debug("Found {} distinct components to inspect.", assetsByComponent.size());
+            for (Map.Entry<ExternalId, List<AssetWrapper>> componentAssets : assetsByComponent.entrySet()) {
+                if (uploadBdio) {
+                    addComponentToBdio(componentAssets.getKey(), componentAssets.getValue(), bdioDependencies);
+                } else if (commonRepositoryTaskHelper.isBlackDuckAvailable()) {
+                    processComponent(inspectorConfiguration.getProjectBomService(), inspectorConfiguration.getComponentService(), inspectorConfiguration.getBlackDuckService(), projectVersionView,
+                        componentAssets.getKey(), componentAssets.getValue(), originIdToAsset, cachedOriginIds);
+                } else {
+                    // the components that were not reached keep their status
+                    break;
+                }
+            }
+
+            if (!uploadBdio) {
+                if (!updateBomMetaData(blackDuckUrl, repositoryName, projectVersionView, originIdToAsset)) {
+                    break;
+                }
+                invalidateMissingComponents(cachedOriginIds, originIdToAsset);
             }
             Query nextPage = commonRepositoryTaskHelper.createPagedQuery(filteredAssets.getLastName()).build();
             filteredAssets = commonRepositoryTaskHelper.retrievePagedAssets(inspectorConfiguration.getRepository(), nextPage);
         }
+
+        if (!bdioDependencies.isEmpty()) {
+            if (allPagesInspected) {
+                uploadRepositoryBdio(blackDuckServerConfig, blackDuckUrl, repositoryName, projectVersionView, bdioDependencies);
+            } else {
+                // a code location of only the inspected pages would remove the components of the other pages from the BOM
+                logger.warn("Not all assets of repository {} were inspected, the code location will be uploaded by the next run.", repositoryName);
+            }
+        }
+    }
+
+    // returns false when Black Duck could not be reached and the remaining pages have to wait for the next run
+    private boolean updateBomMetaData(String blackDuckUrl, String repositoryName, ProjectVersionView projectVersionView, Map<String, List<AssetWrapper>> originIdToAsset) {
+        try {
+            // the BOM is only downloaded again when this run changed it or a component of this page is missing from the index
+            inspectorMetaDataProcessor.refreshBomIndex(inspectorConfiguration.getBlackDuckService(), inspectorConfiguration.getBomComponentReader(), projectVersionView, bomIndex, originIdToAsset.keySet());
+            inspectorMetaDataProcessor.updateRepositoryMetaData(bomIndex, blackDuckUrl, projectVersionView, originIdToAsset);
+        } catch (IntegrationException e) {
+            if (commonRepositoryTaskHelper.isConnectionFailure(e)) {
+                logger.warn("Could not reach Black Duck to update the assets of repository {}: {}.", repositoryName, e.getMessage());
+                logger.debug(e.getMessage(), e);
+                return false;
+            }
+            logger.error("Problem updating the assets with the Black Duck information: {}.", e.getMessage());
+            logger.debug(e.getMessage(), e);
+            inspectorMetaDataProcessor.invalidateProjectVersion(repositoryName, e);
+            updateErrorStatus(getAllAssets(originIdToAsset), e.getMessage());
+        }
+        return true;
+    }
+
+    private void processComponent(ProjectBomService projectBomService, ComponentService componentService, BlackDuckService blackDuckService, ProjectVersionView projectVersionView,
+        ExternalId externalId, List<AssetWrapper> assetWrappers, Map<String, List<AssetWrapper>> originIdToAsset, Map<String, ExternalId> cachedOriginIds) {
+        for (AssetWrapper assetWrapper : assetWrappers) {
+            seedOriginIdCache(assetWrapper, externalId);
+        }
+        Optional<ComponentOrigin> cachedComponentOrigin = originIdCache.get(externalId);
+        if (cachedComponentOrigin.isPresent()) {
+            String originId = cachedComponentOrigin.get().getOriginId();
+            logger.debug("Using the cached originId {} for component {}", originId, externalId);
+            addPendingAssets(assetWrappers, originId, originIdToAsset);
+            cachedOriginIds.put(originId, externalId);
+        } else {
+            addComponentToBlackDuckProjectVersion(projectBomService, componentService, blackDuckService, projectVersionView, externalId, assetWrappers, originIdToAsset);
+        }
+        assetWrappers.forEach(AssetWrapper::updateAsset);
+    }
+
+    private void seedOriginIdCache(AssetWrapper assetWrapper, ExternalId externalId) {
+        TaskStatus status = assetWrapper.getBlackDuckStatus();
+        boolean previouslyAdded = TaskStatus.SUCCESS == status || TaskStatus.PENDING == status;
+        if (previouslyAdded && !commonTaskFilters.hasAssetBeenModified(assetWrapper)) {
+            originIdCache.seed(externalId, assetWrapper.getFromBlackDuckAssetPanel(AssetPanelLabel.ASSET_ORIGIN_ID));
+        }
+    }
+
+    private void invalidateMissingComponents(Map<String, ExternalId> cachedOriginIds, Map<String, List<AssetWrapper>> originIdToAsset) {
+        for (Map.Entry<String, ExternalId> cachedOriginId : cachedOriginIds.entrySet()) {
+            List<AssetWrapper> assetWrappers = originIdToAsset.getOrDefault(cachedOriginId.getKey(), Collections.emptyList());
+            boolean componentMissing = assetWrappers.stream().anyMatch(assetWrapper -> TaskStatus.SUCCESS != assetWrapper.getBlackDuckStatus());
+            if (componentMissing) {
+                // the component is no longer part of the BOM so it needs to be added again on the next run
+                originIdCache.invalidate(cachedOriginId.getValue());
+            }
+        }
     }
 
-    private void processAsset(ProjectBomService projectBomService, ComponentService componentService, BlackDuckService blackDuckService, ProjectVersionView projectVersionView,
-        AssetWrapper assetWrapper, DependencyType dependencyType, Map<String, AssetWrapper> originIdToAsset) {
+    private void addPendingAssets(List<AssetWrapper> assetWrappers, String originId, Map<String, List<AssetWrapper>> originIdToAsset) {
+        markAssetsPending(assetWrappers, originId);
+        logger.debug("Adding {} assets to map with originId as key: {}", assetWrappers.size(), originId);
+        originIdToAsset.computeIfAbsent(originId, ignored -> new ArrayList<>()).addAll(assetWrappers);
+    }
+
+    private void markAssetsPending(List<AssetWrapper> assetWrappers, String originId) {
+        for (AssetWrapper assetWrapper : assetWrappers) {
+            assetWrapper.addPendingToBlackDuckPanel("Asset waiting to be uploaded to Black Duck.");
+            assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.ASSET_ORIGIN_ID, originId);
+            assetWrapper.addProcessedTimeToBlackDuckPanel(dateTimeParser.getCurrentEpochMillis());
+        }
+    }
+
+    // the assets are only written once Black Duck processed the code location, until then they keep their status
+    private void addComponentToBdio(ExternalId externalId, List<AssetWrapper> assetWrappers, Map<ExternalId, Dependency> bdioDependencies) {
+        AssetWrapper firstAssetWrapper = assetWrappers.get(0);
+        bdioDependencies.computeIfAbsent(externalId, ignored -> dependencyGenerator.createDependency(firstAssetWrapper.getName(), firstAssetWrapper.getVersion(), externalId));
+    }
+
+    private List<AssetWrapper> getAllAssets(Map<String, List<AssetWrapper>> originIdToAsset) {
+        return originIdToAsset.values().stream()
+                   .flatMap(List::stream)
+                   .collect(Collectors.toList());
+    }
+
+    private Optional<ExternalId> createAssetExternalId(AssetWrapper assetWrapper, DependencyType dependencyType) {
         String name = assetWrapper.getName();
         String version = assetWrapper.getVersion();
 
@@ -124,71 +274,187 @@ public class InspectorScanner {
             logger.debug(String.format("Skipping asset: %s. %s", name, e.getMessage()), e);
         }
 
-        if (commonTaskFilters.isAssetTooOldForTask(lastModified, taskConfiguration)) {
+        if (commonTaskFilters.isAssetTooOldForTask(lastModified, compiledTaskFilter)) {
             logger.debug("The asset is older than the task cutoff date: {}", name);
-            return;
-        } else if (!commonTaskFilters.doesAssetPathAndExtensionMatch(fullPathName, fileName, taskConfiguration)) {
+            return Optional.empty();
+        } else if (!commonTaskFilters.doesAssetPathAndExtensionMatch(fullPathName, fileName, compiledTaskFilter)) {
             logger.debug("The asset path or extension does not match the task configuration: {}", name);
-            return;
+            return Optional.empty();
         }
         logger.debug("Inspecting item: {}, version: {}, path: {}", name, version, fullPathName);
-        ExternalId externalId = dependencyGenerator.createExternalId(dependencyType, name, version, assetWrapper.getAsset().attributes());
-        addAssetToBlackDuckProjectVersion(projectBomService, componentService, blackDuckService, projectVersionView, externalId, assetWrapper, originIdToAsset);
-        assetWrapper.updateAsset();
+        return Optional.of(dependencyGenerator.createExternalId(dependencyType, name, version, assetWrapper.getAsset().attributes()));
     }
 
-    private void addAssetToBlackDuckProjectVersion(ProjectBomService projectBomService, ComponentService componentService, BlackDuckService blackDuckService, ProjectVersionView projectVersionView, ExternalId externalId,
-        AssetWrapper assetWrapper, Map<String, AssetWrapper> originIdToAsset) {
-        String assetName = assetWrapper.getName();
-        String assetVersion = assetWrapper.getVersion();
+    private void uploadRepositoryBdio(BlackDuckServerConfig blackDuckServerConfig, String blackDuckUrl, String repositoryName, ProjectVersionView projectVersionView, Map<ExternalId, Dependency> bdioDependencies) {
+        String codeLocationName = InspectorBdioUploader.createCodeLocationName(InspectorTask.INSPECTOR_VERSION_NAME, repositoryName);
+        BdioUploadFingerprint uploadFingerprint = BdioUploadFingerprint.createFingerprint(getWorkingBlackDuckDirectory(), repositoryName);
+        String fingerprint = BdioUploadFingerprint.calculate(projectVersionView.getHref().orElse(null), bdioDependencies.keySet());
+        if (uploadFingerprint.load().filter(fingerprint::equals).isPresent()) {
+            logger.info("The components of repository {} have not changed since the last upload of the code location {}.", repositoryName, codeLocationName);
+            updateInspectedAssets(blackDuckUrl, repositoryName, projectVersionView, bdioDependencies.keySet());
+            return;
+        }
+
+        NameVersion projectNameVersion = new NameVersion(repositoryName, projectVersionView.getVersionName());
+        long timeout = blackDuckServerConfig.getTimeout() * 5;
+        InspectorBdioUploader inspectorBdioUploader = new InspectorBdioUploader(inspectorConfiguration.getBdioUploadService(), inspectorConfiguration.getCodeLocationCreationService());
+        File bdioDirectory = new File(getWorkingBlackDuckDirectory(), "bdio");
+        File bdioFile = null;
         try {
-            Optional<String> componentURLOptional = addComponentToBom(projectBomService, componentService, externalId, projectVersionView);
-            if (!componentURLOptional.isPresent()) {
-                inspectorMetaDataProcessor.updateComponentNotFoundStatus(assetWrapper, String.format("The component %s:%s could not be found in Black Duck.", assetName, assetVersion));
+            SimpleBdioDocument bdioDocument = inspectorBdioUploader.createBdioDocument(codeLocationName, projectNameVersion, inspectorConfiguration.getDependencyType().getForge(),
+                new ArrayList<>(bdioDependencies.values()));
+            bdioFile = inspectorBdioUploader.writeBdioFile(bdioDirectory, codeLocationName, bdioDocument);
+            // the code location Black Duck has is unknown until the new one is processed
+            uploadFingerprint.remove();
+            boolean uploadComplete = inspectorBdioUploader.uploadAndWait(projectNameVersion, codeLocationName, bdioFile, timeout);
+            if (uploadComplete) {
+                uploadFingerprint.save(fingerprint);
+                bomIndex.markComponentsAdded();
+                updateInspectedAssets(blackDuckUrl, repositoryName, projectVersionView, bdioDependencies.keySet());
             } else {
-                String componentURL = componentURLOptional.get();
-                // the response should be com.synopsys.integration.blackduck.api.generated.view.OriginView but the API of OriginView is incorrect so Gson can not convert the response to this class
-                TemporaryOriginView originView = blackDuckService.getResponse(componentURL, TemporaryOriginView.class);
-                String originId = originView.getOriginId();
-                assetWrapper.addPendingToBlackDuckPanel("Asset waiting to be uploaded to Black Duck.");
-                assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.ASSET_ORIGIN_ID, originId);
-                assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME, dateTimeParser.getCurrentDateTime());
+                // the assets keep their status and the code location is uploaded again by the next run
+                logger.warn("Black Duck did not process the code location {} within {} seconds.", codeLocationName, timeout);
+            }
+        } catch (IOException e) {
+            logger.debug(e.getMessage(), e);
+            throw new TaskInterruptedException("Could not write the BDIO file for the inspection: " + e.getMessage(), true);
+        } catch (IntegrationException e) {
+            // the assets keep their status and the code location is uploaded again by the next run
+            logger.error("Problem uploading the BDIO code location {} to Black Duck: {}.", codeLocationName, e.getMessage());
+            logger.debug(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            String errorMessage = String.format("Waiting for the BDIO code location to be processed was interrupted: %s", e.getMessage());
+            logger.error(errorMessage);
+            logger.debug(e.getMessage(), e);
+            Thread.currentThread().interrupt();
+            throw new TaskInterruptedException(errorMessage, true);
+        } finally {
+            deleteBdioFile(bdioFile);
+        }
+    }
+
+    // the assets are read again page by page instead of keeping the assets of the whole repository in memory until the upload is done
+    private void updateInspectedAssets(String blackDuckUrl, String repositoryName, ProjectVersionView projectVersionView, Set<ExternalId> inspectedExternalIds) {
+        Query pagedQuery = commonRepositoryTaskHelper.createPagedQuery(Optional.empty()).build();
+        PagedResult<Asset> pagedAssets = commonRepositoryTaskHelper.retrievePagedAssets(inspectorConfiguration.getRepository(), pagedQuery);
+        while (pagedAssets.hasResults()) {
+            Map<String, List<AssetWrapper>> originIdToAsset = new HashMap<>();
+            for (Asset asset : pagedAssets.getTypeList()) {
+                AssetWrapper assetWrapper = AssetWrapper.createInspectionAssetWrapper(asset, inspectorConfiguration.getRepository(), commonRepositoryTaskHelper.getQueryManager());
+                // the code location maps every component by its external id, which the BOM reports as the originId
+                createAssetExternalId(assetWrapper, inspectorConfiguration.getDependencyType()).filter(inspectedExternalIds::contains).ifPresent(externalId -> {
+                    String originId = externalId.createExternalId();
+                    assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.ASSET_ORIGIN_ID, originId);
+                    originIdToAsset.computeIfAbsent(originId, ignored -> new ArrayList<>()).add(assetWrapper);
+                });
+            }
+            if (!originIdToAsset.isEmpty() && !updateBomMetaData(blackDuckUrl, repositoryName, projectVersionView, originIdToAsset)) {
+                break;
+            }
+            Query nextPage = commonRepositoryTaskHelper.createPagedQuery(pagedAssets.getLastName()).build();
+            pagedAssets = commonRepositoryTaskHelper.retrievePagedAssets(inspectorConfiguration.getRepository(), nextPage);
+        }
+    }
+
+    private File getWorkingBlackDuckDirectory() {
+        return new File(commonRepositoryTaskHelper.getWorkingDirectory(taskConfiguration), "blackduck");
+    }
+
+    private void deleteBdioFile(File bdioFile) {
+        if (null == bdioFile) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(bdioFile.toPath());
+        } catch (IOException e) {
+            logger.warn("Problem removing the BDIO file {}", bdioFile.getAbsolutePath());
+            logger.debug(e.getMessage(), e);
+        }
+    }
 
-                logger.debug("Adding asset to map with originId as key: {}", originId);
-                originIdToAsset.put(originId, assetWrapper);
+    private void addComponentToBlackDuckProjectVersion(ProjectBomService projectBomService, ComponentService componentService, BlackDuckService blackDuckService, ProjectVersionView projectVersionView,
+        ExternalId externalId, List<AssetWrapper> assetWrappers, Map<String, List<AssetWrapper>> originIdToAsset) {
+        try {
+            ComponentSearchResult componentSearchResult = searchComponent(componentService, externalId);
+            if (!componentSearchResult.isFound()) {
+                for (AssetWrapper assetWrapper : assetWrappers) {
+                    inspectorMetaDataProcessor.updateComponentNotFoundStatus(assetWrapper, String.format("The component %s:%s could not be found in Black Duck.", assetWrapper.getName(), assetWrapper.getVersion()));
+                }
+                return;
+            }
+            String componentURL = componentSearchResult.getComponentVersionUrl();
+            // the search result already carries the originId, so the component only has to be requested when Black Duck left it out
+            String originId = componentSearchResult.getOriginId();
+            if (StringUtils.isNotBlank(originId) && bomIndex.findComponent(originId).isPresent()) {
+                logger.debug("The component {} is already part of the BOM.", externalId);
+            } else {
+                addComponentToBom(projectBomService, projectVersionView, componentURL);
             }
+            if (StringUtils.isBlank(originId)) {
+                originId = getOriginId(blackDuckService, componentURL);
+            }
+            if (StringUtils.isBlank(originId)) {
+                // without an originId the assets could never be matched to the BOM and would stay pending
+                String errorMessage = String.format("Black Duck did not return an originId for the component %s.", componentURL);
+                logger.error(errorMessage);
+                updateErrorStatus(assetWrappers, errorMessage);
+                return;
+            }
+            originIdCache.put(externalId, new ComponentOrigin(originId, componentURL));
+            addPendingAssets(assetWrappers, originId, originIdToAsset);
         } catch (IntegrationException e) {
-            logger.error("Problem uploading asset {}:{} to Black Duck: {}.", assetWrapper.getName(), assetWrapper.getVersion(), e.getMessage());
+            logger.error("Problem uploading component {} to Black Duck: {}.", externalId, e.getMessage());
             logger.debug(e.getMessage(), e);
-            updateErrorStatus(assetWrapper, e.getMessage());
+            // the cached component may no longer exist in the KB
+            if (e instanceof BlackDuckApiException) {
+                componentSearchCache.invalidate(externalId);
+            }
+            if (!commonRepositoryTaskHelper.isConnectionFailure(e)) {
+                updateErrorStatus(assetWrappers, e.getMessage());
+            }
         }
     }
 
-    private Optional<String> addComponentToBom(ProjectBomService projectBomService, ComponentService componentService, ExternalId externalId, ProjectVersionView projectVersionView) throws IntegrationException {
+    private ComponentSearchResult searchComponent(ComponentService componentService, ExternalId externalId) throws IntegrationException {
+        Optional<ComponentSearchResult> cachedSearchResult = componentSearchCache.get(externalId);
+        if (cachedSearchResult.isPresent()) {
+            logger.debug("Using the cached search result for component {}", externalId);
+            return cachedSearchResult.get();
+        }
+        ComponentSearchResult componentSearchResult = inspectorMetaDataProcessor.findComponent(componentService, externalId)
+                                                          .map(componentsView -> new ComponentSearchResult(getComponentVersionUrl(componentsView), componentsView.getOriginId()))
+                                                          .orElseGet(ComponentSearchResult::notFound);
+        componentSearchCache.put(externalId, componentSearchResult);
+        return componentSearchResult;
+    }
+
+    private void addComponentToBom(ProjectBomService projectBomService, ProjectVersionView projectVersionView, String componentVersionUrl) throws IntegrationException {
+        String projectVersionComponentsUrl = projectVersionView.getFirstLink(ProjectVersionView.COMPONENTS_LINK)
+                                                 .orElseThrow(() -> new IntegrationException("Could not get the Components link for the Black Duck Project Version."));
         try {
-            return projectBomService.addComponentToProjectVersion(externalId, projectVersionView);
+            projectBomService.addComponentToProjectVersion(COMPONENT_MEDIA_TYPE, projectVersionComponentsUrl, componentVersionUrl);
+            bomIndex.markComponentsAdded();
         } catch (BlackDuckApiException e) {
             IntegrationRestException integrationRestException = e.getOriginalIntegrationRestException();
-            if (RestConstants.PRECON_FAILED_412 == integrationRestException.getHttpStatusCode()) {
-                // component is already part of the BOM, there is no quick way to determine this ahead of time short of retrieving the whole BOM and searching through the components
-                return Optional.ofNullable(getComponentVersionUrl(componentService, externalId));
+            if (RestConstants.PRECON_FAILED_412 != integrationRestException.getHttpStatusCode()) {
+                throw e;
             }
-            throw e;
+            // component is already part of the BOM
+            logger.debug("The component {} is already part of the BOM.", componentVersionUrl);
         }
     }
 
-    private String getComponentVersionUrl(ComponentService componentService, ExternalId externalId) throws IntegrationException {
-        Optional<ComponentsView> componentSearchResultView = componentService.getFirstOrEmptyResult(externalId);
-        String componentVersionUrl = null;
-        if (componentSearchResultView.isPresent()) {
-            ComponentsView componentsView = componentSearchResultView.get();
-            if (StringUtils.isNotBlank(componentsView.getVariant())) {
-                componentVersionUrl = componentsView.getVariant();
-            } else {
-                componentVersionUrl = componentsView.getVersion();
-            }
+    private String getComponentVersionUrl(ComponentsView componentsView) {
+        if (StringUtils.isNotBlank(componentsView.getVariant())) {
+            return componentsView.getVariant();
         }
-        return componentVersionUrl;
+        return componentsView.getVersion();
+    }
+
+    private String getOriginId(BlackDuckService blackDuckService, String componentURL) throws IntegrationException {
+        // the response should be com.synopsys.integration.blackduck.api.generated.view.OriginView but the API of OriginView is incorrect so Gson can not convert the response to this class
+        TemporaryOriginView originView = blackDuckService.getResponse(componentURL, TemporaryOriginView.class);
+        return originView.getOriginId();
     }
 
     private ProjectVersionView getProjectVersion(String repositoryName) {
@@ -234,7 +500,7 @@ public class InspectorScanner {
     private void updateErrorStatus(AssetWrapper assetWrapper, String error) {
         assetWrapper.removeAllBlackDuckData();
         assetWrapper.addFailureToBlackDuckPanel(error);
-        assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME, dateTimeParser.getCurrentDateTime());
+        assetWrapper.addProcessedTimeToBlackDuckPanel(dateTimeParser.getCurrentEpochMillis());
         assetWrapper.updateAsset();
     }
 
@@ -37,9 +37,11 @@ import org.sonatype.nexus.scheduling.TaskInterruptedException;
 
 import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationService;
 import com.synopsys.integration.blackduck.codelocation.bdioupload.BdioUploadService;
+import com.synopsys.integration.blackduck.nexus3.BlackDuckConnectionSnapshot;
 import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonRepositoryTaskHelper;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonTaskFilters;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentReader;
 import com.synopsys.integration.blackduck.nexus3.task.inspector.dependency.DependencyGenerator;
 import com.synopsys.integration.blackduck.nexus3.task.inspector.dependency.DependencyType;
 import com.synopsys.integration.blackduck.service.BlackDuckService;
@@ -80,41 +82,52 @@ public class InspectorTask extends RepositoryTaskSupport {
         CodeLocationCreationService codeLocationCreationService = null;
         BdioUploadService bdioUploadService = null;
         ProjectBomService projectBomService = null;
+        BomComponentReader bomComponentReader = null;
         Optional<PhoneHomeResponse> phoneHomeResponse = Optional.empty();
+        BlackDuckConnectionSnapshot blackDuckConnectionSnapshot = null;
         try {
-            BlackDuckServicesFactory blackDuckServicesFactory = commonRepositoryTaskHelper.getBlackDuckServicesFactory();
+            blackDuckConnectionSnapshot = commonRepositoryTaskHelper.acquireBlackDuckConnection();
+            BlackDuckServicesFactory blackDuckServicesFactory = blackDuckConnectionSnapshot.getBlackDuckServicesFactory();
             blackDuckService = blackDuckServicesFactory.createBlackDuckService();
             componentService = blackDuckServicesFactory.createComponentService();
             projectService = blackDuckServicesFactory.createProjectService();
             codeLocationCreationService = blackDuckServicesFactory.createCodeLocationCreationService();
             bdioUploadService = blackDuckServicesFactory.createBdioUploadService();
             projectBomService = blackDuckServicesFactory.createProjectBomService();
+            bomComponentReader = new BomComponentReader(blackDuckServicesFactory.getBlackDuckHttpClient());
             phoneHomeResponse = commonRepositoryTaskHelper.phoneHome(InspectorTaskDescriptor.BLACK_DUCK_INSPECTOR_TASK_ID);
         } catch (IntegrationException | IllegalStateException e) {
             logger.error(String.format("Black Duck server config invalid. %s", e.getMessage()), e);
             exceptionMessage = e.getMessage();
         }
-        for (Repository foundRepository : commonTaskFilters.findRelevantRepositories(repository)) {
-            if (commonTaskFilters.isProxyRepository(foundRepository.getType())) {
-                Optional<DependencyType> dependencyTypeOptional = dependencyGenerator.findDependency(foundRepository.getFormat().getValue());
-                if (!dependencyTypeOptional.isPresent()) {
-                    throw new TaskInterruptedException("Task being run on unsupported repository", true);
-                }
-                DependencyType dependencyType = dependencyTypeOptional.get();
-                InspectorConfiguration inspectorConfiguration;
-                if (StringUtils.isNotBlank(exceptionMessage)) {
-                    inspectorConfiguration = InspectorConfiguration.createConfigurationWithError(exceptionMessage, repository, dependencyType);
-                } else {
-                    inspectorConfiguration = InspectorConfiguration.createConfiguration(repository, dependencyType, blackDuckService, componentService, projectService, codeLocationCreationService, bdioUploadService, projectBomService);
+        try {
+            for (Repository foundRepository : commonTaskFilters.findRelevantRepositories(repository)) {
+                if (commonTaskFilters.isProxyRepository(foundRepository.getType())) {
+                    Optional<DependencyType> dependencyTypeOptional = dependencyGenerator.findDependency(foundRepository.getFormat().getValue());
+                    if (!dependencyTypeOptional.isPresent()) {
+                        throw new TaskInterruptedException("Task being run on unsupported repository", true);
+                    }
+                    DependencyType dependencyType = dependencyTypeOptional.get();
+                    InspectorConfiguration inspectorConfiguration;
+                    if (StringUtils.isNotBlank(exceptionMessage)) {
+                        inspectorConfiguration = InspectorConfiguration.createConfigurationWithError(exceptionMessage, repository, dependencyType);
+                    } else {
+                        inspectorConfiguration = InspectorConfiguration.createConfiguration(repository, dependencyType, blackDuckService, componentService, projectService, codeLocationCreationService, bdioUploadService, projectBomService, bomComponentReader);
+                    }
+                    InspectorScanner inspectorScanner = new InspectorScanner(commonRepositoryTaskHelper, dateTimeParser, dependencyGenerator, inspectorMetaDataProcessor, commonTaskFilters, taskConfiguration(), inspectorConfiguration);
+                    inspectorScanner.inspectRepository();
                 }
-                InspectorScanner inspectorScanner = new InspectorScanner(commonRepositoryTaskHelper, dateTimeParser, dependencyGenerator, inspectorMetaDataProcessor, commonTaskFilters, taskConfiguration(), inspectorConfiguration);
-                inspectorScanner.inspectRepository();
             }
-        }
-        if (phoneHomeResponse.isPresent()) {
-            commonRepositoryTaskHelper.endPhoneHome(phoneHomeResponse.get());
-        } else {
-            logger.debug("Could not phone home.");
+            if (phoneHomeResponse.isPresent()) {
+                commonRepositoryTaskHelper.endPhoneHome(phoneHomeResponse.get());
+            } else {
+                logger.debug("Could not phone home.");
+            }
+        } finally {
+            // the connection pool of a snapshot replaced while the task ran is shut down by the last task using it
+            if (null != blackDuckConnectionSnapshot) {
+                blackDuckConnectionSnapshot.release();
+            }
         }
     }
 
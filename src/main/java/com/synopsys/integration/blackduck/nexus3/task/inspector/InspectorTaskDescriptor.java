@@ -26,6 +26,7 @@ package com.synopsys.integration.blackduck.nexus3.task.inspector;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.sonatype.nexus.formfields.CheckboxFormField;
 import org.sonatype.nexus.formfields.FormField;
 import org.sonatype.nexus.repository.types.GroupType;
 import org.sonatype.nexus.repository.types.ProxyType;
@@ -39,6 +40,10 @@ public class InspectorTaskDescriptor extends TaskDescriptorSupport {
     public static final String BLACK_DUCK_INSPECTOR_TASK_ID = "blackduck.inspector";
     public static final String BLACK_DUCK_INSPECTOR_TASK_NAME = "Black Duck - Proxy Repository Inspector";
     public static final String DEFAULT_FILE_PATTERNS_MATCHES = "*.jar";
+    public static final String KEY_BDIO_UPLOAD = "blackduck.inspector.bdio.upload";
+    private static final String LABEL_BDIO_UPLOAD = "Black Duck - Upload Inspection as BDIO";
+    private static final String DESCRIPTION_BDIO_UPLOAD = "Upload the components of the repository as a single BDIO code location instead of adding each component to the Black Duck Project Version individually";
+    private static final CheckboxFormField FIELD_BDIO_UPLOAD = new CheckboxFormField(KEY_BDIO_UPLOAD, LABEL_BDIO_UPLOAD, DESCRIPTION_BDIO_UPLOAD, FormField.OPTIONAL);
 
     public InspectorTaskDescriptor() {
         super(BLACK_DUCK_INSPECTOR_TASK_ID,
@@ -56,6 +61,7 @@ public class InspectorTaskDescriptor extends TaskDescriptorSupport {
             CommonDescriptorHelper.getRepositoryPathField(),
             CommonDescriptorHelper.getFilePatternField().withInitialValue(DEFAULT_FILE_PATTERNS_MATCHES),
             CommonDescriptorHelper.getWorkingDirectoryField(),
+            FIELD_BDIO_UPLOAD,
             CommonDescriptorHelper.getAssetCutoffDateField()
         };
     }
@@ -0,0 +1,68 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector;
+
+import java.io.File;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.blackduck.nexus3.task.common.ExpiringCache;
+import com.synopsys.integration.blackduck.nexus3.task.common.ExpiringCacheStore;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.model.ComponentOrigin;
+
+public class OriginIdCache {
+    public static final int MAXIMUM_ENTRIES = 250000;
+    public static final long TIME_TO_LIVE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private final ExpiringCache<ComponentOrigin> expiringCache;
+    private final ExpiringCacheStore<ComponentOrigin> expiringCacheStore;
+
+    public static OriginIdCache createCache(File workingBlackDuckDirectory, String repositoryName) {
+        File cacheFile = new File(new File(workingBlackDuckDirectory, "cache"), String.format("inspector-%s.json", repositoryName));
+        OriginIdCache originIdCache = new OriginIdCache(new ExpiringCache<>(MAXIMUM_ENTRIES, TIME_TO_LIVE_MILLIS), new ExpiringCacheStore<>(cacheFile, ComponentOrigin.class));
+        originIdCache.load();
+        return originIdCache;
+    }
+
+    public OriginIdCache(ExpiringCache<ComponentOrigin> expiringCache, ExpiringCacheStore<ComponentOrigin> expiringCacheStore) {
+        this.expiringCache = expiringCache;
+        this.expiringCacheStore = expiringCacheStore;
+    }
+
+    public static String createKey(ExternalId externalId) {
+        return externalId.getForge().getName() + ":" + externalId.createExternalId();
+    }
+
+    public Optional<ComponentOrigin> get(ExternalId externalId) {
+        return expiringCache.get(createKey(externalId));
+    }
+
+    public void put(ExternalId externalId, ComponentOrigin componentOrigin) {
+        expiringCache.put(createKey(externalId), componentOrigin);
+    }
+
+    // origin ids stored on unchanged assets by a previous run are as good as a Black Duck lookup
+    public void seed(ExternalId externalId, String originId) {
+        if (StringUtils.isNotBlank(originId)) {
+            expiringCache.putIfAbsent(createKey(externalId), new ComponentOrigin(originId, null));
+        }
+    }
+
+    public void invalidate(ExternalId externalId) {
+        expiringCache.invalidate(createKey(externalId));
+    }
+
+    public int size() {
+        return expiringCache.size();
+    }
+
+    public void load() {
+        expiringCacheStore.load(expiringCache);
+    }
+
+    public void save() {
+        expiringCacheStore.save(expiringCache);
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector.bdio;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+
+// the dependencies of the last code location Black Duck processed for a repository, an unchanged repository does not have to be uploaded again
+public class BdioUploadFingerprint {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final File fingerprintFile;
+
+    public static BdioUploadFingerprint createFingerprint(File workingBlackDuckDirectory, String repositoryName) {
+        return new BdioUploadFingerprint(new File(new File(workingBlackDuckDirectory, "bdio"), String.format("inspector-%s.sha256", repositoryName)));
+    }
+
+    public BdioUploadFingerprint(File fingerprintFile) {
+        this.fingerprintFile = fingerprintFile;
+    }
+
+    // the Project Version is part of the fingerprint, a Project Version that was deleted and created again has lost the code location
+    public static String calculate(String projectVersionUrl, Collection<ExternalId> externalIds) {
+        String dependencies = externalIds.stream()
+                                  .map(ExternalId::createExternalId)
+                                  .sorted()
+                                  .collect(Collectors.joining("\n"));
+        return DigestUtils.sha256Hex(StringUtils.defaultString(projectVersionUrl) + "\n" + dependencies);
+    }
+
+    public Optional<String> load() {
+        if (!fingerprintFile.isFile()) {
+            return Optional.empty();
+        }
+        try {
+            String fingerprint = new String(Files.readAllBytes(fingerprintFile.toPath()), StandardCharsets.UTF_8).trim();
+            return Optional.ofNullable(StringUtils.trimToNull(fingerprint));
+        } catch (IOException e) {
+            logger.warn("Could not read the BDIO fingerprint {}: {}", fingerprintFile.getAbsolutePath(), e.getMessage());
+            logger.debug(e.getMessage(), e);
+        }
+        return Optional.empty();
+    }
+
+    public void save(String fingerprint) {
+        File temporaryFile = new File(fingerprintFile.getParentFile(), fingerprintFile.getName() + ".tmp");
+        try {
+            Files.createDirectories(fingerprintFile.getParentFile().toPath());
+            Files.write(temporaryFile.toPath(), fingerprint.getBytes(StandardCharsets.UTF_8));
+            Files.move(temporaryFile.toPath(), fingerprintFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Could not write the BDIO fingerprint {}: {}", fingerprintFile.getAbsolutePath(), e.getMessage());
+            logger.debug(e.getMessage(), e);
+        }
+    }
+
+    public void remove() {
+        try {
+            Files.deleteIfExists(fingerprintFile.toPath());
+        } catch (IOException e) {
+            logger.warn("Could not remove the BDIO fingerprint {}: {}", fingerprintFile.getAbsolutePath(), e.getMessage());
+            logger.debug(e.getMessage(), e);
+        }
+    }
+
+}
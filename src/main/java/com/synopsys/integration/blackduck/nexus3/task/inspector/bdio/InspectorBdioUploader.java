@@ -0,0 +1,74 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector.bdio;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.bdio.SimpleBdioFactory;
+import com.synopsys.integration.bdio.graph.MutableDependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.SimpleBdioDocument;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationData;
+import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationService;
+import com.synopsys.integration.blackduck.codelocation.CodeLocationWaitResult;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.BdioUploadService;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadBatch;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadBatchOutput;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadTarget;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.util.NameVersion;
+
+public class InspectorBdioUploader {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final SimpleBdioFactory simpleBdioFactory;
+    private final BdioUploadService bdioUploadService;
+    private final CodeLocationCreationService codeLocationCreationService;
+
+    public InspectorBdioUploader(BdioUploadService bdioUploadService, CodeLocationCreationService codeLocationCreationService) {
+        this.simpleBdioFactory = new SimpleBdioFactory();
+        this.bdioUploadService = bdioUploadService;
+        this.codeLocationCreationService = codeLocationCreationService;
+    }
+
+    // one code location per repository, so adding or removing assets never moves a component to another code location
+    public static String createCodeLocationName(String codeLocationPrefix, String repositoryName) {
+        return String.join("/", codeLocationPrefix, repositoryName);
+    }
+
+    public SimpleBdioDocument createBdioDocument(String codeLocationName, NameVersion projectNameVersion, Forge projectForge, List<Dependency> dependencies) {
+        MutableDependencyGraph dependencyGraph = simpleBdioFactory.createMutableDependencyGraph();
+        dependencyGraph.addChildrenToRoot(dependencies);
+        ExternalId projectExternalId = simpleBdioFactory.createNameVersionExternalId(projectForge, projectNameVersion.getName(), projectNameVersion.getVersion());
+        return simpleBdioFactory.createSimpleBdioDocument(codeLocationName, projectNameVersion.getName(), projectNameVersion.getVersion(), projectExternalId, dependencyGraph);
+    }
+
+    public File writeBdioFile(File outputDirectory, String codeLocationName, SimpleBdioDocument simpleBdioDocument) throws IOException {
+        Files.createDirectories(outputDirectory.toPath());
+        String fileName = codeLocationName.replaceAll("[^A-Za-z0-9._-]", "_") + ".jsonld";
+        File bdioFile = new File(outputDirectory, fileName);
+        simpleBdioFactory.writeSimpleBdioDocumentToFile(bdioFile, simpleBdioDocument);
+        return bdioFile;
+    }
+
+    public boolean uploadAndWait(NameVersion projectNameVersion, String codeLocationName, File bdioFile, long timeoutInSeconds) throws IntegrationException, InterruptedException {
+        UploadBatch uploadBatch = new UploadBatch();
+        uploadBatch.addUploadTarget(UploadTarget.createDefault(projectNameVersion, codeLocationName, bdioFile));
+
+        logger.info("Uploading BDIO code location {} to Black Duck.", codeLocationName);
+        CodeLocationCreationData<UploadBatchOutput> uploadData = bdioUploadService.uploadBdio(uploadBatch);
+        if (!uploadData.getOutput().getSuccessfulCodeLocationNames().contains(codeLocationName)) {
+            throw new IntegrationException(String.format("The BDIO code location %s was not uploaded to Black Duck.", codeLocationName));
+        }
+
+        CodeLocationWaitResult codeLocationWaitResult = codeLocationCreationService
+                                                            .waitForCodeLocations(uploadData.getNotificationTaskRange(), projectNameVersion, uploadData.getOutput().getSuccessfulCodeLocationNames(), 1, timeoutInSeconds);
+        return CodeLocationWaitResult.Status.COMPLETE == codeLocationWaitResult.getStatus();
+    }
+
+}
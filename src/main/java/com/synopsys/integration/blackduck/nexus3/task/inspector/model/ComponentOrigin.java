@@ -0,0 +1,19 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector.model;
+
+public class ComponentOrigin {
+    private final String originId;
+    private final String componentUrl;
+
+    public ComponentOrigin(String originId, String componentUrl) {
+        this.originId = originId;
+        this.componentUrl = componentUrl;
+    }
+
+    public String getOriginId() {
+        return originId;
+    }
+
+    public String getComponentUrl() {
+        return componentUrl;
+    }
+}
@@ -0,0 +1,29 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector.model;
+
+import org.apache.commons.lang3.StringUtils;
+
+public class ComponentSearchResult {
+    private final String componentVersionUrl;
+    private final String originId;
+
+    public static ComponentSearchResult notFound() {
+        return new ComponentSearchResult(null, null);
+    }
+
+    public ComponentSearchResult(String componentVersionUrl, String originId) {
+        this.componentVersionUrl = componentVersionUrl;
+        this.originId = originId;
+    }
+
+    public boolean isFound() {
+        return StringUtils.isNotBlank(componentVersionUrl);
+    }
+
+    public String getComponentVersionUrl() {
+        return componentVersionUrl;
+    }
+
+    public String getOriginId() {
+        return originId;
+    }
+}
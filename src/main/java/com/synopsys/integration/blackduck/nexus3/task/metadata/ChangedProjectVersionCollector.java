@@ -0,0 +1,47 @@
+package com.synopsys.integration.blackduck.nexus3.task.metadata;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.synopsys.integration.blackduck.api.manual.component.AffectedProjectVersion;
+import com.synopsys.integration.blackduck.api.manual.view.BomEditNotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.NotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.PolicyOverrideNotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.RuleViolationClearedNotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.RuleViolationNotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.VulnerabilityNotificationView;
+
+// maps the notifications that can change the policy or vulnerability data of an asset to the urls of the affected Project Versions
+public class ChangedProjectVersionCollector {
+
+    public Set<String> collectProjectVersionUrls(List<NotificationView> notificationViews) {
+        Set<String> projectVersionUrls = new HashSet<>();
+        for (NotificationView notificationView : notificationViews) {
+            if (notificationView instanceof RuleViolationNotificationView) {
+                addUrl(projectVersionUrls, ((RuleViolationNotificationView) notificationView).getContent().getProjectVersion());
+            } else if (notificationView instanceof RuleViolationClearedNotificationView) {
+                addUrl(projectVersionUrls, ((RuleViolationClearedNotificationView) notificationView).getContent().getProjectVersion());
+            } else if (notificationView instanceof PolicyOverrideNotificationView) {
+                addUrl(projectVersionUrls, ((PolicyOverrideNotificationView) notificationView).getContent().getProjectVersion());
+            } else if (notificationView instanceof BomEditNotificationView) {
+                addUrl(projectVersionUrls, ((BomEditNotificationView) notificationView).getContent().getProjectVersion());
+            } else if (notificationView instanceof VulnerabilityNotificationView) {
+                List<AffectedProjectVersion> affectedProjectVersions = ((VulnerabilityNotificationView) notificationView).getContent().getAffectedProjectVersions();
+                if (null != affectedProjectVersions) {
+                    affectedProjectVersions.forEach(affectedProjectVersion -> addUrl(projectVersionUrls, affectedProjectVersion.getProjectVersion()));
+                }
+            }
+        }
+        return projectVersionUrls;
+    }
+
+    private void addUrl(Set<String> projectVersionUrls, String projectVersionUrl) {
+        if (StringUtils.isNotBlank(projectVersionUrl)) {
+            projectVersionUrls.add(projectVersionUrl);
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.synopsys.integration.blackduck.nexus3.task.metadata;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.synopsys.integration.blackduck.api.generated.view.CodeLocationView;
+import com.synopsys.integration.blackduck.api.manual.view.NotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.VersionBomCodeLocationBomComputedNotificationView;
+
+// a pending scan is complete once Black Duck reported the BOM of its code location as computed
+public class ComputedCodeLocationCollector {
+
+    public Set<String> collectCodeLocationUrls(List<NotificationView> notificationViews) {
+        Set<String> codeLocationUrls = new HashSet<>();
+        for (NotificationView notificationView : notificationViews) {
+            if (notificationView instanceof VersionBomCodeLocationBomComputedNotificationView) {
+                String codeLocationUrl = ((VersionBomCodeLocationBomComputedNotificationView) notificationView).getContent().getCodeLocation();
+                if (StringUtils.isNotBlank(codeLocationUrl)) {
+                    codeLocationUrls.add(codeLocationUrl);
+                }
+            }
+        }
+        return codeLocationUrls;
+    }
+
+    public Set<String> findComputedCodeLocationNames(List<CodeLocationView> codeLocationViews, Set<String> computedCodeLocationUrls) {
+        Set<String> codeLocationNames = new HashSet<>();
+        for (CodeLocationView codeLocationView : codeLocationViews) {
+            Optional<String> codeLocationUrl = codeLocationView.getHref();
+            if (codeLocationUrl.isPresent() && computedCodeLocationUrls.contains(codeLocationUrl.get())) {
+                codeLocationNames.add(codeLocationView.getName());
+            }
+        }
+        return codeLocationNames;
+    }
+
+}
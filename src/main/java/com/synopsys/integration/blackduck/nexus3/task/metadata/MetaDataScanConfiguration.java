@@ -3,9 +3,10 @@ package com.synopsys.integration.blackduck.nexus3.task.metadata;
 import org.apache.commons.lang3.StringUtils;
 import org.sonatype.nexus.repository.Repository;
 
-import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationService;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentReader;
 import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
 import com.synopsys.integration.blackduck.service.BlackDuckService;
+import com.synopsys.integration.blackduck.service.NotificationService;
 import com.synopsys.integration.blackduck.service.ProjectBomService;
 import com.synopsys.integration.blackduck.service.ProjectService;
 
@@ -16,34 +17,36 @@ public class MetaDataScanConfiguration {
     private final boolean isProxyRepo;
     private final AssetPanelLabel assetStatusLabel;
 
-    private final CodeLocationCreationService codeLocationCreationService;
     private final BlackDuckService blackDuckService;
     private final ProjectService projectService;
     private final ProjectBomService projectBomService;
+    private final BomComponentReader bomComponentReader;
+    private final NotificationService notificationService;
 
     public static MetaDataScanConfiguration createConfigurationWithError(String exceptionMessage, Repository repository, boolean isProxyRepo, AssetPanelLabel assetStatusLabel) {
-        return new MetaDataScanConfiguration(exceptionMessage, repository, isProxyRepo, assetStatusLabel, null, null, null, null);
+        return new MetaDataScanConfiguration(exceptionMessage, repository, isProxyRepo, assetStatusLabel, null, null, null, null, null);
     }
 
-    public static MetaDataScanConfiguration createConfiguration(Repository repository, boolean isProxyRepo, AssetPanelLabel assetStatusLabel, CodeLocationCreationService codeLocationCreationService, BlackDuckService blackDuckService,
-        ProjectService projectService, ProjectBomService projectBomService) {
-        return new MetaDataScanConfiguration(null, repository, isProxyRepo, assetStatusLabel, codeLocationCreationService, blackDuckService, projectService, projectBomService);
+    public static MetaDataScanConfiguration createConfiguration(Repository repository, boolean isProxyRepo, AssetPanelLabel assetStatusLabel, BlackDuckService blackDuckService,
+        ProjectService projectService, ProjectBomService projectBomService, BomComponentReader bomComponentReader, NotificationService notificationService) {
+        return new MetaDataScanConfiguration(null, repository, isProxyRepo, assetStatusLabel, blackDuckService, projectService, projectBomService, bomComponentReader, notificationService);
     }
 
-    private MetaDataScanConfiguration(String exceptionMessage, Repository repository, boolean isProxyRepo, AssetPanelLabel assetStatusLabel, CodeLocationCreationService codeLocationCreationService, BlackDuckService blackDuckService,
-        ProjectService projectService, ProjectBomService projectBomService) {
+    private MetaDataScanConfiguration(String exceptionMessage, Repository repository, boolean isProxyRepo, AssetPanelLabel assetStatusLabel, BlackDuckService blackDuckService,
+        ProjectService projectService, ProjectBomService projectBomService, BomComponentReader bomComponentReader, NotificationService notificationService) {
         this.exceptionMessage = exceptionMessage;
         this.repository = repository;
         this.isProxyRepo = isProxyRepo;
         this.assetStatusLabel = assetStatusLabel;
-        this.codeLocationCreationService = codeLocationCreationService;
         this.blackDuckService = blackDuckService;
         this.projectService = projectService;
         this.projectBomService = projectBomService;
+        this.bomComponentReader = bomComponentReader;
+        this.notificationService = notificationService;
     }
 
     public boolean hasErrors() {
-        return StringUtils.isNotBlank(exceptionMessage) || null == codeLocationCreationService || null == blackDuckService || null == projectService;
+        return StringUtils.isNotBlank(exceptionMessage) || null == blackDuckService || null == projectService;
     }
 
     public String getExceptionMessage() {
@@ -62,10 +65,6 @@ public class MetaDataScanConfiguration {
         return assetStatusLabel;
     }
 
-    public CodeLocationCreationService getCodeLocationCreationService() {
-        return codeLocationCreationService;
-    }
-
     public BlackDuckService getBlackDuckService() {
         return blackDuckService;
     }
@@ -77,4 +76,12 @@ public class MetaDataScanConfiguration {
     public ProjectBomService getProjectBomService() {
         return projectBomService;
     }
+
+    public BomComponentReader getBomComponentReader() {
+        return bomComponentReader;
+    }
+
+    public NotificationService getNotificationService() {
+        return notificationService;
+    }
 }
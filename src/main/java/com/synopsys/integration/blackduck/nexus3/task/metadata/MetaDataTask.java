@@ -34,17 +34,19 @@ import org.slf4j.LoggerFactory;
 import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.RepositoryTaskSupport;
 
-import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationService;
+import com.synopsys.integration.blackduck.nexus3.BlackDuckConnectionSnapshot;
 import com.synopsys.integration.blackduck.nexus3.database.QueryManager;
 import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonMetaDataProcessor;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonRepositoryTaskHelper;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonTaskFilters;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentReader;
 import com.synopsys.integration.blackduck.nexus3.task.inspector.InspectorMetaDataProcessor;
 import com.synopsys.integration.blackduck.nexus3.task.scan.ScanMetaDataProcessor;
 import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
 import com.synopsys.integration.blackduck.service.BlackDuckService;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
+import com.synopsys.integration.blackduck.service.NotificationService;
 import com.synopsys.integration.blackduck.service.ProjectBomService;
 import com.synopsys.integration.blackduck.service.ProjectService;
 import com.synopsys.integration.exception.IntegrationException;
@@ -78,46 +80,57 @@ public class MetaDataTask extends RepositoryTaskSupport {
         Optional<PhoneHomeResponse> phoneHomeResponse = commonRepositoryTaskHelper.phoneHome(MetaDataTaskDescriptor.BLACK_DUCK_META_DATA_TASK_ID);
 
         String exceptionMessage = null;
-        CodeLocationCreationService codeLocationCreationService = null;
         BlackDuckService blackDuckService = null;
         ProjectService projectService = null;
         ProjectBomService projectBomService = null;
+        BomComponentReader bomComponentReader = null;
+        NotificationService notificationService = null;
+        BlackDuckConnectionSnapshot blackDuckConnectionSnapshot = null;
         try {
-            BlackDuckServicesFactory blackDuckServicesFactory = commonRepositoryTaskHelper.getBlackDuckServicesFactory();
-            codeLocationCreationService = blackDuckServicesFactory.createCodeLocationCreationService();
+            blackDuckConnectionSnapshot = commonRepositoryTaskHelper.acquireBlackDuckConnection();
+            BlackDuckServicesFactory blackDuckServicesFactory = blackDuckConnectionSnapshot.getBlackDuckServicesFactory();
             blackDuckService = blackDuckServicesFactory.createBlackDuckService();
             projectService = blackDuckServicesFactory.createProjectService();
             projectBomService = blackDuckServicesFactory.createProjectBomService();
+            bomComponentReader = new BomComponentReader(blackDuckServicesFactory.getBlackDuckHttpClient());
+            notificationService = blackDuckServicesFactory.createNotificationService();
         } catch (IntegrationException | IllegalStateException e) {
             logger.error(String.format("Black Duck hub server config invalid. %s", e.getMessage()), e);
             exceptionMessage = e.getMessage();
         }
-        for (Repository foundRepository : commonTaskFilters.findRelevantRepositories(repository)) {
-            String repoName = foundRepository.getName();
-            boolean isProxyRepo = commonTaskFilters.isProxyRepository(foundRepository.getType());
-            logger.info("Checking repository for assets: {}", repoName);
+        try {
+            for (Repository foundRepository : commonTaskFilters.findRelevantRepositories(repository)) {
+                String repoName = foundRepository.getName();
+                boolean isProxyRepo = commonTaskFilters.isProxyRepository(foundRepository.getType());
+                logger.info("Checking repository for assets: {}", repoName);
 
-            AssetPanelLabel assetStatusLabel;
-            if (isProxyRepo) {
-                assetStatusLabel = AssetPanelLabel.INSPECTION_TASK_STATUS;
-            } else {
-                assetStatusLabel = AssetPanelLabel.SCAN_TASK_STATUS;
-            }
+                AssetPanelLabel assetStatusLabel;
+                if (isProxyRepo) {
+                    assetStatusLabel = AssetPanelLabel.INSPECTION_TASK_STATUS;
+                } else {
+                    assetStatusLabel = AssetPanelLabel.SCAN_TASK_STATUS;
+                }
 
-            MetaDataScanConfiguration metaDataScanConfiguration;
-            if (StringUtils.isNotBlank(exceptionMessage)) {
-                metaDataScanConfiguration = MetaDataScanConfiguration.createConfigurationWithError(exceptionMessage, repository, isProxyRepo, assetStatusLabel);
+                MetaDataScanConfiguration metaDataScanConfiguration;
+                if (StringUtils.isNotBlank(exceptionMessage)) {
+                    metaDataScanConfiguration = MetaDataScanConfiguration.createConfigurationWithError(exceptionMessage, repository, isProxyRepo, assetStatusLabel);
+                } else {
+                    metaDataScanConfiguration = MetaDataScanConfiguration.createConfiguration(repository, isProxyRepo, assetStatusLabel, blackDuckService, projectService, projectBomService, bomComponentReader, notificationService);
+                }
+                MetadataRepositoryScanner metadataRepositoryScanner = new MetadataRepositoryScanner(commonRepositoryTaskHelper, queryManager, commonMetaDataProcessor, inspectorMetaDataProcessor,
+                    scanMetaDataProcessor, dateTimeParser, taskConfiguration(), metaDataScanConfiguration);
+                metadataRepositoryScanner.scanRepository();
+            }
+            if (phoneHomeResponse.isPresent()) {
+                commonRepositoryTaskHelper.endPhoneHome(phoneHomeResponse.get());
             } else {
-                metaDataScanConfiguration = MetaDataScanConfiguration.createConfiguration(repository, isProxyRepo, assetStatusLabel, codeLocationCreationService, blackDuckService, projectService, projectBomService);
+                logger.debug("Could not phone home.");
+            }
+        } finally {
+            // the connection pool of a snapshot replaced while the task ran is shut down by the last task using it
+            if (null != blackDuckConnectionSnapshot) {
+                blackDuckConnectionSnapshot.release();
             }
-            MetadataRepositoryScanner metadataRepositoryScanner = new MetadataRepositoryScanner(commonRepositoryTaskHelper, queryManager, commonMetaDataProcessor, inspectorMetaDataProcessor,
-                scanMetaDataProcessor, dateTimeParser, metaDataScanConfiguration);
-            metadataRepositoryScanner.scanRepository();
-        }
-        if (phoneHomeResponse.isPresent()) {
-            commonRepositoryTaskHelper.endPhoneHome(phoneHomeResponse.get());
-        } else {
-            logger.debug("Could not phone home.");
         }
     }
 
@@ -26,6 +26,9 @@ package com.synopsys.integration.blackduck.nexus3.task.metadata;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.sonatype.nexus.formfields.CheckboxFormField;
+import org.sonatype.nexus.formfields.FormField;
+import org.sonatype.nexus.formfields.NumberTextFormField;
 import org.sonatype.nexus.repository.types.GroupType;
 import org.sonatype.nexus.repository.types.HostedType;
 import org.sonatype.nexus.repository.types.ProxyType;
@@ -38,6 +41,18 @@ import com.synopsys.integration.blackduck.nexus3.task.common.CommonDescriptorHel
 public class MetaDataTaskDescriptor extends TaskDescriptorSupport {
     public static final String BLACK_DUCK_META_DATA_TASK_ID = "blackduck.asset.property.update";
     public static final String BLACK_DUCK_META_DATA_TASK_NAME = "Black Duck - Update Policy And Vulnerabilities";
+    public static final int DEFAULT_WORKER_THREADS = 8;
+    public static final int MIN_WORKER_THREADS = 1;
+    public static final int MAX_WORKER_THREADS = 16;
+    public static final String KEY_NOTIFICATION_REFRESH = "blackduck.metadata.notification.refresh";
+    public static final String KEY_WORKER_THREADS = "blackduck.metadata.worker.threads";
+    private static final String LABEL_NOTIFICATION_REFRESH = "Black Duck - Refresh From Notifications";
+    private static final String DESCRIPTION_NOTIFICATION_REFRESH = "Only refresh the assets of Black Duck Project Versions that received policy, override, vulnerability or BOM edit notifications since the last run";
+    private static final String LABEL_WORKER_THREADS = "Black Duck - Concurrent Project Versions";
+    private static final String DESCRIPTION_WORKER_THREADS = "Specify how many Black Duck Project Versions are refreshed at the same time. Default: 8";
+    private static final CheckboxFormField FIELD_NOTIFICATION_REFRESH = new CheckboxFormField(KEY_NOTIFICATION_REFRESH, LABEL_NOTIFICATION_REFRESH, DESCRIPTION_NOTIFICATION_REFRESH, FormField.OPTIONAL);
+    private static final NumberTextFormField FIELD_WORKER_THREADS = new NumberTextFormField(KEY_WORKER_THREADS, LABEL_WORKER_THREADS, DESCRIPTION_WORKER_THREADS, FormField.OPTIONAL)
+                                                                        .withInitialValue(DEFAULT_WORKER_THREADS).withMinimumValue(MIN_WORKER_THREADS).withMaximumValue(MAX_WORKER_THREADS);
 
     public MetaDataTaskDescriptor() {
         super(BLACK_DUCK_META_DATA_TASK_ID,
@@ -45,7 +60,9 @@ public class MetaDataTaskDescriptor extends TaskDescriptorSupport {
             BLACK_DUCK_META_DATA_TASK_NAME,
             VISIBLE,
             EXPOSED,
-            CommonDescriptorHelper.getRepositoryField(ProxyType.NAME, HostedType.NAME, GroupType.NAME)
+            CommonDescriptorHelper.getRepositoryField(ProxyType.NAME, HostedType.NAME, GroupType.NAME),
+            FIELD_NOTIFICATION_REFRESH,
+            FIELD_WORKER_THREADS
         );
     }
 
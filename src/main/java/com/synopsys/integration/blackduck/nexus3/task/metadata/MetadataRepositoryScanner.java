@@ -1,20 +1,36 @@
 package com.synopsys.integration.blackduck.nexus3.task.metadata;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
-import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonatype.nexus.repository.storage.Asset;
 import org.sonatype.nexus.repository.storage.Query;
+import org.sonatype.nexus.scheduling.TaskConfiguration;
 import org.sonatype.nexus.scheduling.TaskInterruptedException;
 
+import com.synopsys.integration.blackduck.api.generated.view.CodeLocationView;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
-import com.synopsys.integration.blackduck.codelocation.CodeLocationWaitResult;
+import com.synopsys.integration.blackduck.api.manual.view.NotificationView;
 import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
 import com.synopsys.integration.blackduck.nexus3.database.PagedResult;
 import com.synopsys.integration.blackduck.nexus3.database.QueryManager;
@@ -23,16 +39,19 @@ import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
 import com.synopsys.integration.blackduck.nexus3.task.TaskStatus;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonMetaDataProcessor;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonRepositoryTaskHelper;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.InspectionBomIndex;
 import com.synopsys.integration.blackduck.nexus3.task.inspector.InspectorMetaDataProcessor;
+import com.synopsys.integration.blackduck.nexus3.task.scan.HostedMetaData;
 import com.synopsys.integration.blackduck.nexus3.task.scan.ScanMetaDataProcessor;
 import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
-import com.synopsys.integration.blackduck.service.model.NotificationTaskRange;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.util.NameVersion;
 
 public class MetadataRepositoryScanner {
     private static final String BLACK_DUCK_COMMUNICATION_FORMAT = "Problem communicating with Black Duck: {}.";
     private static final String METADATA_CHECK_ERROR = "Problem checking metadata: ";
+    private static final String BLACK_DUCK_UNAVAILABLE_ERROR = "Black Duck is unavailable, the remaining assets will be updated by the next run";
+    private static final int PENDING_SCAN_WINDOW_DAYS = 7;
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final CommonRepositoryTaskHelper commonRepositoryTaskHelper;
@@ -41,177 +60,401 @@ public class MetadataRepositoryScanner {
     private final InspectorMetaDataProcessor inspectorMetaDataProcessor;
     private final ScanMetaDataProcessor scanMetaDataProcessor;
     private final DateTimeParser dateTimeParser;
+    private final TaskConfiguration taskConfiguration;
 
     private final MetaDataScanConfiguration metaDataScanConfiguration;
+    // built once per run so the proxy assets can be updated page by page
+    private InspectionBomIndex proxyBomIndex;
+    private ProjectVersionView proxyProjectVersionView;
+    private String proxyBlackDuckUrl;
+    private String proxyBomIndexError;
+    // null when every asset has to be refreshed
+    private Set<String> changedProjectVersionUrls;
+    private Date nextNotificationHighWaterMark;
 
     public MetadataRepositoryScanner(CommonRepositoryTaskHelper commonRepositoryTaskHelper, QueryManager queryManager, CommonMetaDataProcessor commonMetaDataProcessor,
-        InspectorMetaDataProcessor inspectorMetaDataProcessor, ScanMetaDataProcessor scanMetaDataProcessor, DateTimeParser dateTimeParser, MetaDataScanConfiguration metaDataScanConfiguration) {
+        InspectorMetaDataProcessor inspectorMetaDataProcessor, ScanMetaDataProcessor scanMetaDataProcessor, DateTimeParser dateTimeParser, TaskConfiguration taskConfiguration,
+        MetaDataScanConfiguration metaDataScanConfiguration) {
         this.commonRepositoryTaskHelper = commonRepositoryTaskHelper;
         this.queryManager = queryManager;
         this.commonMetaDataProcessor = commonMetaDataProcessor;
         this.inspectorMetaDataProcessor = inspectorMetaDataProcessor;
         this.scanMetaDataProcessor = scanMetaDataProcessor;
         this.dateTimeParser = dateTimeParser;
+        this.taskConfiguration = taskConfiguration;
         this.metaDataScanConfiguration = metaDataScanConfiguration;
     }
 
     public void scanRepository() {
         String repoName = metaDataScanConfiguration.getRepository().getName();
+        boolean notificationRefresh = taskConfiguration.getBoolean(MetaDataTaskDescriptor.KEY_NOTIFICATION_REFRESH, false) && !metaDataScanConfiguration.hasErrors();
+        NotificationHighWaterMark highWaterMark = NotificationHighWaterMark.createHighWaterMark(getWorkingBlackDuckDirectory(), repoName);
+        Date runStartedAt = new Date();
+        changedProjectVersionUrls = notificationRefresh ? findChangedProjectVersionUrls(highWaterMark, runStartedAt) : null;
+
         Query filteredAssets = createFilteredQuery(Optional.empty());
         PagedResult<Asset> pagedAssets = commonRepositoryTaskHelper.retrievePagedAssets(metaDataScanConfiguration.getRepository(), filteredAssets);
-        Map<String, AssetWrapper> assetWrapperMap = new HashMap<>();
         Map<String, AssetWrapper> assetWrapperToWaitFor = new HashMap<>();
-        while (pagedAssets.hasResults()) {
-            logger.debug("Found items in the DB.");
-            for (Asset asset : pagedAssets.getTypeList()) {
-                updateAsset(asset, repoName, assetWrapperToWaitFor, assetWrapperMap);
+        ProjectVersionGroups<AssetWrapper> hostedAssetGroups = new ProjectVersionGroups<>();
+        ExecutorService executorService = createExecutorService(repoName);
+        try {
+            while (pagedAssets.hasResults()) {
+                checkBlackDuckAvailable();
+                logger.debug("Found items in the DB.");
+                // only the proxy assets of the current page are kept
+                Map<String, List<AssetWrapper>> assetWrapperMap = new HashMap<>();
+                for (Asset asset : pagedAssets.getTypeList()) {
+                    updateAsset(asset, repoName, assetWrapperToWaitFor, assetWrapperMap, hostedAssetGroups);
+                }
+                updateHostedAssets(executorService, hostedAssetGroups.takeClosedGroups());
+                if (!assetWrapperMap.isEmpty()) {
+                    updateProxyAssets(repoName, assetWrapperMap);
+                }
+                Query nextPage = createFilteredQuery(pagedAssets.getLastName());
+                pagedAssets = commonRepositoryTaskHelper.retrievePagedAssets(metaDataScanConfiguration.getRepository(), nextPage);
             }
-            Query nextPage = createFilteredQuery(pagedAssets.getLastName());
-            pagedAssets = commonRepositoryTaskHelper.retrievePagedAssets(metaDataScanConfiguration.getRepository(), nextPage);
+            updateHostedAssets(executorService, hostedAssetGroups.takeAllGroups());
+
+            if (!assetWrapperToWaitFor.isEmpty() && !metaDataScanConfiguration.hasErrors()) {
+                checkBlackDuckAvailable();
+                updatePendingScanAssets(executorService, assetWrapperToWaitFor);
+            }
+        } finally {
+            executorService.shutdownNow();
         }
 
-        if (!assetWrapperToWaitFor.isEmpty() && !metaDataScanConfiguration.hasErrors()) {
-            updatePendingScanAssets(assetWrapperToWaitFor);
+        if (notificationRefresh) {
+            highWaterMark.save(nextNotificationHighWaterMark);
         }
+    }
 
-        if (metaDataScanConfiguration.isProxyRepo() && !metaDataScanConfiguration.hasErrors()) {
-            logger.info("Updating data of proxy repository.");
-            updateProxyAssets(repoName, assetWrapperMap);
+    private Set<String> findChangedProjectVersionUrls(NotificationHighWaterMark highWaterMark, Date runStartedAt) {
+        Optional<Date> lastHighWaterMark = highWaterMark.load();
+        if (!lastHighWaterMark.isPresent()) {
+            logger.info("No previous notification refresh found, refreshing all assets.");
+            // the overlap of the next window covers the difference between the clocks of Nexus and Black Duck
+            nextNotificationHighWaterMark = runStartedAt;
+            return null;
+        }
+        nextNotificationHighWaterMark = lastHighWaterMark.get();
+        try {
+            Date windowStart = NotificationHighWaterMark.getWindowStart(lastHighWaterMark.get());
+            List<NotificationView> notificationViews = metaDataScanConfiguration.getNotificationService().getAllNotifications(windowStart, runStartedAt);
+            Set<String> projectVersionUrls = new ChangedProjectVersionCollector().collectProjectVersionUrls(notificationViews);
+            logger.info("Found {} notifications affecting {} Project Versions since {}.", notificationViews.size(), projectVersionUrls.size(), windowStart);
+            nextNotificationHighWaterMark = NotificationHighWaterMark.advance(lastHighWaterMark.get(), notificationViews);
+            return projectVersionUrls;
+        } catch (IntegrationException e) {
+            logger.warn("Could not retrieve the Black Duck notifications, refreshing all assets: {}", e.getMessage());
+            logger.debug(e.getMessage(), e);
+            return null;
         }
     }
 
-    private void updateAsset(Asset asset, String repoName, Map<String, AssetWrapper> assetWrapperToWaitFor, Map<String, AssetWrapper> assetWrapperMap) {
+    // assets that were successfully processed only change when Black Duck reported a change to their Project Version
+    private boolean isUnchangedInBlackDuck(AssetWrapper assetWrapper) {
+        if (null == changedProjectVersionUrls || TaskStatus.SUCCESS != assetWrapper.getBlackDuckStatus()) {
+            return false;
+        }
+        String assetBlackDuckUrl = assetWrapper.getFromBlackDuckAssetPanel(AssetPanelLabel.BLACKDUCK_URL);
+        return StringUtils.isNotBlank(assetBlackDuckUrl) && !changedProjectVersionUrls.contains(assetBlackDuckUrl);
+    }
+
+    private File getWorkingBlackDuckDirectory() {
+        return new File(commonRepositoryTaskHelper.getWorkingDirectory(taskConfiguration), "blackduck");
+    }
+
+    private ExecutorService createExecutorService(String repoName) {
+        int workerThreads = taskConfiguration.getInteger(MetaDataTaskDescriptor.KEY_WORKER_THREADS, MetaDataTaskDescriptor.DEFAULT_WORKER_THREADS);
+        workerThreads = Math.max(MetaDataTaskDescriptor.MIN_WORKER_THREADS, Math.min(MetaDataTaskDescriptor.MAX_WORKER_THREADS, workerThreads));
+        logger.debug("Refreshing up to {} Project Versions at the same time.", workerThreads);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, String.format("blackduck-metadata-%s-%d", repoName, threadCount.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(workerThreads, threadFactory);
+    }
+
+    private void updateAsset(Asset asset, String repoName, Map<String, AssetWrapper> assetWrapperToWaitFor, Map<String, List<AssetWrapper>> assetWrapperMap,
+        ProjectVersionGroups<AssetWrapper> hostedAssetGroups) {
         AssetWrapper assetWrapper = AssetWrapper.createAssetWrapper(asset, metaDataScanConfiguration.getRepository(), queryManager, metaDataScanConfiguration.getAssetStatusLabel());
         if (metaDataScanConfiguration.hasErrors()) {
             commonRepositoryTaskHelper.failedConnection(assetWrapper, metaDataScanConfiguration.getExceptionMessage());
             assetWrapper.updateAsset();
         } else {
-            updateAsset(assetWrapper, repoName, assetWrapperToWaitFor, assetWrapperMap);
+            updateAsset(assetWrapper, repoName, assetWrapperToWaitFor, assetWrapperMap, hostedAssetGroups);
         }
     }
 
-    private void updateProxyAssets(String repoName, Map<String, AssetWrapper> assetWrapperMap) {
+    private void updateProxyAssets(String repoName, Map<String, List<AssetWrapper>> assetWrapperMap) {
+        if (null != proxyBomIndexError) {
+            for (List<AssetWrapper> assetWrappers : assetWrapperMap.values()) {
+                assetWrappers.forEach(assetWrapper -> updateAssetWrapperWithError(assetWrapper, proxyBomIndexError));
+            }
+            return;
+        }
         try {
-            String blackDuckUrl = commonRepositoryTaskHelper.getBlackDuckServerConfig().getBlackDuckUrl().toString();
-            ProjectVersionView projectVersionView = inspectorMetaDataProcessor.getOrCreateProjectVersion(metaDataScanConfiguration.getBlackDuckService(), metaDataScanConfiguration.getProjectService(), repoName);
-            inspectorMetaDataProcessor.updateRepositoryMetaData(metaDataScanConfiguration.getProjectBomService(), blackDuckUrl, projectVersionView, assetWrapperMap);
+            if (null == proxyBomIndex) {
+                logger.info("Updating data of proxy repository.");
+                proxyBlackDuckUrl = commonRepositoryTaskHelper.getBlackDuckServerConfig().getBlackDuckUrl().toString();
+                proxyProjectVersionView = inspectorMetaDataProcessor.getOrCreateProjectVersion(metaDataScanConfiguration.getBlackDuckService(), metaDataScanConfiguration.getProjectService(), repoName);
+                proxyBomIndex = inspectorMetaDataProcessor.createBomIndex(metaDataScanConfiguration.getBomComponentReader(), proxyProjectVersionView);
+            }
+            inspectorMetaDataProcessor.updateRepositoryMetaData(proxyBomIndex, proxyBlackDuckUrl, proxyProjectVersionView, assetWrapperMap);
         } catch (BlackDuckApiException e) {
-            for (Map.Entry<String, AssetWrapper> entry : assetWrapperMap.entrySet()) {
-                logger.error(BLACK_DUCK_COMMUNICATION_FORMAT, e.getMessage());
-                logger.debug(e.getMessage(), e);
-                updateAssetWrapperWithError(entry.getValue(), e.getMessage());
+            logger.error(BLACK_DUCK_COMMUNICATION_FORMAT, e.getMessage());
+            logger.debug(e.getMessage(), e);
+            inspectorMetaDataProcessor.invalidateProjectVersion(repoName, e);
+            proxyBomIndexError = e.getMessage();
+            for (List<AssetWrapper> assetWrappers : assetWrapperMap.values()) {
+                assetWrappers.forEach(assetWrapper -> updateAssetWrapperWithError(assetWrapper, e.getMessage()));
             }
         } catch (IntegrationException e) {
-            for (Map.Entry<String, AssetWrapper> entry : assetWrapperMap.entrySet()) {
-                logger.error(BLACK_DUCK_COMMUNICATION_FORMAT, e.getMessage());
-                logger.debug(e.getMessage(), e);
-                updateAssetWrapperWithError(entry.getValue(), String.format("Problem retrieving the project %s from Black Duck: %s", repoName, e.getMessage()));
+            logger.error(BLACK_DUCK_COMMUNICATION_FORMAT, e.getMessage());
+            logger.debug(e.getMessage(), e);
+            checkConnectionFailure(e);
+            for (List<AssetWrapper> assetWrappers : assetWrapperMap.values()) {
+                assetWrappers.forEach(assetWrapper -> updateAssetWrapperWithError(assetWrapper, String.format("Problem retrieving the project %s from Black Duck: %s", repoName, e.getMessage())));
             }
             throw new TaskInterruptedException("Problem retrieving project from Black Duck: " + e.getMessage(), true);
         }
     }
 
-    private void updateAsset(AssetWrapper assetWrapper, String repoName, Map<String, AssetWrapper> assetWrapperToWaitFor, Map<String, AssetWrapper> assetWrapperMap) {
+    private void updateAsset(AssetWrapper assetWrapper, String repoName, Map<String, AssetWrapper> assetWrapperToWaitFor, Map<String, List<AssetWrapper>> assetWrapperMap,
+        ProjectVersionGroups<AssetWrapper> hostedAssetGroups) {
         String assetName = assetWrapper.getName();
+        if (isUnchangedInBlackDuck(assetWrapper)) {
+            logger.debug("No Black Duck notifications for {}, skipping", assetName);
+            return;
+        }
         logger.info("Updating metadata for {}", assetName);
-        try {
-            if (!metaDataScanConfiguration.isProxyRepo()) {
-                String assetBlackDuckUrl = assetWrapper.getFromBlackDuckAssetPanel(AssetPanelLabel.BLACKDUCK_URL);
-                TaskStatus status = assetWrapper.getBlackDuckStatus();
-                String lastProcessedString = assetWrapper.getFromBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME);
-                DateTime lastProcessed = dateTimeParser.convertFromStringToDate(lastProcessedString);
-                String version = assetWrapper.getVersion();
-
-                if (StringUtils.isBlank(assetBlackDuckUrl) && isPendingOrComponentNotFoundForDay(status, lastProcessed)) {
-                    String codeLocationName = scanMetaDataProcessor.createCodeLocationName(repoName, assetName, version);
-                    logger.info("Re-checking code location {}", codeLocationName);
-                    assetWrapperToWaitFor.put(codeLocationName, assetWrapper);
-                } else if (!metaDataScanConfiguration.hasErrors()) {
-                    ProjectVersionView projectVersionView = commonMetaDataProcessor.getOrCreateProjectVersion(metaDataScanConfiguration.getBlackDuckService(), metaDataScanConfiguration.getProjectService(), assetName, version);
-                    logger.info("Updating data of hosted repository.");
-                    scanMetaDataProcessor
-                        .updateRepositoryMetaData(metaDataScanConfiguration.getBlackDuckService(), metaDataScanConfiguration.getProjectBomService(), assetWrapper, projectVersionView.getHref().orElse(assetBlackDuckUrl), projectVersionView);
+        if (!metaDataScanConfiguration.isProxyRepo()) {
+            String assetBlackDuckUrl = assetWrapper.getFromBlackDuckAssetPanel(AssetPanelLabel.BLACKDUCK_URL);
+            TaskStatus status = assetWrapper.getBlackDuckStatus();
+            Optional<Long> lastProcessed = assetWrapper.getProcessedEpochMillis();
+            String version = assetWrapper.getVersion();
 
-                }
-            } else {
-                String originId = assetWrapper.getFromBlackDuckAssetPanel(AssetPanelLabel.ASSET_ORIGIN_ID);
-                assetWrapperMap.put(originId, assetWrapper);
+            if (StringUtils.isBlank(assetBlackDuckUrl) && isPendingOrComponentNotFoundForDay(status, lastProcessed)) {
+                String codeLocationName = scanMetaDataProcessor.createCodeLocationName(repoName, assetName, version);
+                logger.info("Re-checking code location {}", codeLocationName);
+                assetWrapperToWaitFor.put(codeLocationName, assetWrapper);
+            } else if (!metaDataScanConfiguration.hasErrors()) {
+                hostedAssetGroups.add(new NameVersion(assetName, version), assetWrapper);
+            }
+        } else {
+            String originId = assetWrapper.getFromBlackDuckAssetPanel(AssetPanelLabel.ASSET_ORIGIN_ID);
+            assetWrapperMap.computeIfAbsent(originId, ignored -> new ArrayList<>()).add(assetWrapper);
+        }
+    }
+
+    // every Project Version is read from Black Duck once by the workers, the assets are written back on this thread in order
+    private void updateHostedAssets(ExecutorService executorService, Map<NameVersion, List<AssetWrapper>> projectVersionAssets) {
+        if (projectVersionAssets.isEmpty()) {
+            return;
+        }
+        logger.info("Updating data of hosted repository.");
+        Map<NameVersion, Future<HostedMetaData>> hostedMetaDataFutures = new LinkedHashMap<>();
+        for (Map.Entry<NameVersion, List<AssetWrapper>> entry : projectVersionAssets.entrySet()) {
+            NameVersion projectNameVersion = entry.getKey();
+            List<AssetWrapper> assetWrappers = entry.getValue();
+            String previousBomFingerprint = getSharedBomFingerprint(assetWrappers);
+            String assetBlackDuckUrl = assetWrappers.get(0).getFromBlackDuckAssetPanel(AssetPanelLabel.BLACKDUCK_URL);
+            hostedMetaDataFutures.put(projectNameVersion, executorService.submit(() -> fetchHostedMetaData(projectNameVersion, previousBomFingerprint, assetBlackDuckUrl)));
+        }
+
+        for (Map.Entry<NameVersion, Future<HostedMetaData>> entry : hostedMetaDataFutures.entrySet()) {
+            NameVersion projectNameVersion = entry.getKey();
+            List<AssetWrapper> assetWrappers = projectVersionAssets.get(projectNameVersion);
+            try {
+                HostedMetaData hostedMetaData = getWorkerResult(entry.getValue());
+                assetWrappers.forEach(assetWrapper -> scanMetaDataProcessor.applyRepositoryMetaData(assetWrapper, hostedMetaData));
+            } catch (BlackDuckApiException e) {
+                logger.error(BLACK_DUCK_COMMUNICATION_FORMAT, e.getMessage());
+                logger.debug(e.getMessage(), e);
+                commonMetaDataProcessor.invalidateProjectVersion(projectNameVersion.getName(), projectNameVersion.getVersion(), e);
+                assetWrappers.forEach(assetWrapper -> updateAssetWrapperWithError(assetWrapper, e.getMessage()));
+            } catch (IntegrationException e) {
+                checkConnectionFailure(e);
+                assetWrappers.forEach(assetWrapper -> updateAssetWrapperWithError(assetWrapper, e.getMessage()));
+                throw new TaskInterruptedException(METADATA_CHECK_ERROR + e.getMessage(), true);
             }
-        } catch (BlackDuckApiException e) {
-            logger.error(BLACK_DUCK_COMMUNICATION_FORMAT, e.getMessage());
-            logger.debug(e.getMessage(), e);
-            updateAssetWrapperWithError(assetWrapper, e.getMessage());
-        } catch (IntegrationException e) {
-            updateAssetWrapperWithError(assetWrapper, e.getMessage());
-            throw new TaskInterruptedException(METADATA_CHECK_ERROR + e.getMessage(), true);
         }
     }
 
-    private void updatePendingScanAssets(Map<String, AssetWrapper> assetWrapperToWaitFor) {
+    // the vulnerabilities can only be kept when every asset of the Project Version has them for the same BOM
+    private String getSharedBomFingerprint(List<AssetWrapper> assetWrappers) {
+        String sharedBomFingerprint = scanMetaDataProcessor.getPreviousBomFingerprint(assetWrappers.get(0));
+        for (AssetWrapper assetWrapper : assetWrappers) {
+            if (!StringUtils.equals(sharedBomFingerprint, scanMetaDataProcessor.getPreviousBomFingerprint(assetWrapper))) {
+                return null;
+            }
+        }
+        return sharedBomFingerprint;
+    }
+
+    private HostedMetaData fetchHostedMetaData(NameVersion projectNameVersion, String previousBomFingerprint, String assetBlackDuckUrl) throws IntegrationException {
+        return fetchHostedMetaData(getOrCreateProjectVersion(projectNameVersion), previousBomFingerprint, assetBlackDuckUrl);
+    }
+
+    private HostedMetaData fetchHostedMetaData(ProjectVersionView projectVersionView, String previousBomFingerprint, String assetBlackDuckUrl) throws IntegrationException {
+        String blackDuckUrl = projectVersionView.getHref().orElse(assetBlackDuckUrl);
+        return scanMetaDataProcessor.fetchRepositoryMetaData(metaDataScanConfiguration.getBlackDuckService(), metaDataScanConfiguration.getProjectBomService(), previousBomFingerprint, blackDuckUrl,
+            projectVersionView);
+    }
+
+    // concurrent requests for the same Project Version or project tag are already coalesced by the CommonMetaDataProcessor
+    private ProjectVersionView getOrCreateProjectVersion(NameVersion projectNameVersion) throws IntegrationException {
+        return commonMetaDataProcessor.getOrCreateProjectVersion(metaDataScanConfiguration.getBlackDuckService(), metaDataScanConfiguration.getProjectService(), projectNameVersion.getName(),
+            projectNameVersion.getVersion());
+    }
+
+    private <T> T getWorkerResult(Future<T> future) throws IntegrationException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskInterruptedException("Interrupted while updating metadata: " + e.getMessage(), true);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IntegrationException(cause.getMessage(), cause);
+        }
+    }
+
+    // all pending scans are checked against one window of notifications, scans Black Duck has not finished yet are left for the next run
+    private void updatePendingScanAssets(ExecutorService executorService, Map<String, AssetWrapper> assetWrapperToWaitFor) {
+        long windowStart = findPendingScanWindowStart(assetWrapperToWaitFor.values());
+        Optional<Set<String>> computedCodeLocationUrls = findComputedCodeLocationUrls(new Date(windowStart));
+        if (!computedCodeLocationUrls.isPresent()) {
+            return;
+        }
+
+        Map<NameVersion, Map<String, AssetWrapper>> pendingProjectVersions = new LinkedHashMap<>();
         for (Map.Entry<String, AssetWrapper> entry : assetWrapperToWaitFor.entrySet()) {
-            String codeLocationName = entry.getKey();
             AssetWrapper assetWrapper = entry.getValue();
-            String projectName = assetWrapper.getName();
-            String version = assetWrapper.getVersion();
-            NameVersion projectNameVersion = new NameVersion(projectName, version);
+            NameVersion projectNameVersion = new NameVersion(assetWrapper.getName(), assetWrapper.getVersion());
+            pendingProjectVersions.computeIfAbsent(projectNameVersion, ignored -> new LinkedHashMap<>()).put(entry.getKey(), assetWrapper);
+        }
 
-            boolean waitSucceeded = waitForCodeLocations(projectNameVersion, codeLocationName, assetWrapper);
-            if (!waitSucceeded) {
-                continue;
+        Map<NameVersion, Future<Map<String, HostedMetaData>>> pendingScanFutures = new LinkedHashMap<>();
+        if (computedCodeLocationUrls.get().isEmpty()) {
+            logger.info("None of the {} pending scans were completed by Black Duck since {}.", assetWrapperToWaitFor.size(), new Date(windowStart));
+        } else {
+            for (Map.Entry<NameVersion, Map<String, AssetWrapper>> entry : pendingProjectVersions.entrySet()) {
+                NameVersion projectNameVersion = entry.getKey();
+                List<String> codeLocationNames = new ArrayList<>(entry.getValue().keySet());
+                pendingScanFutures.put(projectNameVersion, executorService.submit(() -> fetchCompletedScanMetaData(projectNameVersion, codeLocationNames, computedCodeLocationUrls.get())));
             }
+        }
 
-            String assetBlackDuckUrl = assetWrapper.getFromBlackDuckAssetPanel(AssetPanelLabel.BLACKDUCK_URL);
+        for (Map.Entry<NameVersion, Map<String, AssetWrapper>> entry : pendingProjectVersions.entrySet()) {
+            NameVersion projectNameVersion = entry.getKey();
+            Map<String, AssetWrapper> pendingAssetWrappers = entry.getValue();
+            Future<Map<String, HostedMetaData>> pendingScanFuture = pendingScanFutures.get(projectNameVersion);
             try {
-                ProjectVersionView projectVersionView = commonMetaDataProcessor.getOrCreateProjectVersion(metaDataScanConfiguration.getBlackDuckService(), metaDataScanConfiguration.getProjectService(), projectName, version);
-                scanMetaDataProcessor.updateRepositoryMetaData(metaDataScanConfiguration.getBlackDuckService(), metaDataScanConfiguration.getProjectBomService(),
-                    assetWrapper, projectVersionView.getHref().orElse(assetBlackDuckUrl), projectVersionView);
+                Map<String, HostedMetaData> completedScans = null != pendingScanFuture ? getWorkerResult(pendingScanFuture) : Collections.emptyMap();
+                for (Map.Entry<String, AssetWrapper> pendingEntry : pendingAssetWrappers.entrySet()) {
+                    HostedMetaData hostedMetaData = completedScans.get(pendingEntry.getKey());
+                    if (null != hostedMetaData) {
+                        scanMetaDataProcessor.applyRepositoryMetaData(pendingEntry.getValue(), hostedMetaData);
+                    } else {
+                        updateUncompletedScanAsset(pendingEntry.getKey(), pendingEntry.getValue(), windowStart);
+                    }
+                }
             } catch (BlackDuckApiException e) {
                 logger.error(BLACK_DUCK_COMMUNICATION_FORMAT, e.getMessage());
                 logger.debug(e.getMessage(), e);
-                updateAssetWrapperWithError(assetWrapper, e.getMessage());
+                commonMetaDataProcessor.invalidateProjectVersion(projectNameVersion.getName(), projectNameVersion.getVersion(), e);
+                pendingAssetWrappers.values().forEach(assetWrapper -> updateAssetWrapperWithError(assetWrapper, e.getMessage()));
             } catch (IntegrationException e) {
-                updateAssetWrapperWithError(assetWrapper, e.getMessage());
+                checkConnectionFailure(e);
+                pendingAssetWrappers.values().forEach(assetWrapper -> updateAssetWrapperWithError(assetWrapper, e.getMessage()));
                 throw new TaskInterruptedException(METADATA_CHECK_ERROR + e.getMessage(), true);
             }
         }
     }
 
-    private boolean waitForCodeLocations(NameVersion projectNameVersion, String codeLocationName, AssetWrapper assetWrapper) {
-        CodeLocationWaitResult codeLocationWaitResult = null;
-        String errorMessage = null;
-        int timeout = -1;
+    // the window starts at the oldest pending scan, but never reaches further back than PENDING_SCAN_WINDOW_DAYS
+    private long findPendingScanWindowStart(Collection<AssetWrapper> pendingAssetWrappers) {
+        long now = dateTimeParser.getCurrentEpochMillis();
+        long oldestLastProcessed = now;
+        for (AssetWrapper assetWrapper : pendingAssetWrappers) {
+            oldestLastProcessed = Math.min(oldestLastProcessed, assetWrapper.getProcessedEpochMillis().orElse(0L));
+        }
+        return Math.max(oldestLastProcessed, now - TimeUnit.DAYS.toMillis(PENDING_SCAN_WINDOW_DAYS));
+    }
+
+    private Optional<Set<String>> findComputedCodeLocationUrls(Date windowStart) {
+        // lastProcessed comes from the clock of Nexus while the notifications are dated by Black Duck
+        Date startDate = NotificationHighWaterMark.getWindowStart(windowStart);
         try {
-            timeout = commonRepositoryTaskHelper.getBlackDuckServerConfig().getTimeout() * 5;
-            NotificationTaskRange notificationTaskRange = metaDataScanConfiguration.getCodeLocationCreationService().calculateCodeLocationRange();
-            codeLocationWaitResult = metaDataScanConfiguration.getCodeLocationCreationService().waitForCodeLocations(notificationTaskRange, projectNameVersion, Collections.singleton(codeLocationName), 1, timeout);
-        } catch (InterruptedException e) {
-            errorMessage = String.format("Waiting for the scan '%s', to complete was interrupted: %s", codeLocationName, e.getMessage());
-            logger.error(errorMessage);
-            logger.debug(e.getMessage(), e);
-            Thread.currentThread().interrupt();
-        } catch (BlackDuckApiException e) {
-            errorMessage = e.getMessage();
-            logger.error(BLACK_DUCK_COMMUNICATION_FORMAT, errorMessage);
-            logger.debug(e.getMessage(), e);
+            List<NotificationView> notificationViews = metaDataScanConfiguration.getNotificationService().getAllNotifications(startDate, new Date());
+            Set<String> codeLocationUrls = new ComputedCodeLocationCollector().collectCodeLocationUrls(notificationViews);
+            logger.info("Black Duck computed the BOM of {} code locations since {}.", codeLocationUrls.size(), startDate);
+            return Optional.of(codeLocationUrls);
         } catch (IntegrationException e) {
-            errorMessage = e.getMessage();
-            throw new TaskInterruptedException(METADATA_CHECK_ERROR + errorMessage, true);
+            logger.warn("Could not retrieve the Black Duck notifications, checking the pending scans on the next run: {}", e.getMessage());
+            logger.debug(e.getMessage(), e);
+            return Optional.empty();
         }
+    }
 
-        if (StringUtils.isBlank(errorMessage) && null != codeLocationWaitResult && !codeLocationWaitResult.getCodeLocationNames().contains(codeLocationName)) {
-            errorMessage = String.format("The Black Duck server did not update this project '%s' within %s seconds", projectNameVersion.getName(), timeout);
+    // the Project Version is only read once for all of its scans that Black Duck completed
+    private Map<String, HostedMetaData> fetchCompletedScanMetaData(NameVersion projectNameVersion, List<String> codeLocationNames, Set<String> computedCodeLocationUrls) throws IntegrationException {
+        ProjectVersionView projectVersionView = getOrCreateProjectVersion(projectNameVersion);
+        // one request for the code locations of the Project Version instead of one per pending scan
+        List<CodeLocationView> codeLocationViews = metaDataScanConfiguration.getBlackDuckService().getAllResponses(projectVersionView, ProjectVersionView.CODELOCATIONS_LINK_RESPONSE);
+        Set<String> computedCodeLocationNames = new ComputedCodeLocationCollector().findComputedCodeLocationNames(codeLocationViews, computedCodeLocationUrls);
+        List<String> completedCodeLocationNames = codeLocationNames.stream()
+                                                      .filter(computedCodeLocationNames::contains)
+                                                      .collect(Collectors.toList());
+        if (completedCodeLocationNames.isEmpty()) {
+            return Collections.emptyMap();
         }
-        if (StringUtils.isNotBlank(errorMessage)) {
+        // a completed scan changed the BOM, so the stored vulnerabilities are never kept
+        HostedMetaData hostedMetaData = fetchHostedMetaData(projectVersionView, null, null);
+        Map<String, HostedMetaData> completedScans = new HashMap<>();
+        completedCodeLocationNames.forEach(codeLocationName -> completedScans.put(codeLocationName, hostedMetaData));
+        return completedScans;
+    }
+
+    // Black Duck only reports a computed BOM once, so scans it did not report within the window are failed the same way the wait for the code location used to
+    private void updateUncompletedScanAsset(String codeLocationName, AssetWrapper assetWrapper, long windowStart) {
+        long lastProcessed = assetWrapper.getProcessedEpochMillis().orElse(0L);
+        if (TaskStatus.COMPONENT_NOT_FOUND == assetWrapper.getBlackDuckStatus() || lastProcessed < windowStart) {
+            String errorMessage = String.format("The Black Duck server did not compute the BOM of the scan '%s' since %s", codeLocationName, new Date(Math.max(lastProcessed, windowStart)));
+            logger.warn(errorMessage);
             updateAssetWrapperWithError(assetWrapper, errorMessage);
-            return false;
+        } else {
+            logger.info("The scan {} is still pending in Black Duck, checking it again on the next run.", codeLocationName);
+        }
+    }
+
+    // the run stops without touching the assets so that their status is kept until Black Duck can be reached again
+    private void checkBlackDuckAvailable() {
+        if (!commonRepositoryTaskHelper.isBlackDuckAvailable()) {
+            logger.warn(BLACK_DUCK_UNAVAILABLE_ERROR);
+            throw new TaskInterruptedException(BLACK_DUCK_UNAVAILABLE_ERROR, true);
+        }
+    }
+
+    private void checkConnectionFailure(IntegrationException exception) {
+        if (commonRepositoryTaskHelper.isConnectionFailure(exception)) {
+            logger.warn("{}: {}", BLACK_DUCK_UNAVAILABLE_ERROR, exception.getMessage());
+            throw new TaskInterruptedException(BLACK_DUCK_UNAVAILABLE_ERROR + ": " + exception.getMessage(), true);
         }
-        return true;
     }
 
     private void updateAssetWrapperWithError(AssetWrapper assetWrapper, String message) {
         commonMetaDataProcessor.removeAllMetaData(assetWrapper);
         assetWrapper.addFailureToBlackDuckPanel(message);
-        assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME, dateTimeParser.getCurrentDateTime());
+        assetWrapper.addProcessedTimeToBlackDuckPanel(dateTimeParser.getCurrentEpochMillis());
         assetWrapper.updateAsset();
     }
 
@@ -246,11 +489,10 @@ public class MetadataRepositoryScanner {
         return equalsStatement.toString();
     }
 
-    private boolean isPendingOrComponentNotFoundForDay(TaskStatus status, DateTime lastProcessed) {
+    private boolean isPendingOrComponentNotFoundForDay(TaskStatus status, Optional<Long> lastProcessed) {
         if (TaskStatus.PENDING.equals(status) || TaskStatus.COMPONENT_NOT_FOUND.equals(status)) {
-            String timeNow = dateTimeParser.getCurrentDateTime();
-            DateTime now = dateTimeParser.convertFromStringToDate(timeNow);
-            return now.isAfter(lastProcessed.plusDays(1));
+            long now = dateTimeParser.getCurrentEpochMillis();
+            return now > lastProcessed.orElse(0L) + TimeUnit.DAYS.toMillis(1);
         }
 
         return false;
@@ -0,0 +1,78 @@
+package com.synopsys.integration.blackduck.nexus3.task.metadata;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.blackduck.api.manual.view.NotificationView;
+
+// the creation time up to which Black Duck notifications have already been applied to a repository
+public class NotificationHighWaterMark {
+    // notifications can be written after newer ones were already read and the clocks of Nexus and Black Duck can differ
+    public static final long WINDOW_OVERLAP_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final File markFile;
+
+    public static NotificationHighWaterMark createHighWaterMark(File workingBlackDuckDirectory, String repositoryName) {
+        return new NotificationHighWaterMark(new File(new File(workingBlackDuckDirectory, "notifications"), String.format("metadata-%s.txt", repositoryName)));
+    }
+
+    public NotificationHighWaterMark(File markFile) {
+        this.markFile = markFile;
+    }
+
+    public static Date getWindowStart(Date highWaterMark) {
+        return new Date(highWaterMark.getTime() - WINDOW_OVERLAP_MILLIS);
+    }
+
+    // only creation times reported by Black Duck move the mark, so a window never ends at the clock of Nexus
+    public static Date advance(Date highWaterMark, List<NotificationView> notificationViews) {
+        return notificationViews.stream()
+                   .map(NotificationView::getCreatedAt)
+                   .filter(Objects::nonNull)
+                   .filter(createdAt -> createdAt.after(highWaterMark))
+                   .max(Date::compareTo)
+                   .orElse(highWaterMark);
+    }
+
+    public Optional<Date> load() {
+        if (!markFile.isFile()) {
+            return Optional.empty();
+        }
+        try {
+            String content = new String(Files.readAllBytes(markFile.toPath()), StandardCharsets.UTF_8).trim();
+            if (StringUtils.isNumeric(content)) {
+                return Optional.of(new Date(Long.parseLong(content)));
+            }
+            logger.warn("Ignoring the invalid notification high-water mark in {}", markFile.getAbsolutePath());
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Could not read the notification high-water mark {}: {}", markFile.getAbsolutePath(), e.getMessage());
+            logger.debug(e.getMessage(), e);
+        }
+        return Optional.empty();
+    }
+
+    public void save(Date highWaterMark) {
+        File temporaryFile = new File(markFile.getParentFile(), markFile.getName() + ".tmp");
+        try {
+            Files.createDirectories(markFile.getParentFile().toPath());
+            Files.write(temporaryFile.toPath(), String.valueOf(highWaterMark.getTime()).getBytes(StandardCharsets.UTF_8));
+            Files.move(temporaryFile.toPath(), markFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Could not write the notification high-water mark {}: {}", markFile.getAbsolutePath(), e.getMessage());
+            logger.debug(e.getMessage(), e);
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.synopsys.integration.blackduck.nexus3.task.metadata;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.synopsys.integration.util.NameVersion;
+
+// groups items per Project Version in the order they were added, the last group stays open because the next page can continue it
+public class ProjectVersionGroups<T> {
+    private final Map<NameVersion, List<T>> groups = new LinkedHashMap<>();
+    private NameVersion lastNameVersion;
+
+    public void add(NameVersion nameVersion, T item) {
+        groups.computeIfAbsent(nameVersion, ignored -> new ArrayList<>()).add(item);
+        lastNameVersion = nameVersion;
+    }
+
+    public Map<NameVersion, List<T>> takeClosedGroups() {
+        List<T> openGroup = null == lastNameVersion ? null : groups.remove(lastNameVersion);
+        Map<NameVersion, List<T>> closedGroups = new LinkedHashMap<>(groups);
+        groups.clear();
+        if (null != openGroup) {
+            groups.put(lastNameVersion, openGroup);
+        }
+        return closedGroups;
+    }
+
+    public Map<NameVersion, List<T>> takeAllGroups() {
+        Map<NameVersion, List<T>> allGroups = new LinkedHashMap<>(groups);
+        groups.clear();
+        lastNameVersion = null;
+        return allGroups;
+    }
+
+    public boolean isEmpty() {
+        return groups.isEmpty();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.synopsys.integration.blackduck.nexus3.task.scan;
+
+import java.util.Optional;
+
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionPolicyStatusView;
+import com.synopsys.integration.blackduck.nexus3.task.common.VulnerabilityLevels;
+
+// the Black Duck data of a hosted asset's Project Version, read before any of it is written to the asset
+public class HostedMetaData {
+    private final ProjectVersionPolicyStatusView policyStatusView;
+    private final VulnerabilityLevels vulnerabilityLevels;
+    private final String bomFingerprint;
+    private final String blackDuckUrl;
+
+    public HostedMetaData(ProjectVersionPolicyStatusView policyStatusView, VulnerabilityLevels vulnerabilityLevels, String bomFingerprint, String blackDuckUrl) {
+        this.policyStatusView = policyStatusView;
+        this.vulnerabilityLevels = vulnerabilityLevels;
+        this.bomFingerprint = bomFingerprint;
+        this.blackDuckUrl = blackDuckUrl;
+    }
+
+    public Optional<ProjectVersionPolicyStatusView> getPolicyStatusView() {
+        return Optional.ofNullable(policyStatusView);
+    }
+
+    // empty when the BOM has not changed since the vulnerabilities were stored on the asset
+    public Optional<VulnerabilityLevels> getVulnerabilityLevels() {
+        return Optional.ofNullable(vulnerabilityLevels);
+    }
+
+    public Optional<String> getBomFingerprint() {
+        return Optional.ofNullable(bomFingerprint);
+    }
+
+    public String getBlackDuckUrl() {
+        return blackDuckUrl;
+    }
+
+}
@@ -32,13 +32,14 @@ import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
 import com.synopsys.integration.blackduck.nexus3.task.TaskStatus;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonRepositoryTaskHelper;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonTaskFilters;
-import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
+import com.synopsys.integration.blackduck.nexus3.task.common.CompiledTaskFilter;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.util.NameVersion;
 
 public class RepositoryScanner {
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private static final String BLACK_DUCK_COMMUNICATION_FORMAT = "Problem communicating with Black Duck: %s.";
+    private static final String BLACK_DUCK_UNAVAILABLE_MESSAGE = "Black Duck is unavailable, the remaining assets in repository {} will be scanned by the next run.";
 
     private final QueryManager queryManager;
     private final DateTimeParser dateTimeParser;
@@ -48,6 +49,7 @@ public class RepositoryScanner {
     private final CommonTaskFilters commonTaskFilters;
 
     private final ScanConfiguration scanConfiguration;
+    private final CompiledTaskFilter compiledTaskFilter;
 
     public RepositoryScanner(QueryManager queryManager, DateTimeParser dateTimeParser, ScanMetaDataProcessor scanMetaDataProcessor, TaskConfiguration taskConfiguration,
         CommonRepositoryTaskHelper commonRepositoryTaskHelper, CommonTaskFilters commonTaskFilters, ScanConfiguration scanConfiguration) {
@@ -57,6 +59,7 @@ public class RepositoryScanner {
         this.taskConfiguration = taskConfiguration;
         this.commonRepositoryTaskHelper = commonRepositoryTaskHelper;
         this.commonTaskFilters = commonTaskFilters;
+        this.compiledTaskFilter = commonTaskFilters.compileTaskFilter(taskConfiguration);
         this.scanConfiguration = scanConfiguration;
     }
 
@@ -67,11 +70,18 @@ public class RepositoryScanner {
         PagedResult<Asset> foundAssets = commonRepositoryTaskHelper.retrievePagedAssets(scanConfiguration.getRepository(), filteredQuery);
 
         while (foundAssets.hasResults()) {
+            if (!commonRepositoryTaskHelper.isBlackDuckAvailable()) {
+                logger.warn(BLACK_DUCK_UNAVAILABLE_MESSAGE, repoName);
+                break;
+            }
             Iterable<Asset> assetsTypeList = foundAssets.getTypeList();
             int assetCount = IterableUtils.size(assetsTypeList);
             logger.info("Found {} assets to possibly scan.", assetCount);
             Map<AssetWrapper, Optional<CodeLocationCreationData<ScanBatchOutput>>> scannedAssets = new HashMap<>();
             for (Asset asset : foundAssets.getTypeList()) {
+                if (!commonRepositoryTaskHelper.isBlackDuckAvailable()) {
+                    break;
+                }
                 scanAsset(asset, repoName, scannedAssets);
             }
             try {
@@ -84,6 +94,10 @@ public class RepositoryScanner {
             logger.error("Scanned assets : " + scannedAssets.size());
             if (!scanConfiguration.hasErrors()) {
                 for (Map.Entry<AssetWrapper, Optional<CodeLocationCreationData<ScanBatchOutput>>> entry : scannedAssets.entrySet()) {
+                    // the uploaded scans stay pending and are picked up by the meta data task
+                    if (!commonRepositoryTaskHelper.isBlackDuckAvailable()) {
+                        break;
+                    }
                     processScannedAsset(entry.getKey(), entry.getValue());
                 }
             } else {
@@ -119,10 +133,10 @@ public class RepositoryScanner {
         } catch (IntegrationException e) {
             logger.debug(String.format("Skipping asset: %s. %s", name, e.getMessage()), e);
         }
-        if (commonTaskFilters.isAssetTooOldForTask(lastModified, taskConfiguration)) {
+        if (commonTaskFilters.isAssetTooOldForTask(lastModified, compiledTaskFilter)) {
             logger.debug("The asset is older than the task cutoff date: {}", name);
             return;
-        } else if (!commonTaskFilters.doesAssetPathAndExtensionMatch(fullPathName, fileName, taskConfiguration)) {
+        } else if (!commonTaskFilters.doesAssetPathAndExtensionMatch(fullPathName, fileName, compiledTaskFilter)) {
             logger.debug("The asset path or extension does not match the task configuration: {}", name);
             return;
         } else if (!scan) {
@@ -164,6 +178,12 @@ public class RepositoryScanner {
                 }
             }
         } catch (IntegrationException e) {
+            scanMetaDataProcessor.invalidateProjectVersion(projectName, version, e);
+            if (commonRepositoryTaskHelper.isConnectionFailure(e)) {
+                logger.warn(String.format(BLACK_DUCK_COMMUNICATION_FORMAT, e.getMessage()));
+                logger.debug(e.getMessage(), e);
+                return;
+            }
             updateAssetWrapperWithError(assetWrapper, e.getMessage());
             logger.error(String.format(BLACK_DUCK_COMMUNICATION_FORMAT, e.getMessage()));
             logger.debug(e.getMessage(), e);
@@ -179,7 +199,7 @@ public class RepositoryScanner {
     private void updateAssetWrapperWithError(AssetWrapper assetWrapper, String message) {
         assetWrapper.removeAllBlackDuckData();
         assetWrapper.addFailureToBlackDuckPanel(message);
-        assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME, dateTimeParser.getCurrentDateTime());
+        assetWrapper.addProcessedTimeToBlackDuckPanel(dateTimeParser.getCurrentEpochMillis());
         assetWrapper.updateAsset();
     }
 
@@ -213,6 +233,7 @@ public class RepositoryScanner {
             throw new TaskInterruptedException("Error saving blob binary to file", true);
         }
         CodeLocationCreationData<ScanBatchOutput> scanData = null;
+        boolean connectionFailed = false;
         try {
             ScanBatch scanBatch = createScanBatch(projectName, version, binaryFile.getAbsolutePath(), codeLocationName);
             scanData = scanConfiguration.getSignatureScannerService().performSignatureScan(scanBatch);
@@ -225,9 +246,18 @@ public class RepositoryScanner {
             handleScanException(assetWrapper, errorMessage, e);
         } catch (IntegrationException | IllegalArgumentException e) {
             String errorMessage = String.format("Error scanning asset: %s, version: %s, path: %s. Reason: %s", projectName, version, fullPath, e.getMessage());
-            handleScanException(assetWrapper, errorMessage, e);
+            connectionFailed = commonRepositoryTaskHelper.isConnectionFailure(e);
+            if (connectionFailed) {
+                logger.warn(errorMessage);
+                logger.debug(e.getMessage(), e);
+            } else {
+                handleScanException(assetWrapper, errorMessage, e);
+            }
         } finally {
-            assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME, dateTimeParser.getCurrentDateTime());
+            // an asset that could not reach Black Duck keeps its previous status and time
+            if (!connectionFailed) {
+                assetWrapper.addProcessedTimeToBlackDuckPanel(dateTimeParser.getCurrentEpochMillis());
+            }
         }
         return Optional.ofNullable(scanData);
     }
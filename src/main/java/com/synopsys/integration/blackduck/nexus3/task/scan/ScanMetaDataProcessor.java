@@ -30,6 +30,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,6 +38,7 @@ import com.synopsys.integration.blackduck.api.generated.component.ComponentVersi
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionComponentView;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionPolicyStatusView;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.api.manual.throwaway.generated.response.VersionRiskProfileView;
 import com.synopsys.integration.blackduck.nexus3.task.AssetWrapper;
 import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonMetaDataProcessor;
@@ -62,31 +64,82 @@ public class ScanMetaDataProcessor {
 
     public void updateRepositoryMetaData(BlackDuckService blackDuckService, ProjectBomService projectBomService, AssetWrapper assetWrapper, String blackDuckUrl, ProjectVersionView projectVersionView)
         throws IntegrationException {
-        logger.info("Checking vulnerabilities.");
-        List<ProjectVersionComponentView> versionComponentViews = commonMetaDataProcessor.getBomComponents(projectBomService, projectVersionView);
-        VulnerabilityLevels vulnerabilityLevels = new VulnerabilityLevels();
-        for (ProjectVersionComponentView versionComponentView : versionComponentViews) {
-            List<ComponentVersionRiskProfileRiskDataCountsView> riskCounts = versionComponentView.getSecurityRiskProfile().getCounts();
-            commonMetaDataProcessor.addMaxAssetVulnerabilityCounts(riskCounts, vulnerabilityLevels);
-        }
-        assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.VULNERABLE_COMPONENTS, vulnerabilityLevels.getAllCounts());
+        HostedMetaData hostedMetaData = fetchRepositoryMetaData(blackDuckService, projectBomService, getPreviousBomFingerprint(assetWrapper), blackDuckUrl, projectVersionView);
+        applyRepositoryMetaData(assetWrapper, hostedMetaData);
+    }
+
+    // only reads from Black Duck so it can run outside of the thread that updates the asset
+    public HostedMetaData fetchRepositoryMetaData(BlackDuckService blackDuckService, ProjectBomService projectBomService, String previousBomFingerprint, String blackDuckUrl, ProjectVersionView projectVersionView)
+        throws IntegrationException {
         logger.info("Checking policies.");
         Optional<ProjectVersionPolicyStatusView> policyStatusView = commonMetaDataProcessor.checkAssetPolicy(blackDuckService, projectVersionView);
+        Optional<VersionRiskProfileView> riskProfileView = commonMetaDataProcessor.getRiskProfile(blackDuckService, projectVersionView);
+        Optional<String> bomFingerprint = commonMetaDataProcessor.createBomFingerprint(riskProfileView, policyStatusView);
+        logger.info("Checking vulnerabilities.");
+        // the counts of the risk profile also follow new vulnerabilities in the KB, which change neither the BOM nor the policies
+        Optional<VulnerabilityLevels> vulnerableComponentCounts = commonMetaDataProcessor.getVulnerableComponentCounts(riskProfileView);
+        VulnerabilityLevels vulnerabilityLevels = null;
+        if (vulnerableComponentCounts.isPresent()) {
+            vulnerabilityLevels = vulnerableComponentCounts.get();
+        } else if (bomFingerprint.isPresent() && bomFingerprint.get().equals(previousBomFingerprint)) {
+            logger.info("The risk profile has no vulnerability counts and the BOM has not changed, keeping the vulnerabilities.");
+        } else {
+            logger.debug("The risk profile has no vulnerability counts, counting the BOM components.");
+            vulnerabilityLevels = countVulnerableComponents(projectBomService, projectVersionView);
+        }
+        return new HostedMetaData(policyStatusView.orElse(null), vulnerabilityLevels, bomFingerprint.orElse(null), blackDuckUrl);
+    }
+
+    public void applyRepositoryMetaData(AssetWrapper assetWrapper, HostedMetaData hostedMetaData) {
+        Optional<VulnerabilityLevels> vulnerabilityLevels = hostedMetaData.getVulnerabilityLevels();
+        if (vulnerabilityLevels.isPresent()) {
+            assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.VULNERABLE_COMPONENTS, vulnerabilityLevels.get().getAllCounts());
+            Optional<String> bomFingerprint = hostedMetaData.getBomFingerprint();
+            if (bomFingerprint.isPresent()) {
+                assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.BOM_FINGERPRINT, bomFingerprint.get());
+            } else {
+                assetWrapper.removeFromBlackDuckAssetPanel(AssetPanelLabel.BOM_FINGERPRINT);
+            }
+        }
+        Optional<ProjectVersionPolicyStatusView> policyStatusView = hostedMetaData.getPolicyStatusView();
         if (policyStatusView.isPresent()) {
             commonMetaDataProcessor.setAssetPolicyData(policyStatusView.get(), assetWrapper);
             assetWrapper.addSuccessToBlackDuckPanel("Scan results successfully retrieved from Black Duck.");
         } else {
             assetWrapper.addFailureToBlackDuckPanel("Could not get the policy information for this asset.");
         }
-        assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.BLACKDUCK_URL, blackDuckUrl);
-        assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.TASK_FINISHED_TIME, dateTimeParser.getCurrentDateTime());
+        assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.BLACKDUCK_URL, hostedMetaData.getBlackDuckUrl());
+        assetWrapper.addProcessedTimeToBlackDuckPanel(dateTimeParser.getCurrentEpochMillis());
         assetWrapper.updateAsset();
     }
 
+    // the stored fingerprint is only usable while the vulnerabilities it describes are still on the asset
+    public String getPreviousBomFingerprint(AssetWrapper assetWrapper) {
+        String vulnerableComponents = assetWrapper.getFromBlackDuckAssetPanel(AssetPanelLabel.VULNERABLE_COMPONENTS);
+        if (StringUtils.isBlank(vulnerableComponents)) {
+            return null;
+        }
+        return assetWrapper.getFromBlackDuckAssetPanel(AssetPanelLabel.BOM_FINGERPRINT);
+    }
+
+    private VulnerabilityLevels countVulnerableComponents(ProjectBomService projectBomService, ProjectVersionView projectVersionView) throws IntegrationException {
+        List<ProjectVersionComponentView> versionComponentViews = commonMetaDataProcessor.getBomComponents(projectBomService, projectVersionView);
+        VulnerabilityLevels vulnerabilityLevels = new VulnerabilityLevels();
+        for (ProjectVersionComponentView versionComponentView : versionComponentViews) {
+            List<ComponentVersionRiskProfileRiskDataCountsView> riskCounts = versionComponentView.getSecurityRiskProfile().getCounts();
+            commonMetaDataProcessor.addMaxAssetVulnerabilityCounts(riskCounts, vulnerabilityLevels);
+        }
+        return vulnerabilityLevels;
+    }
+
     public ProjectVersionView getOrCreateProjectVersion(BlackDuckService blackDuckService, ProjectService projectService, String repoName, String version) throws IntegrationException {
         return commonMetaDataProcessor.getOrCreateProjectVersion(blackDuckService, projectService, repoName, version);
     }
 
+    public void invalidateProjectVersion(String repoName, String version, IntegrationException exception) {
+        commonMetaDataProcessor.invalidateProjectVersion(repoName, version, exception);
+    }
+
     public String createCodeLocationName(String repoName, String name, String version) {
         return String.join("/", ScanTask.SCAN_CODE_LOCATION_NAME, repoName, name, version);
     }
@@ -42,6 +42,7 @@ import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationServi
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.ScanBatchRunner;
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.SignatureScannerService;
 import com.synopsys.integration.blackduck.configuration.BlackDuckServerConfig;
+import com.synopsys.integration.blackduck.nexus3.BlackDuckConnectionSnapshot;
 import com.synopsys.integration.blackduck.nexus3.database.QueryManager;
 import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
 import com.synopsys.integration.blackduck.nexus3.task.common.CommonRepositoryTaskHelper;
@@ -98,12 +99,14 @@ public class ScanTask extends RepositoryTaskSupport {
         BlackDuckService blackDuckService = null;
         ProjectService projectService = null;
         ProjectBomService projectBomService = null;
+        BlackDuckConnectionSnapshot blackDuckConnectionSnapshot = null;
         try {
-            blackDuckServerConfig = commonRepositoryTaskHelper.getBlackDuckServerConfig();
-            BlackDuckServicesFactory blackDuckServicesFactory = commonRepositoryTaskHelper.getBlackDuckServicesFactory();
+            blackDuckConnectionSnapshot = commonRepositoryTaskHelper.acquireBlackDuckConnection();
+            blackDuckServerConfig = blackDuckConnectionSnapshot.getBlackDuckServerConfig();
+            BlackDuckServicesFactory blackDuckServicesFactory = blackDuckConnectionSnapshot.getBlackDuckServicesFactory();
 
             IntEnvironmentVariables intEnvironmentVariables = new IntEnvironmentVariables();
-            BlackDuckHttpClient blackDuckHttpClient = blackDuckServerConfig.createBlackDuckHttpClient(blackDuckServicesFactory.getLogger());
+            BlackDuckHttpClient blackDuckHttpClient = blackDuckServicesFactory.getBlackDuckHttpClient();
 
             signatureScannerService = blackDuckServicesFactory.createSignatureScannerService(ScanBatchRunner.createDefault(blackDuckServicesFactory.getLogger(), blackDuckHttpClient, intEnvironmentVariables, new NoThreadExecutorService()));
             codeLocationCreationService = blackDuckServicesFactory.createCodeLocationCreationService();
@@ -115,37 +118,44 @@ public class ScanTask extends RepositoryTaskSupport {
             exceptionMessage = e.getMessage();
         }
 
-        File workingDirectory = commonRepositoryTaskHelper.getWorkingDirectory(taskConfiguration());
-        File workingBlackDuckDirectory = new File(workingDirectory, "blackduck");
-        File tempFileStorage = new File(workingBlackDuckDirectory, "temp");
-        File outputDirectory = new File(workingBlackDuckDirectory, "output");
         try {
-            Files.createDirectories(tempFileStorage.toPath());
-            Files.createDirectories(outputDirectory.toPath());
-        } catch (IOException e) {
-            logger.debug(e.getMessage(), e);
-            throw new TaskInterruptedException("Could not create directories to use with Scanner: " + e.getMessage(), true);
-        }
+            File workingDirectory = commonRepositoryTaskHelper.getWorkingDirectory(taskConfiguration());
+            File workingBlackDuckDirectory = new File(workingDirectory, "blackduck");
+            File tempFileStorage = new File(workingBlackDuckDirectory, "temp");
+            File outputDirectory = new File(workingBlackDuckDirectory, "output");
+            try {
+                Files.createDirectories(tempFileStorage.toPath());
+                Files.createDirectories(outputDirectory.toPath());
+            } catch (IOException e) {
+                logger.debug(e.getMessage(), e);
+                throw new TaskInterruptedException("Could not create directories to use with Scanner: " + e.getMessage(), true);
+            }
 
-        boolean alwaysScan = taskConfiguration().getBoolean(ScanTaskDescriptor.KEY_ALWAYS_CHECK, false);
-        boolean redoFailures = taskConfiguration().getBoolean(ScanTaskDescriptor.KEY_REDO_FAILURES, false);
-        for (Repository foundRepository : commonTaskFilters.findRelevantRepositories(repository)) {
-            if (commonTaskFilters.isHostedRepository(foundRepository.getType())) {
-                ScanConfiguration scanConfiguration;
-                if (StringUtils.isNotBlank(exceptionMessage)) {
-                    scanConfiguration = ScanConfiguration.createConfigurationWithError(exceptionMessage, repository, alwaysScan, redoFailures);
-                } else {
-                    scanConfiguration = ScanConfiguration.createConfiguration(repository, alwaysScan, redoFailures, blackDuckServerConfig, signatureScannerService, codeLocationCreationService, blackDuckService, projectService,
-                        projectBomService, workingBlackDuckDirectory, tempFileStorage, outputDirectory);
+            boolean alwaysScan = taskConfiguration().getBoolean(ScanTaskDescriptor.KEY_ALWAYS_CHECK, false);
+            boolean redoFailures = taskConfiguration().getBoolean(ScanTaskDescriptor.KEY_REDO_FAILURES, false);
+            for (Repository foundRepository : commonTaskFilters.findRelevantRepositories(repository)) {
+                if (commonTaskFilters.isHostedRepository(foundRepository.getType())) {
+                    ScanConfiguration scanConfiguration;
+                    if (StringUtils.isNotBlank(exceptionMessage)) {
+                        scanConfiguration = ScanConfiguration.createConfigurationWithError(exceptionMessage, repository, alwaysScan, redoFailures);
+                    } else {
+                        scanConfiguration = ScanConfiguration.createConfiguration(repository, alwaysScan, redoFailures, blackDuckServerConfig, signatureScannerService, codeLocationCreationService, blackDuckService, projectService,
+                            projectBomService, workingBlackDuckDirectory, tempFileStorage, outputDirectory);
+                    }
+                    RepositoryScanner repositoryScanner = new RepositoryScanner(queryManager, dateTimeParser, scanMetaDataProcessor, taskConfiguration(), commonRepositoryTaskHelper, commonTaskFilters, scanConfiguration);
+                    repositoryScanner.scanRepository();
                 }
-                RepositoryScanner repositoryScanner = new RepositoryScanner(queryManager, dateTimeParser, scanMetaDataProcessor, taskConfiguration(), commonRepositoryTaskHelper, commonTaskFilters, scanConfiguration);
-                repositoryScanner.scanRepository();
             }
-        }
-        if (phoneHomeResponse.isPresent()) {
-            commonRepositoryTaskHelper.endPhoneHome(phoneHomeResponse.get());
-        } else {
-            logger.debug("Could not phone home.");
+            if (phoneHomeResponse.isPresent()) {
+                commonRepositoryTaskHelper.endPhoneHome(phoneHomeResponse.get());
+            } else {
+                logger.debug("Could not phone home.");
+            }
+        } finally {
+            // the connection pool of a snapshot replaced while the task ran is shut down by the last task using it
+            if (null != blackDuckConnectionSnapshot) {
+                blackDuckConnectionSnapshot.release();
+            }
         }
     }
 
@@ -23,6 +23,8 @@
  */
 package com.synopsys.integration.blackduck.nexus3.ui;
 
+import java.util.Optional;
+
 import org.sonatype.nexus.common.collect.NestedAttributesMap;
 import org.sonatype.nexus.repository.storage.Asset;
 
@@ -39,6 +41,14 @@ public class AssetPanel {
         return (String) blackDuckNestedAttributes.get(label.getLabel());
     }
 
+    public Optional<Long> getNumberFromBlackDuckPanel(final AssetPanelLabel label) {
+        final Object value = blackDuckNestedAttributes.get(label.getLabel());
+        if (value instanceof Number) {
+            return Optional.of(((Number) value).longValue());
+        }
+        return Optional.empty();
+    }
+
     public void addToBlackDuckPanel(final AssetPanelLabel label, final Object value) {
         blackDuckNestedAttributes.set(label.getLabel(), value);
     }
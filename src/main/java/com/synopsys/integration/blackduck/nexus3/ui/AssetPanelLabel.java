@@ -30,11 +30,13 @@ public enum AssetPanelLabel {
     TASK_STATUS_DESCRIPTION("status_description"),
     BLACKDUCK_URL("blackduck_url"),
     TASK_FINISHED_TIME("processed_on"),
+    TASK_FINISHED_EPOCH("processed_on_epoch"),
     ASSET_ORIGIN_ID("origin_id"),
     OVERALL_POLICY_STATUS("policy_status_overall"),
     POLICY_STATUS("policy_status"),
     VULNERABILITIES("vulnerabilities"),
-    VULNERABLE_COMPONENTS("vulnerable_components");
+    VULNERABLE_COMPONENTS("vulnerable_components"),
+    BOM_FINGERPRINT("bom_fingerprint");
 
     private final String label;
 
@@ -0,0 +1,197 @@
+package com.synopsys.integration.blackduck.nexus3;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpServer;
+import com.synopsys.integration.blackduck.nexus3.capability.BlackDuckCapabilityConfigKeys;
+import com.synopsys.integration.blackduck.nexus3.capability.BlackDuckCapabilityConfiguration;
+import com.synopsys.integration.blackduck.nexus3.http.HttpConnectionPool;
+import com.synopsys.integration.blackduck.nexus3.http.HttpResponseCache;
+import com.synopsys.integration.blackduck.nexus3.task.common.BlackDuckCircuitBreaker;
+import com.synopsys.integration.blackduck.nexus3.task.common.BlackDuckRequestLimiter;
+
+public class BlackDuckConnectionTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void previousSnapshotDuringRebuildTest() throws Exception {
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch finishRebuild = new CountDownLatch(1);
+        BlockingBlackDuckConnection blackDuckConnection = new BlockingBlackDuckConnection(createHttpResponseCache(), rebuildStarted, finishRebuild);
+        BlackDuckConnectionSnapshot previousSnapshot = blackDuckConnection.getSnapshot();
+
+        blackDuckConnection.markForUpdate();
+        blackDuckConnection.blockNextRebuild();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<BlackDuckConnectionSnapshot> rebuiltSnapshot = executorService.submit(blackDuckConnection::getSnapshot);
+            Assert.assertTrue(rebuildStarted.await(10, TimeUnit.SECONDS));
+
+            // the other tasks do not wait for the rebuild
+            Assert.assertSame(previousSnapshot, blackDuckConnection.getSnapshot());
+
+            finishRebuild.countDown();
+            BlackDuckConnectionSnapshot updatedSnapshot = rebuiltSnapshot.get(10, TimeUnit.SECONDS);
+            Assert.assertNotSame(previousSnapshot, updatedSnapshot);
+            Assert.assertSame(updatedSnapshot, blackDuckConnection.getSnapshot());
+        } finally {
+            finishRebuild.countDown();
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void previousPoolUsableAfterRebuildTest() throws Exception {
+        HttpServer httpServer = createHttpServer();
+        try {
+            BlockingBlackDuckConnection blackDuckConnection = new BlockingBlackDuckConnection(createHttpResponseCache(), new CountDownLatch(1), new CountDownLatch(0));
+            BlackDuckConnectionSnapshot previousSnapshot = blackDuckConnection.acquireSnapshot();
+            HttpConnectionPool previousPool = previousSnapshot.getHttpConnectionPool();
+            String url = createUrl(httpServer);
+
+            // a task of the previous snapshot is still reading its response while the snapshot is replaced
+            CloseableHttpClient httpClient = createClient(previousPool);
+            CloseableHttpResponse response = httpClient.execute(new HttpGet(url));
+            Assert.assertEquals(1, previousPool.getLeasedConnections());
+
+            blackDuckConnection.markForUpdate();
+            Assert.assertNotSame(previousPool, blackDuckConnection.getSnapshot().getHttpConnectionPool());
+
+            Assert.assertEquals("{\"totalCount\":0}", EntityUtils.toString(response.getEntity()));
+            response.close();
+            httpClient.close();
+            Assert.assertEquals(0, previousPool.getLeasedConnections());
+            Assert.assertEquals(1, previousPool.getAvailableConnections());
+
+            // the task has not released the snapshot yet, so the pool leases the connection again
+            try (CloseableHttpClient nextClient = createClient(previousPool); CloseableHttpResponse nextResponse = nextClient.execute(new HttpGet(url))) {
+                Assert.assertEquals(200, nextResponse.getStatusLine().getStatusCode());
+                EntityUtils.consume(nextResponse.getEntity());
+            }
+
+            previousSnapshot.release();
+            assertPoolShutDown(previousPool, url);
+            Assert.assertFalse(previousSnapshot.acquire());
+        } finally {
+            httpServer.stop(0);
+        }
+    }
+
+    @Test
+    public void releasedPoolShutDownOnRebuildTest() throws Exception {
+        HttpServer httpServer = createHttpServer();
+        try {
+            BlockingBlackDuckConnection blackDuckConnection = new BlockingBlackDuckConnection(createHttpResponseCache(), new CountDownLatch(1), new CountDownLatch(0));
+            BlackDuckConnectionSnapshot previousSnapshot = blackDuckConnection.acquireSnapshot();
+            previousSnapshot.release();
+
+            // no task uses the previous snapshot anymore, so its pool is shut down as soon as it is replaced
+            blackDuckConnection.markForUpdate();
+            BlackDuckConnectionSnapshot updatedSnapshot = blackDuckConnection.acquireSnapshot();
+            Assert.assertNotSame(previousSnapshot, updatedSnapshot);
+            assertPoolShutDown(previousSnapshot.getHttpConnectionPool(), createUrl(httpServer));
+
+            try (CloseableHttpClient httpClient = createClient(updatedSnapshot.getHttpConnectionPool()); CloseableHttpResponse response = httpClient.execute(new HttpGet(createUrl(httpServer)))) {
+                Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+                EntityUtils.consume(response.getEntity());
+            }
+            updatedSnapshot.release();
+        } finally {
+            httpServer.stop(0);
+        }
+    }
+
+    private HttpServer createHttpServer() throws IOException {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/api/projects", exchange -> {
+            byte[] body = "{\"totalCount\":0}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        httpServer.start();
+        return httpServer;
+    }
+
+    private String createUrl(HttpServer httpServer) {
+        return String.format("http://localhost:%d/api/projects", httpServer.getAddress().getPort());
+    }
+
+    // a shut down pool refuses to lease a connection
+    private void assertPoolShutDown(HttpConnectionPool httpConnectionPool, String url) throws IOException {
+        try (CloseableHttpClient httpClient = createClient(httpConnectionPool)) {
+            httpClient.execute(new HttpGet(url)).close();
+            Assert.fail("Expected the connection pool to be shut down");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(0, httpConnectionPool.getLeasedConnections());
+        }
+    }
+
+    private HttpResponseCache createHttpResponseCache() {
+        return new HttpResponseCache(temporaryFolder.getRoot(), HttpResponseCache.MAXIMUM_CACHE_BYTES, HttpResponseCache.MAXIMUM_ENTRY_BYTES);
+    }
+
+    private CloseableHttpClient createClient(HttpConnectionPool httpConnectionPool) {
+        HttpClientBuilder clientBuilder = HttpClientBuilder.create();
+        httpConnectionPool.configure(clientBuilder);
+        return clientBuilder.build();
+    }
+
+    private static class BlockingBlackDuckConnection extends BlackDuckConnection {
+        private final CountDownLatch rebuildStarted;
+        private final CountDownLatch finishRebuild;
+        private volatile boolean blockRebuild;
+
+        public BlockingBlackDuckConnection(HttpResponseCache httpResponseCache, CountDownLatch rebuildStarted, CountDownLatch finishRebuild) {
+            super(null, httpResponseCache, new BlackDuckRequestLimiter(), new BlackDuckCircuitBreaker());
+            this.rebuildStarted = rebuildStarted;
+            this.finishRebuild = finishRebuild;
+        }
+
+        public void blockNextRebuild() {
+            blockRebuild = true;
+        }
+
+        @Override
+        protected BlackDuckCapabilityConfiguration retrieveBlackDuckCapabilityConfiguration() {
+            if (blockRebuild) {
+                blockRebuild = false;
+                rebuildStarted.countDown();
+                try {
+                    finishRebuild.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            Map<String, String> capabilitySettings = new HashMap<>();
+            capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_URL.getKey(), "https://blackduck.example.com");
+            capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_API_KEY.getKey(), "api-token");
+            capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_TRUST_CERT.getKey(), "true");
+            capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_TIMEOUT.getKey(), "120");
+            return new BlackDuckCapabilityConfiguration(capabilitySettings);
+        }
+    }
+
+}
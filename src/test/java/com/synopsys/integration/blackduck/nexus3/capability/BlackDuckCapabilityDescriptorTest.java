@@ -41,7 +41,7 @@ public class BlackDuckCapabilityDescriptorTest {
         final BlackDuckCapabilityDescriptor blackDuckCapabilityDescriptor = new BlackDuckCapabilityDescriptor();
         final List<FormField> formFields = blackDuckCapabilityDescriptor.formFields();
 
-        Assert.assertEquals(8, formFields.size());
+        Assert.assertEquals(9, formFields.size());
     }
 
     @Test
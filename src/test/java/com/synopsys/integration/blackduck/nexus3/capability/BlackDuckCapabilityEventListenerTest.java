@@ -0,0 +1,55 @@
+package com.synopsys.integration.blackduck.nexus3.capability;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.capability.CapabilityContext;
+import org.sonatype.nexus.capability.CapabilityEvent;
+import org.sonatype.nexus.capability.CapabilityReference;
+
+import com.synopsys.integration.blackduck.nexus3.BlackDuckConnection;
+
+public class BlackDuckCapabilityEventListenerTest extends TestSupport {
+
+    @Test
+    public void capabilityChangesUpdateConnectionTest() throws Exception {
+        final BlackDuckCapabilityFinder blackDuckCapabilityFinder = Mockito.mock(BlackDuckCapabilityFinder.class);
+        final BlackDuckConnection blackDuckConnection = Mockito.mock(BlackDuckConnection.class);
+        final CapabilityReference capabilityReference = createCapabilityReference();
+        Mockito.when(blackDuckCapabilityFinder.isBlackDuckCapability(capabilityReference)).thenReturn(true);
+
+        final BlackDuckCapabilityEventListener blackDuckCapabilityEventListener = new BlackDuckCapabilityEventListener(blackDuckCapabilityFinder, blackDuckConnection);
+        blackDuckCapabilityEventListener.on(new CapabilityEvent.Created(null, capabilityReference));
+        blackDuckCapabilityEventListener.on(new CapabilityEvent.AfterUpdate(null, capabilityReference, Collections.emptyMap(), Collections.emptyMap()));
+        blackDuckCapabilityEventListener.on(new CapabilityEvent.AfterRemove(null, capabilityReference));
+
+        Mockito.verify(blackDuckConnection, Mockito.times(2)).updateCapabilityConfiguration(Mockito.any(BlackDuckCapabilityConfiguration.class));
+        Mockito.verify(blackDuckConnection, Mockito.times(2)).getSnapshot();
+        Mockito.verify(blackDuckConnection).removeCapabilityConfiguration();
+    }
+
+    @Test
+    public void otherCapabilitiesIgnoredTest() throws Exception {
+        final BlackDuckCapabilityFinder blackDuckCapabilityFinder = Mockito.mock(BlackDuckCapabilityFinder.class);
+        final BlackDuckConnection blackDuckConnection = Mockito.mock(BlackDuckConnection.class);
+        final CapabilityReference capabilityReference = createCapabilityReference();
+        Mockito.when(blackDuckCapabilityFinder.isBlackDuckCapability(capabilityReference)).thenReturn(false);
+
+        final BlackDuckCapabilityEventListener blackDuckCapabilityEventListener = new BlackDuckCapabilityEventListener(blackDuckCapabilityFinder, blackDuckConnection);
+        blackDuckCapabilityEventListener.on(new CapabilityEvent.Created(null, capabilityReference));
+        blackDuckCapabilityEventListener.on(new CapabilityEvent.AfterRemove(null, capabilityReference));
+
+        Mockito.verifyZeroInteractions(blackDuckConnection);
+    }
+
+    private CapabilityReference createCapabilityReference() {
+        final CapabilityContext capabilityContext = Mockito.mock(CapabilityContext.class);
+        Mockito.when(capabilityContext.properties()).thenReturn(Collections.emptyMap());
+        final CapabilityReference capabilityReference = Mockito.mock(CapabilityReference.class);
+        Mockito.when(capabilityReference.context()).thenReturn(capabilityContext);
+        return capabilityReference;
+    }
+
+}
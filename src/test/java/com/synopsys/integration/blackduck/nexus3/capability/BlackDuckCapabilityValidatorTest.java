@@ -120,6 +120,27 @@ public class BlackDuckCapabilityValidatorTest {
         Assert.assertEquals("Proxy Password: The proxy password not specified.", proxyPasswordError);
     }
 
+    @Test
+    public void badMaxConnectionsDataTest() {
+        final Map<String, String> capabilitySettings = new HashMap<>();
+
+        capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_URL.getKey(), "http://google.com");
+        capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_TIMEOUT.getKey(), "300");
+        capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_API_KEY.getKey(), "apiKey");
+        capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_MAX_CONNECTIONS_PER_ROUTE.getKey(), "0");
+
+        final List<String> maxConnectionsErrors = failedValidation(capabilitySettings);
+        Assert.assertEquals(1, maxConnectionsErrors.size());
+        Assert.assertEquals("Maximum Connections: The maximum connections must be greater than 0.", maxConnectionsErrors.get(0));
+
+        final String notANumber = "notanumber";
+        capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_MAX_CONNECTIONS_PER_ROUTE.getKey(), notANumber);
+
+        final List<String> maxConnectionsNotNumberErrors = failedValidation(capabilitySettings);
+        Assert.assertEquals(1, maxConnectionsNotNumberErrors.size());
+        Assert.assertEquals(String.format("Maximum Connections: The String : %s, is not an Integer.", notANumber), maxConnectionsNotNumberErrors.get(0));
+    }
+
     private List<String> parseErrors(final String exceptionMessage) {
         final String[] errorMessages = exceptionMessage.split("  ");
         return Arrays.asList(errorMessages);
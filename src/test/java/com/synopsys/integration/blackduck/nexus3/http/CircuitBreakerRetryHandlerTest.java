@@ -0,0 +1,32 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.net.ConnectException;
+
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.nexus3.task.common.BlackDuckCircuitBreaker;
+
+public class CircuitBreakerRetryHandlerTest {
+
+    @Test
+    public void connectionFailuresOpenCircuitTest() {
+        BlackDuckCircuitBreaker blackDuckCircuitBreaker = new BlackDuckCircuitBreaker(2, 1000, System::currentTimeMillis);
+        CircuitBreakerRetryHandler retryHandler = new CircuitBreakerRetryHandler(blackDuckCircuitBreaker, (exception, executionCount, context) -> true);
+
+        Assert.assertTrue(retryHandler.retryRequest(new ConnectException("refused"), 1, new BasicHttpContext()));
+        Assert.assertFalse(retryHandler.retryRequest(new ConnectException("refused"), 2, new BasicHttpContext()));
+        Assert.assertFalse(blackDuckCircuitBreaker.allowsRequests());
+    }
+
+    @Test
+    public void rejectedRequestNotRetriedTest() {
+        BlackDuckCircuitBreaker blackDuckCircuitBreaker = new BlackDuckCircuitBreaker();
+        CircuitBreakerRetryHandler retryHandler = new CircuitBreakerRetryHandler(blackDuckCircuitBreaker, (exception, executionCount, context) -> true);
+
+        Assert.assertFalse(retryHandler.retryRequest(new BlackDuckUnavailableException("open"), 1, new BasicHttpContext()));
+        Assert.assertTrue(blackDuckCircuitBreaker.allowsRequests());
+    }
+
+}
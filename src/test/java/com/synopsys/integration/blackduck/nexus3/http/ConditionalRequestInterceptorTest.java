@@ -0,0 +1,198 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ConditionalRequestInterceptorTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void notModifiedServedFromCacheTest() throws IOException {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 512);
+        ConditionalRequestInterceptor conditionalRequestInterceptor = new ConditionalRequestInterceptor(httpResponseCache);
+
+        HttpContext firstContext = createContext();
+        conditionalRequestInterceptor.process(new BasicHttpRequest("GET", "/api/projects"), firstContext);
+        BasicHttpResponse okResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        okResponse.addHeader(HttpHeaders.ETAG, "\"etag-1\"");
+        okResponse.setEntity(new StringEntity("{\"totalCount\":1}", ContentType.APPLICATION_JSON));
+        conditionalRequestInterceptor.process(okResponse, firstContext);
+
+        Assert.assertEquals("{\"totalCount\":1}", EntityUtils.toString(okResponse.getEntity()));
+        Assert.assertEquals(1, httpResponseCache.size());
+
+        HttpContext secondContext = createContext();
+        BasicHttpRequest conditionalRequest = new BasicHttpRequest("GET", "/api/projects");
+        conditionalRequestInterceptor.process(conditionalRequest, secondContext);
+
+        Assert.assertEquals("\"etag-1\"", conditionalRequest.getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+
+        BasicHttpResponse notModifiedResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_NOT_MODIFIED, "Not Modified");
+        conditionalRequestInterceptor.process(notModifiedResponse, secondContext);
+
+        Assert.assertEquals(HttpStatus.SC_OK, notModifiedResponse.getStatusLine().getStatusCode());
+        Assert.assertEquals("{\"totalCount\":1}", EntityUtils.toString(notModifiedResponse.getEntity()));
+    }
+
+    @Test
+    public void retriedConditionalRequestServedFromCacheTest() throws IOException {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 512);
+        ConditionalRequestInterceptor conditionalRequestInterceptor = new ConditionalRequestInterceptor(httpResponseCache);
+        httpResponseCache.put("https://blackduck/api/projects", "\"etag-1\"", null, "application/json", "{\"totalCount\":1}".getBytes(StandardCharsets.UTF_8));
+
+        HttpContext context = createContext();
+        BasicHttpRequest conditionalRequest = new BasicHttpRequest("GET", "/api/projects");
+        conditionalRequestInterceptor.process(conditionalRequest, context);
+        // a retry runs the interceptors again with the same request and context
+        conditionalRequestInterceptor.process(conditionalRequest, context);
+
+        Assert.assertEquals(1, conditionalRequest.getHeaders(HttpHeaders.IF_NONE_MATCH).length);
+
+        BasicHttpResponse notModifiedResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_NOT_MODIFIED, "Not Modified");
+        conditionalRequestInterceptor.process(notModifiedResponse, context);
+
+        Assert.assertEquals(HttpStatus.SC_OK, notModifiedResponse.getStatusLine().getStatusCode());
+        Assert.assertEquals("{\"totalCount\":1}", EntityUtils.toString(notModifiedResponse.getEntity()));
+    }
+
+    @Test
+    public void callerConditionalRequestNotAnsweredFromCacheTest() throws IOException {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 512);
+        ConditionalRequestInterceptor conditionalRequestInterceptor = new ConditionalRequestInterceptor(httpResponseCache);
+        httpResponseCache.put("https://blackduck/api/projects", "\"etag-1\"", null, "application/json", "{\"totalCount\":1}".getBytes(StandardCharsets.UTF_8));
+
+        HttpContext context = createContext();
+        BasicHttpRequest conditionalRequest = new BasicHttpRequest("GET", "/api/projects");
+        conditionalRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"etag-0\"");
+        conditionalRequestInterceptor.process(conditionalRequest, context);
+        conditionalRequestInterceptor.process(conditionalRequest, context);
+
+        Assert.assertEquals("\"etag-0\"", conditionalRequest.getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+        Assert.assertEquals(1, conditionalRequest.getHeaders(HttpHeaders.IF_NONE_MATCH).length);
+
+        // the caller asked for the 304 itself
+        BasicHttpResponse notModifiedResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_NOT_MODIFIED, "Not Modified");
+        conditionalRequestInterceptor.process(notModifiedResponse, context);
+
+        Assert.assertEquals(HttpStatus.SC_NOT_MODIFIED, notModifiedResponse.getStatusLine().getStatusCode());
+    }
+
+    @Test
+    public void responseWithoutValidatorNotCachedTest() throws IOException {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 512);
+        ConditionalRequestInterceptor conditionalRequestInterceptor = new ConditionalRequestInterceptor(httpResponseCache);
+
+        HttpContext context = createContext();
+        conditionalRequestInterceptor.process(new BasicHttpRequest("GET", "/api/projects"), context);
+        BasicHttpResponse okResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        okResponse.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+        conditionalRequestInterceptor.process(okResponse, context);
+
+        Assert.assertEquals(0, httpResponseCache.size());
+    }
+
+    @Test
+    public void postNotCachedTest() throws IOException {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 512);
+        ConditionalRequestInterceptor conditionalRequestInterceptor = new ConditionalRequestInterceptor(httpResponseCache);
+
+        HttpContext context = createContext();
+        conditionalRequestInterceptor.process(new BasicHttpRequest("POST", "/api/projects"), context);
+        BasicHttpResponse okResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        okResponse.addHeader(HttpHeaders.ETAG, "\"etag-1\"");
+        okResponse.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+        conditionalRequestInterceptor.process(okResponse, context);
+
+        Assert.assertEquals(0, httpResponseCache.size());
+    }
+
+    @Test
+    public void downloadNotCachedTest() throws IOException {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 512);
+        ConditionalRequestInterceptor conditionalRequestInterceptor = new ConditionalRequestInterceptor(httpResponseCache);
+
+        HttpContext context = createContext();
+        conditionalRequestInterceptor.process(new BasicHttpRequest("GET", "/download/scan.cli.zip"), context);
+        BasicHttpResponse okResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        okResponse.addHeader(HttpHeaders.ETAG, "\"etag-1\"");
+        okResponse.setEntity(new StringEntity("zip", ContentType.APPLICATION_OCTET_STREAM));
+        conditionalRequestInterceptor.process(okResponse, context);
+
+        Assert.assertEquals(0, httpResponseCache.size());
+    }
+
+    @Test
+    public void largeChunkedResponseNotBufferedTest() throws IOException {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 512);
+        ConditionalRequestInterceptor conditionalRequestInterceptor = new ConditionalRequestInterceptor(httpResponseCache);
+        String largeBody = "{\"items\":\"" + StringUtils.repeat('a', 10000) + "\"}";
+        ReadCountingInputStream content = new ReadCountingInputStream(largeBody.getBytes(StandardCharsets.UTF_8));
+
+        HttpContext context = createContext();
+        conditionalRequestInterceptor.process(new BasicHttpRequest("GET", "/api/projects"), context);
+        BasicHttpResponse okResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        okResponse.addHeader(HttpHeaders.ETAG, "\"etag-1\"");
+        // a chunked response does not tell its length up front
+        okResponse.setEntity(new InputStreamEntity(content, -1, ContentType.APPLICATION_JSON));
+        conditionalRequestInterceptor.process(okResponse, context);
+
+        // only a little more than the maximum entry size was read before the body was passed on
+        Assert.assertTrue(content.getBytesRead() < 512 + 8192);
+        Assert.assertEquals(0, httpResponseCache.size());
+        Assert.assertEquals(largeBody, EntityUtils.toString(okResponse.getEntity()));
+    }
+
+    @Test
+    public void smallChunkedResponseCachedTest() throws IOException {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 512);
+        ConditionalRequestInterceptor conditionalRequestInterceptor = new ConditionalRequestInterceptor(httpResponseCache);
+
+        HttpContext context = createContext();
+        conditionalRequestInterceptor.process(new BasicHttpRequest("GET", "/api/projects"), context);
+        BasicHttpResponse okResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        okResponse.addHeader(HttpHeaders.ETAG, "\"etag-1\"");
+        okResponse.setEntity(new InputStreamEntity(new ByteArrayInputStream("{\"totalCount\":1}".getBytes(StandardCharsets.UTF_8)), -1, ContentType.APPLICATION_JSON));
+        conditionalRequestInterceptor.process(okResponse, context);
+
+        Assert.assertEquals(1, httpResponseCache.size());
+        Assert.assertEquals("{\"totalCount\":1}", EntityUtils.toString(okResponse.getEntity()));
+    }
+
+    private HttpContext createContext() {
+        HttpContext context = new BasicHttpContext();
+        context.setAttribute(HttpCoreContext.HTTP_TARGET_HOST, HttpHost.create("https://blackduck"));
+        return context;
+    }
+
+    private static class ReadCountingInputStream extends ByteArrayInputStream {
+        public ReadCountingInputStream(byte[] content) {
+            super(content);
+        }
+
+        public int getBytesRead() {
+            return pos;
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.io.IOException;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+public class HttpConnectionPoolTest {
+
+    @Test
+    public void closingClientKeepsPoolOpenTest() throws IntegrationException, IOException {
+        try (HttpConnectionPool httpConnectionPool = new HttpConnectionPool(true, 4)) {
+            HttpClientBuilder clientBuilder = HttpClientBuilder.create();
+            httpConnectionPool.configure(clientBuilder);
+
+            CloseableHttpClient firstClient = clientBuilder.build();
+            firstClient.close();
+            CloseableHttpClient secondClient = clientBuilder.build();
+            secondClient.close();
+
+            Assert.assertEquals(4, httpConnectionPool.getMaxConnectionsPerRoute());
+            Assert.assertEquals(0, httpConnectionPool.getLeasedConnections());
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HttpResponseCacheTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void putAndReadTest() {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 512);
+        httpResponseCache.put("https://blackduck/api/projects", "\"etag-1\"", null, "application/json", "{\"totalCount\":0}".getBytes(StandardCharsets.UTF_8));
+
+        Optional<HttpResponseCache.CachedResponse> cachedResponse = httpResponseCache.get("https://blackduck/api/projects");
+
+        Assert.assertTrue(cachedResponse.isPresent());
+        Assert.assertEquals("\"etag-1\"", cachedResponse.get().getEtag().orElse(null));
+        Assert.assertFalse(cachedResponse.get().getLastModified().isPresent());
+        Assert.assertEquals("{\"totalCount\":0}", new String(httpResponseCache.readBody(cachedResponse.get()).get(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void leastRecentlyUsedEvictionTest() {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 10, 10);
+        httpResponseCache.put("first", "1", null, null, new byte[4]);
+        httpResponseCache.put("second", "2", null, null, new byte[4]);
+        httpResponseCache.get("first");
+        httpResponseCache.put("third", "3", null, null, new byte[4]);
+
+        Assert.assertTrue(httpResponseCache.get("first").isPresent());
+        Assert.assertFalse(httpResponseCache.get("second").isPresent());
+        Assert.assertTrue(httpResponseCache.get("third").isPresent());
+        Assert.assertEquals(8, httpResponseCache.getTotalBytes());
+    }
+
+    @Test
+    public void entryTooLargeTest() {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 4);
+        httpResponseCache.put("large", "1", null, null, new byte[5]);
+
+        Assert.assertEquals(0, httpResponseCache.size());
+    }
+
+    @Test
+    public void reloadFromDiskTest() {
+        HttpResponseCache httpResponseCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 512);
+        httpResponseCache.put("https://blackduck/api/projects", null, "Tue, 01 Dec 2020 10:00:00 GMT", "application/json", new byte[3]);
+
+        HttpResponseCache reloadedCache = new HttpResponseCache(temporaryFolder.getRoot(), 1024, 512);
+        Optional<HttpResponseCache.CachedResponse> cachedResponse = reloadedCache.get("https://blackduck/api/projects");
+
+        Assert.assertTrue(cachedResponse.isPresent());
+        Assert.assertEquals("Tue, 01 Dec 2020 10:00:00 GMT", cachedResponse.get().getLastModified().orElse(null));
+        Assert.assertEquals(3, reloadedCache.getTotalBytes());
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.synopsys.integration.blackduck.nexus3.http;
+
+import java.util.Date;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OverloadRetryStrategyTest {
+
+    @Test
+    public void retriesOverloadedResponsesTest() {
+        OverloadRetryStrategy overloadRetryStrategy = new OverloadRetryStrategy(3, 100);
+
+        BasicHttpResponse tooManyRequests = new BasicHttpResponse(HttpVersion.HTTP_1_1, ServerOverload.TOO_MANY_REQUESTS, "Too Many Requests");
+        Assert.assertTrue(overloadRetryStrategy.retryRequest(tooManyRequests, 1, new BasicHttpContext()));
+        long firstInterval = overloadRetryStrategy.getRetryInterval();
+        Assert.assertTrue(firstInterval >= 0 && firstInterval <= 100);
+
+        Assert.assertTrue(overloadRetryStrategy.retryRequest(tooManyRequests, 3, new BasicHttpContext()));
+        long thirdInterval = overloadRetryStrategy.getRetryInterval();
+        Assert.assertTrue(thirdInterval >= 0 && thirdInterval <= 400);
+
+        Assert.assertFalse(overloadRetryStrategy.retryRequest(tooManyRequests, 4, new BasicHttpContext()));
+    }
+
+    @Test
+    public void otherResponsesNotRetriedTest() {
+        OverloadRetryStrategy overloadRetryStrategy = new OverloadRetryStrategy(3, 100);
+
+        Assert.assertFalse(overloadRetryStrategy.retryRequest(new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK"), 1, new BasicHttpContext()));
+        Assert.assertFalse(overloadRetryStrategy.retryRequest(new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_INTERNAL_SERVER_ERROR, "Internal Server Error"), 1, new BasicHttpContext()));
+    }
+
+    @Test
+    public void retryAfterRespectedTest() {
+        OverloadRetryStrategy overloadRetryStrategy = new OverloadRetryStrategy(3, 100);
+
+        BasicHttpResponse serviceUnavailable = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_SERVICE_UNAVAILABLE, "Service Unavailable");
+        serviceUnavailable.addHeader(HttpHeaders.RETRY_AFTER, "2");
+
+        Assert.assertEquals(2000, ServerOverload.getRetryAfterMillis(serviceUnavailable));
+        Assert.assertTrue(overloadRetryStrategy.retryRequest(serviceUnavailable, 1, new BasicHttpContext()));
+        Assert.assertEquals(2000, overloadRetryStrategy.getRetryInterval());
+    }
+
+    @Test
+    public void retryAfterDateParsedTest() {
+        BasicHttpResponse serviceUnavailable = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_SERVICE_UNAVAILABLE, "Service Unavailable");
+        serviceUnavailable.addHeader(HttpHeaders.RETRY_AFTER, DateUtils.formatDate(new Date(System.currentTimeMillis() + 60000)));
+
+        long retryAfterMillis = ServerOverload.getRetryAfterMillis(serviceUnavailable);
+        Assert.assertTrue(retryAfterMillis > 55000 && retryAfterMillis <= 60000);
+
+        serviceUnavailable.setHeader(HttpHeaders.RETRY_AFTER, "soon");
+        Assert.assertEquals(0, ServerOverload.getRetryAfterMillis(serviceUnavailable));
+    }
+
+}
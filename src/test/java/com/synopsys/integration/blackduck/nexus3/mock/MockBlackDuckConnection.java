@@ -1,37 +1,34 @@
 package com.synopsys.integration.blackduck.nexus3.mock;
 
-import com.synopsys.integration.blackduck.configuration.BlackDuckServerConfig;
-import com.synopsys.integration.blackduck.configuration.BlackDuckServerConfigBuilder;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
 import com.synopsys.integration.blackduck.nexus3.BlackDuckConnection;
-import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.blackduck.nexus3.capability.BlackDuckCapabilityConfigKeys;
+import com.synopsys.integration.blackduck.nexus3.capability.BlackDuckCapabilityConfiguration;
+import com.synopsys.integration.blackduck.nexus3.http.HttpResponseCache;
+import com.synopsys.integration.blackduck.nexus3.task.common.BlackDuckCircuitBreaker;
+import com.synopsys.integration.blackduck.nexus3.task.common.BlackDuckRequestLimiter;
 import com.synopsys.integration.test.TestProperties;
 import com.synopsys.integration.test.TestPropertyKey;
 
 public class MockBlackDuckConnection extends BlackDuckConnection {
 
     public MockBlackDuckConnection() {
-        super(null);
+        super(null, new HttpResponseCache(new File(System.getProperty("java.io.tmpdir"), "blackduck-http-cache"), HttpResponseCache.MAXIMUM_CACHE_BYTES, HttpResponseCache.MAXIMUM_ENTRY_BYTES),
+            new BlackDuckRequestLimiter(), new BlackDuckCircuitBreaker());
     }
 
     @Override
-    public BlackDuckServerConfig getBlackDuckServerConfig() throws IntegrationException {
-        final BlackDuckServerConfig blackDuckServerConfig = createHubServerConfig();
-        setHubServerConfig(blackDuckServerConfig);
-        return createHubServerConfig();
-    }
-
-    private BlackDuckServerConfig createHubServerConfig() {
+    protected BlackDuckCapabilityConfiguration retrieveBlackDuckCapabilityConfiguration() {
         final TestProperties testProperties = new TestProperties();
-        final String blackDuckUrl = testProperties.getProperty(TestPropertyKey.TEST_HUB_SERVER_URL);
-        final String apiKey = testProperties.getProperty(TestPropertyKey.TEST_HUB_API_KEY);
-        final boolean trustCert = Boolean.parseBoolean(testProperties.getProperty(TestPropertyKey.TEST_TRUST_HTTPS_CERT));
-        final int timeout = Integer.parseInt(testProperties.getProperty(TestPropertyKey.TEST_HUB_TIMEOUT));
-
-        final BlackDuckServerConfigBuilder blackDuckServerConfigBuilder = new BlackDuckServerConfigBuilder();
-        blackDuckServerConfigBuilder.setUrl(blackDuckUrl);
-        blackDuckServerConfigBuilder.setTimeout(timeout);
-        blackDuckServerConfigBuilder.setTrustCert(trustCert);
-        blackDuckServerConfigBuilder.setApiToken(apiKey);
-        return blackDuckServerConfigBuilder.build();
+        final Map<String, String> capabilitySettings = new HashMap<>();
+        capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_URL.getKey(), testProperties.getProperty(TestPropertyKey.TEST_HUB_SERVER_URL));
+        capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_API_KEY.getKey(), testProperties.getProperty(TestPropertyKey.TEST_HUB_API_KEY));
+        capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_TRUST_CERT.getKey(), testProperties.getProperty(TestPropertyKey.TEST_TRUST_HTTPS_CERT));
+        capabilitySettings.put(BlackDuckCapabilityConfigKeys.BLACKDUCK_TIMEOUT.getKey(), testProperties.getProperty(TestPropertyKey.TEST_HUB_TIMEOUT));
+        return new BlackDuckCapabilityConfiguration(capabilitySettings);
     }
+
 }
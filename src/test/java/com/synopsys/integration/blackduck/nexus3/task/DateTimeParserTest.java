@@ -1,5 +1,7 @@
 package com.synopsys.integration.blackduck.nexus3.task;
 
+import java.util.Optional;
+
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
@@ -54,6 +56,30 @@ public class DateTimeParserTest {
         Assert.assertEquals("2001-01-02T03:09:08.777", convertedString);
     }
 
+    @Test
+    public void epochMillisRoundTripTest() {
+        final DateTimeParser dateTimeParser = new DateTimeParser();
+        final DateTime testValue = generateSpecificDate();
+
+        final String convertedString = dateTimeParser.convertFromEpochMillisToString(testValue.getMillis());
+
+        Assert.assertEquals("2001-01-02T03:09:08.777", convertedString);
+        Assert.assertEquals(Optional.of(testValue.getMillis()), dateTimeParser.convertFromStringToEpochMillis(convertedString));
+        Assert.assertFalse(dateTimeParser.convertFromStringToEpochMillis(" ").isPresent());
+    }
+
+    @Test
+    public void currentDateTimeMatchesEpochTest() {
+        final DateTimeParser dateTimeParser = new DateTimeParser();
+
+        final long firstMark = dateTimeParser.getCurrentEpochMillis();
+        final long testedMark = dateTimeParser.convertFromStringToEpochMillis(dateTimeParser.getCurrentDateTime()).get();
+        final long secondMark = dateTimeParser.getCurrentEpochMillis();
+
+        Assert.assertTrue(testedMark >= firstMark);
+        Assert.assertTrue(testedMark <= secondMark);
+    }
+
     //    @Test
     // TODO clean up date parsing to make it more consistent through out.
     public void convertFromStringToDateTest() {
@@ -0,0 +1,92 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+public class BlackDuckCircuitBreakerTest {
+    private static final long OPEN_MILLIS = 1000;
+
+    private final AtomicLong clock = new AtomicLong(0);
+    private final BlackDuckCircuitBreaker blackDuckCircuitBreaker = new BlackDuckCircuitBreaker(3, OPEN_MILLIS, clock::get);
+
+    @Test
+    public void opensAfterThresholdTest() {
+        blackDuckCircuitBreaker.recordFailure();
+        blackDuckCircuitBreaker.recordFailure();
+        Assert.assertTrue(blackDuckCircuitBreaker.tryAcquire());
+
+        blackDuckCircuitBreaker.recordFailure();
+        Assert.assertFalse(blackDuckCircuitBreaker.allowsRequests());
+        Assert.assertFalse(blackDuckCircuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void successResetsFailuresTest() {
+        blackDuckCircuitBreaker.recordFailure();
+        blackDuckCircuitBreaker.recordFailure();
+        blackDuckCircuitBreaker.recordSuccess();
+        blackDuckCircuitBreaker.recordFailure();
+        blackDuckCircuitBreaker.recordFailure();
+
+        Assert.assertTrue(blackDuckCircuitBreaker.allowsRequests());
+    }
+
+    @Test
+    public void singleProbeAfterOpenTimeTest() {
+        openCircuit();
+        clock.addAndGet(OPEN_MILLIS);
+
+        Assert.assertTrue(blackDuckCircuitBreaker.allowsRequests());
+        Assert.assertTrue(blackDuckCircuitBreaker.tryAcquire());
+        Assert.assertFalse(blackDuckCircuitBreaker.tryAcquire());
+
+        blackDuckCircuitBreaker.recordSuccess();
+        Assert.assertTrue(blackDuckCircuitBreaker.tryAcquire());
+        Assert.assertTrue(blackDuckCircuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void failedProbeOpensAgainTest() {
+        openCircuit();
+        clock.addAndGet(OPEN_MILLIS);
+        Assert.assertTrue(blackDuckCircuitBreaker.tryAcquire());
+
+        blackDuckCircuitBreaker.recordFailure();
+        Assert.assertFalse(blackDuckCircuitBreaker.tryAcquire());
+
+        clock.addAndGet(OPEN_MILLIS);
+        Assert.assertTrue(blackDuckCircuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void lostProbeIsReplacedTest() {
+        openCircuit();
+        clock.addAndGet(OPEN_MILLIS);
+        Assert.assertTrue(blackDuckCircuitBreaker.tryAcquire());
+        Assert.assertFalse(blackDuckCircuitBreaker.allowsRequests());
+
+        clock.addAndGet(OPEN_MILLIS);
+        Assert.assertTrue(blackDuckCircuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void isConnectionFailureTest() {
+        Assert.assertTrue(BlackDuckCircuitBreaker.isConnectionFailure(new ConnectException("refused")));
+        Assert.assertTrue(BlackDuckCircuitBreaker.isConnectionFailure(new IntegrationException("wrapped", new SocketTimeoutException("timed out"))));
+        Assert.assertFalse(BlackDuckCircuitBreaker.isConnectionFailure(new IntegrationException("Bad Request")));
+        Assert.assertFalse(BlackDuckCircuitBreaker.isConnectionFailure(null));
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            blackDuckCircuitBreaker.recordFailure();
+        }
+    }
+
+}
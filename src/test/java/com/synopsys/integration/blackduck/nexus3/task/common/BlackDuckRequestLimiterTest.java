@@ -0,0 +1,80 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlackDuckRequestLimiterTest {
+
+    @Test
+    public void releaseReturnsPermitTest() throws InterruptedException {
+        BlackDuckRequestLimiter blackDuckRequestLimiter = new BlackDuckRequestLimiter(1, 2);
+
+        blackDuckRequestLimiter.acquire();
+        Assert.assertEquals(1, blackDuckRequestLimiter.getAvailablePermits());
+        blackDuckRequestLimiter.releaseSucceeded();
+        Assert.assertEquals(2, blackDuckRequestLimiter.getAvailablePermits());
+
+        blackDuckRequestLimiter.acquire();
+        blackDuckRequestLimiter.releaseFailed();
+        Assert.assertEquals(2, blackDuckRequestLimiter.getAvailablePermits());
+    }
+
+    @Test
+    public void overloadHalvesLimitOnceTest() throws InterruptedException {
+        BlackDuckRequestLimiter blackDuckRequestLimiter = new BlackDuckRequestLimiter(1, 8);
+
+        long firstGeneration = blackDuckRequestLimiter.acquire();
+        long secondGeneration = blackDuckRequestLimiter.acquire();
+        blackDuckRequestLimiter.releaseOverloaded(firstGeneration, 0);
+        blackDuckRequestLimiter.releaseOverloaded(secondGeneration, 0);
+
+        Assert.assertEquals(4, blackDuckRequestLimiter.getLimit());
+
+        long thirdGeneration = blackDuckRequestLimiter.acquire();
+        blackDuckRequestLimiter.releaseOverloaded(thirdGeneration, 0);
+        Assert.assertEquals(2, blackDuckRequestLimiter.getLimit());
+    }
+
+    @Test
+    public void limitStaysWithinBoundsTest() throws InterruptedException {
+        BlackDuckRequestLimiter blackDuckRequestLimiter = new BlackDuckRequestLimiter(2, 4);
+
+        for (int i = 0; i < 5; i++) {
+            blackDuckRequestLimiter.releaseOverloaded(blackDuckRequestLimiter.acquire(), 0);
+        }
+        Assert.assertEquals(2, blackDuckRequestLimiter.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            blackDuckRequestLimiter.acquire();
+            blackDuckRequestLimiter.releaseSucceeded();
+        }
+        Assert.assertEquals(4, blackDuckRequestLimiter.getLimit());
+    }
+
+    @Test
+    public void successesRaiseLimitGraduallyTest() throws InterruptedException {
+        BlackDuckRequestLimiter blackDuckRequestLimiter = new BlackDuckRequestLimiter(1, 16);
+        blackDuckRequestLimiter.releaseOverloaded(blackDuckRequestLimiter.acquire(), 0);
+        Assert.assertEquals(8, blackDuckRequestLimiter.getLimit());
+
+        // about one more permit for every limit worth of successful requests
+        for (int i = 0; i < 9; i++) {
+            blackDuckRequestLimiter.acquire();
+            blackDuckRequestLimiter.releaseSucceeded();
+        }
+
+        Assert.assertEquals(9, blackDuckRequestLimiter.getLimit());
+    }
+
+    @Test
+    public void retryAfterPausesRequestsTest() throws InterruptedException {
+        BlackDuckRequestLimiter blackDuckRequestLimiter = new BlackDuckRequestLimiter(1, 4);
+        blackDuckRequestLimiter.releaseOverloaded(blackDuckRequestLimiter.acquire(), 200);
+
+        long start = System.currentTimeMillis();
+        blackDuckRequestLimiter.acquire();
+
+        Assert.assertTrue(System.currentTimeMillis() - start >= 150);
+    }
+
+}
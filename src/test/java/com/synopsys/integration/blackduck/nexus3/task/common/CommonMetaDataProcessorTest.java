@@ -3,9 +3,11 @@ package com.synopsys.integration.blackduck.nexus3.task.common;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Assert;
@@ -17,6 +19,7 @@ import com.synopsys.integration.blackduck.api.generated.enumeration.PolicyStatus
 import com.synopsys.integration.blackduck.api.generated.enumeration.PolicySummaryStatusType;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionPolicyStatusView;
 import com.synopsys.integration.blackduck.api.manual.throwaway.generated.component.NameValuePairView;
+import com.synopsys.integration.blackduck.api.manual.throwaway.generated.response.VersionRiskProfileView;
 import com.synopsys.integration.blackduck.nexus3.mock.model.MockAsset;
 import com.synopsys.integration.blackduck.nexus3.task.AssetWrapper;
 import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
@@ -480,4 +483,32 @@ public class CommonMetaDataProcessorTest {
         return versionBomPolicyStatusView;
     }
 
+    @Test
+    public void createBomFingerprintTest() {
+        CommonMetaDataProcessor commonMetaDataProcessor = new CommonMetaDataProcessor();
+        VersionRiskProfileView riskProfileView = new VersionRiskProfileView();
+        riskProfileView.setBomLastUpdatedAt(new Date(1000L));
+        ProjectVersionPolicyStatusView policyStatusView = new ProjectVersionPolicyStatusView();
+        policyStatusView.setUpdatedAt(new Date(2000L));
+
+        Optional<String> bomFingerprint = commonMetaDataProcessor.createBomFingerprint(Optional.of(riskProfileView), Optional.of(policyStatusView));
+        Optional<String> missingPolicy = commonMetaDataProcessor.createBomFingerprint(Optional.of(riskProfileView), Optional.empty());
+
+        Assert.assertEquals("1000:2000", bomFingerprint.orElse(null));
+        Assert.assertFalse(missingPolicy.isPresent());
+    }
+
+    @Test
+    public void getVulnerableComponentCountsTest() {
+        CommonMetaDataProcessor commonMetaDataProcessor = new CommonMetaDataProcessor();
+        VersionRiskProfileView riskProfileView = new VersionRiskProfileView();
+        riskProfileView.setJson("{\"categories\":{\"VULNERABILITY\":{\"CRITICAL\":1,\"HIGH\":3,\"MEDIUM\":0,\"LOW\":2,\"OK\":40,\"UNKNOWN\":0}}}");
+
+        Optional<VulnerabilityLevels> vulnerabilityLevels = commonMetaDataProcessor.getVulnerableComponentCounts(Optional.of(riskProfileView));
+        Optional<VulnerabilityLevels> missingCategories = commonMetaDataProcessor.getVulnerableComponentCounts(Optional.of(new VersionRiskProfileView()));
+
+        Assert.assertTrue(vulnerabilityLevels.isPresent());
+        Assert.assertEquals("1 Critical, 3 High, 0 Medium, 2 Low.", vulnerabilityLevels.get().getAllCounts());
+        Assert.assertFalse(missingCategories.isPresent());
+    }
 }
@@ -5,6 +5,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import org.joda.time.DateTime;
 import org.junit.Assert;
@@ -19,7 +20,6 @@ import org.sonatype.nexus.scheduling.TaskConfiguration;
 
 import com.synopsys.integration.blackduck.nexus3.task.AssetWrapper;
 import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
-import com.synopsys.integration.exception.IntegrationException;
 
 public class CommonTaskFiltersTest extends TestSupport {
 
@@ -152,20 +152,20 @@ public class CommonTaskFiltersTest extends TestSupport {
         DateTime dayNewer = now.plusDays(1);
 
         AssetWrapper assetWrapper = Mockito.mock(AssetWrapper.class);
-        Mockito.when(assetWrapper.getAssetLastUpdated()).thenReturn(dayOlder);
-        Mockito.when(assetWrapper.getFromBlackDuckAssetPanel(Mockito.any())).thenReturn(dateTimeParser.convertFromDateToString(dayNewer));
+        Mockito.when(assetWrapper.getAssetLastUpdatedEpochMillis()).thenReturn(dayOlder.getMillis());
+        Mockito.when(assetWrapper.getProcessedEpochMillis()).thenReturn(Optional.of(dayNewer.getMillis()));
 
         boolean isNotModified = commonTaskFilters.hasAssetBeenModified(assetWrapper);
         Assert.assertFalse(isNotModified);
 
-        Mockito.when(assetWrapper.getAssetLastUpdated()).thenReturn(dayNewer);
-        Mockito.when(assetWrapper.getFromBlackDuckAssetPanel(Mockito.any())).thenReturn(dateTimeParser.convertFromDateToString(dayOlder));
+        Mockito.when(assetWrapper.getAssetLastUpdatedEpochMillis()).thenReturn(dayNewer.getMillis());
+        Mockito.when(assetWrapper.getProcessedEpochMillis()).thenReturn(Optional.of(dayOlder.getMillis()));
 
         boolean isModified = commonTaskFilters.hasAssetBeenModified(assetWrapper);
         Assert.assertTrue(isModified);
 
-        Mockito.when(assetWrapper.getAssetLastUpdated()).thenReturn(dayNewer);
-        Mockito.when(assetWrapper.getFromBlackDuckAssetPanel(Mockito.any())).thenReturn(null);
+        Mockito.when(assetWrapper.getAssetLastUpdatedEpochMillis()).thenReturn(dayNewer.getMillis());
+        Mockito.when(assetWrapper.getProcessedEpochMillis()).thenReturn(Optional.empty());
 
         boolean neverProcessed = commonTaskFilters.hasAssetBeenModified(assetWrapper);
         Assert.assertTrue(neverProcessed);
@@ -221,62 +221,4 @@ public class CommonTaskFiltersTest extends TestSupport {
         List<Repository> multipleRepositories = commonTaskFilters.findRelevantRepositories(repository);
         Assert.assertEquals(2, multipleRepositories.size());
     }
-
-    @Test
-    public void doesAssetPathAndExtensionMatchRepositoryPathTest() throws IntegrationException {
-        TaskConfiguration taskConfiguration = Mockito.mock(TaskConfiguration.class);
-        Mockito.when(taskConfiguration.getString(Mockito.eq(CommonTaskKeys.REPOSITORY_PATH.getParameterKey()))).thenReturn("\\/badpath");
-        Mockito.when(taskConfiguration.getString(Mockito.eq(CommonTaskKeys.FILE_PATTERNS.getParameterKey()))).thenReturn("*.jar");
-        DateTimeParser dateTimeParser = new DateTimeParser();
-        DateTime assetCutoff = new DateTime().minusDays(1);
-        Mockito.when(taskConfiguration.getString(Mockito.eq(CommonTaskKeys.OLD_ASSET_CUTOFF.getParameterKey()))).thenReturn(dateTimeParser.convertFromDateToString(assetCutoff));
-
-        CommonTaskFilters commonTaskFilters = new CommonTaskFilters(dateTimeParser, null, null, null);
-
-        boolean badPathMatch = commonTaskFilters.doesAssetPathAndExtensionMatch("path/to/object.jar", "object.jar", taskConfiguration);
-        Assert.assertFalse(badPathMatch);
-
-        Mockito.when(taskConfiguration.getString(Mockito.eq(CommonTaskKeys.REPOSITORY_PATH.getParameterKey()))).thenReturn("path\\/to\\/.*");
-
-        boolean matchingPath = commonTaskFilters.doesAssetPathAndExtensionMatch("path/to/object.jar", "object.jar", taskConfiguration);
-        Assert.assertTrue(matchingPath);
-    }
-
-    @Test
-    public void isAssetTooOldForTaskAssetCutoffTest() {
-        TaskConfiguration taskConfiguration = Mockito.mock(TaskConfiguration.class);
-        Mockito.when(taskConfiguration.getString(Mockito.eq(CommonTaskKeys.REPOSITORY_PATH.getParameterKey()))).thenReturn("");
-        Mockito.when(taskConfiguration.getString(Mockito.eq(CommonTaskKeys.FILE_PATTERNS.getParameterKey()))).thenReturn("*.jar");
-        DateTimeParser dateTimeParser = new DateTimeParser();
-        DateTime assetCutoff = new DateTime().minusDays(1);
-        Mockito.when(taskConfiguration.getString(Mockito.eq(CommonTaskKeys.OLD_ASSET_CUTOFF.getParameterKey()))).thenReturn(dateTimeParser.convertFromDateToString(assetCutoff));
-
-        CommonTaskFilters commonTaskFilters = new CommonTaskFilters(dateTimeParser, null, null, null);
-
-        boolean skipProcessing = commonTaskFilters.isAssetTooOldForTask(assetCutoff.minusDays(4), taskConfiguration);
-        Assert.assertTrue(skipProcessing);
-
-        boolean notCutoff = commonTaskFilters.isAssetTooOldForTask(assetCutoff, taskConfiguration);
-        Assert.assertFalse(notCutoff);
-    }
-
-    @Test
-    public void doesAssetPathAndExtensionMatchFileExtensionsTest() {
-        TaskConfiguration taskConfiguration = Mockito.mock(TaskConfiguration.class);
-        Mockito.when(taskConfiguration.getString(Mockito.eq(CommonTaskKeys.REPOSITORY_PATH.getParameterKey()))).thenReturn("");
-        Mockito.when(taskConfiguration.getString(Mockito.eq(CommonTaskKeys.FILE_PATTERNS.getParameterKey()))).thenReturn("*.bad");
-        DateTimeParser dateTimeParser = new DateTimeParser();
-        DateTime assetCutoff = new DateTime().minusDays(1);
-        Mockito.when(taskConfiguration.getString(Mockito.eq(CommonTaskKeys.OLD_ASSET_CUTOFF.getParameterKey()))).thenReturn(dateTimeParser.convertFromDateToString(assetCutoff));
-
-        CommonTaskFilters commonTaskFilters = new CommonTaskFilters(dateTimeParser, null, null, null);
-
-        boolean badExtensionMatch = commonTaskFilters.doesAssetPathAndExtensionMatch("path/to/object.jar", "object.jar", taskConfiguration);
-        Assert.assertFalse(badExtensionMatch);
-
-        Mockito.when(taskConfiguration.getString(Mockito.eq(CommonTaskKeys.FILE_PATTERNS.getParameterKey()))).thenReturn("*.bad,     *.jar");
-
-        boolean matchingFileExtensions = commonTaskFilters.doesAssetPathAndExtensionMatch("path/to/object.jar", "object.jar", taskConfiguration);
-        Assert.assertTrue(matchingFileExtensions);
-    }
 }
@@ -0,0 +1,108 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+import org.sonatype.nexus.scheduling.TaskConfiguration;
+
+import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
+
+public class CompiledTaskFilterTest {
+
+    @Test
+    public void extensionSuffixTest() {
+        CompiledTaskFilter compiledTaskFilter = new CompiledTaskFilter(null, "*.jar, *.tar.gz,*.zip", null);
+
+        Assert.assertTrue(compiledTaskFilter.doesExtensionMatch("library-1.0.jar"));
+        Assert.assertTrue(compiledTaskFilter.doesExtensionMatch("archive.tar.gz"));
+        Assert.assertTrue(compiledTaskFilter.doesExtensionMatch("archive.zip"));
+        Assert.assertFalse(compiledTaskFilter.doesExtensionMatch("archive.gz"));
+        Assert.assertFalse(compiledTaskFilter.doesExtensionMatch("library.jar.sha1"));
+        Assert.assertFalse(compiledTaskFilter.doesExtensionMatch("jar"));
+        Assert.assertFalse(compiledTaskFilter.doesExtensionMatch(""));
+    }
+
+    @Test
+    public void wildcardPatternTest() {
+        CompiledTaskFilter compiledTaskFilter = new CompiledTaskFilter(null, "library-*.jar, *.?ar, readme", null);
+
+        Assert.assertTrue(compiledTaskFilter.doesExtensionMatch("library-1.0.jar"));
+        Assert.assertTrue(compiledTaskFilter.doesExtensionMatch("application.war"));
+        Assert.assertTrue(compiledTaskFilter.doesExtensionMatch("readme"));
+        Assert.assertFalse(compiledTaskFilter.doesExtensionMatch("application.zip"));
+    }
+
+    @Test
+    public void matchAllExtensionsTest() {
+        CompiledTaskFilter compiledTaskFilter = new CompiledTaskFilter(null, "*", null);
+
+        Assert.assertTrue(compiledTaskFilter.doesExtensionMatch("anything.at.all"));
+        Assert.assertFalse(compiledTaskFilter.doesExtensionMatch(null));
+    }
+
+    @Test
+    public void repositoryPathTest() {
+        CompiledTaskFilter compiledTaskFilter = new CompiledTaskFilter("org\\/.*", "*.jar", null);
+
+        Assert.assertTrue(compiledTaskFilter.doesAssetPathAndExtensionMatch("org/test/path/mything.jar", "mything.jar"));
+        Assert.assertFalse(compiledTaskFilter.doesAssetPathAndExtensionMatch("com/test/path/mything.jar", "mything.jar"));
+        Assert.assertTrue(new CompiledTaskFilter("", "*.jar", null).doesRepositoryPathMatch("com/test/path/mything.jar"));
+    }
+
+    @Test
+    public void assetCutoffTest() {
+        DateTime assetCutoff = new DateTime().minusDays(1);
+        CompiledTaskFilter compiledTaskFilter = new CompiledTaskFilter(null, "*.jar", assetCutoff);
+
+        Assert.assertTrue(compiledTaskFilter.isAssetTooOld(assetCutoff.minusMillis(1)));
+        Assert.assertFalse(compiledTaskFilter.isAssetTooOld(assetCutoff));
+        Assert.assertFalse(new CompiledTaskFilter(null, "*.jar", null).isAssetTooOld(assetCutoff.minusYears(10)));
+    }
+
+    @Test
+    public void taskConfigurationRepositoryPathTest() {
+        DateTimeParser dateTimeParser = new DateTimeParser();
+        TaskConfiguration taskConfiguration = createTaskConfiguration(dateTimeParser, "\\/badpath", "*.jar", new DateTime().minusDays(1));
+        CommonTaskFilters commonTaskFilters = new CommonTaskFilters(dateTimeParser, null, null, null);
+
+        Assert.assertFalse(commonTaskFilters.compileTaskFilter(taskConfiguration).doesAssetPathAndExtensionMatch("path/to/object.jar", "object.jar"));
+
+        taskConfiguration.setString(CommonTaskKeys.REPOSITORY_PATH.getParameterKey(), "path\\/to\\/.*");
+
+        Assert.assertTrue(commonTaskFilters.compileTaskFilter(taskConfiguration).doesAssetPathAndExtensionMatch("path/to/object.jar", "object.jar"));
+    }
+
+    @Test
+    public void taskConfigurationFileExtensionsTest() {
+        DateTimeParser dateTimeParser = new DateTimeParser();
+        TaskConfiguration taskConfiguration = createTaskConfiguration(dateTimeParser, "", "*.bad", new DateTime().minusDays(1));
+        CommonTaskFilters commonTaskFilters = new CommonTaskFilters(dateTimeParser, null, null, null);
+
+        Assert.assertFalse(commonTaskFilters.compileTaskFilter(taskConfiguration).doesAssetPathAndExtensionMatch("path/to/object.jar", "object.jar"));
+
+        taskConfiguration.setString(CommonTaskKeys.FILE_PATTERNS.getParameterKey(), "*.bad,     *.jar");
+
+        Assert.assertTrue(commonTaskFilters.compileTaskFilter(taskConfiguration).doesAssetPathAndExtensionMatch("path/to/object.jar", "object.jar"));
+    }
+
+    @Test
+    public void taskConfigurationAssetCutoffTest() {
+        DateTimeParser dateTimeParser = new DateTimeParser();
+        DateTime assetCutoff = new DateTime().minusDays(1);
+        TaskConfiguration taskConfiguration = createTaskConfiguration(dateTimeParser, "", "*.jar", assetCutoff);
+        CommonTaskFilters commonTaskFilters = new CommonTaskFilters(dateTimeParser, null, null, null);
+        CompiledTaskFilter compiledTaskFilter = commonTaskFilters.compileTaskFilter(taskConfiguration);
+
+        Assert.assertTrue(compiledTaskFilter.isAssetTooOld(assetCutoff.minusDays(4)));
+        Assert.assertFalse(compiledTaskFilter.isAssetTooOld(assetCutoff));
+    }
+
+    private TaskConfiguration createTaskConfiguration(DateTimeParser dateTimeParser, String repositoryPath, String filePatterns, DateTime assetCutoff) {
+        TaskConfiguration taskConfiguration = new TaskConfiguration();
+        taskConfiguration.setString(CommonTaskKeys.REPOSITORY_PATH.getParameterKey(), repositoryPath);
+        taskConfiguration.setString(CommonTaskKeys.FILE_PATTERNS.getParameterKey(), filePatterns);
+        taskConfiguration.setString(CommonTaskKeys.OLD_ASSET_CUTOFF.getParameterKey(), dateTimeParser.convertFromDateToString(assetCutoff));
+        return taskConfiguration;
+    }
+
+}
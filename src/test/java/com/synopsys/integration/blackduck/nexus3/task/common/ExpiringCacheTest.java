@@ -0,0 +1,169 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExpiringCacheTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void expiredEntryTest() {
+        AtomicLong clock = new AtomicLong(1000L);
+        ExpiringCache<String> expiringCache = new ExpiringCache<>(10, 100L, clock::get);
+        expiringCache.put("key", "value");
+
+        Assert.assertEquals(Optional.of("value"), expiringCache.get("key"));
+
+        clock.set(1100L);
+        Assert.assertFalse(expiringCache.get("key").isPresent());
+        Assert.assertEquals(0, expiringCache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEvictionTest() {
+        ExpiringCache<String> expiringCache = new ExpiringCache<>(2, 1000L);
+        expiringCache.put("first", "1");
+        expiringCache.put("second", "2");
+        expiringCache.get("first");
+        expiringCache.put("third", "3");
+
+        Assert.assertTrue(expiringCache.contains("first"));
+        Assert.assertFalse(expiringCache.contains("second"));
+        Assert.assertTrue(expiringCache.contains("third"));
+    }
+
+    @Test
+    public void putIfAbsentTest() {
+        ExpiringCache<String> expiringCache = new ExpiringCache<>(10, 1000L);
+        expiringCache.put("key", "original");
+        expiringCache.putIfAbsent("key", "replacement");
+
+        Assert.assertEquals(Optional.of("original"), expiringCache.get("key"));
+    }
+
+    @Test
+    public void storeRoundTripTest() {
+        File cacheFile = new File(temporaryFolder.getRoot(), "cache/test.json");
+        ExpiringCacheStore<String> expiringCacheStore = new ExpiringCacheStore<>(cacheFile, String.class);
+        ExpiringCache<String> expiringCache = new ExpiringCache<>(10, 60000L);
+        expiringCache.put("key", "value");
+        expiringCacheStore.save(expiringCache);
+
+        Assert.assertTrue(cacheFile.isFile());
+
+        ExpiringCache<String> loadedCache = new ExpiringCache<>(10, 60000L);
+        expiringCacheStore.load(loadedCache);
+
+        Assert.assertEquals(Optional.of("value"), loadedCache.get("key"));
+    }
+
+    @Test
+    public void storeMergesSavedEntriesTest() {
+        File cacheFile = new File(temporaryFolder.getRoot(), "cache/test.json");
+        ExpiringCacheStore<String> expiringCacheStore = new ExpiringCacheStore<>(cacheFile, String.class);
+        ExpiringCache<String> npmCache = new ExpiringCache<>(10, 60000L);
+        ExpiringCache<String> mavenCache = new ExpiringCache<>(10, 60000L);
+        expiringCacheStore.load(npmCache);
+        expiringCacheStore.load(mavenCache);
+
+        npmCache.put("npm", "express");
+        npmCache.put("shared", "npm");
+        expiringCacheStore.save(npmCache);
+        mavenCache.put("maven", "commons-lang3");
+        mavenCache.put("shared", "maven");
+        expiringCacheStore.save(mavenCache);
+
+        // the second task did not load the entries of the first one, but must not drop them
+        ExpiringCache<String> loadedCache = new ExpiringCache<>(10, 60000L);
+        expiringCacheStore.load(loadedCache);
+
+        Assert.assertEquals(Optional.of("express"), loadedCache.get("npm"));
+        Assert.assertEquals(Optional.of("commons-lang3"), loadedCache.get("maven"));
+        Assert.assertEquals(Optional.of("maven"), loadedCache.get("shared"));
+    }
+
+    @Test
+    public void invalidatedEntryNotRestoredTest() {
+        File cacheFile = new File(temporaryFolder.getRoot(), "cache/test.json");
+        ExpiringCacheStore<String> expiringCacheStore = new ExpiringCacheStore<>(cacheFile, String.class);
+        ExpiringCache<String> expiringCache = new ExpiringCache<>(10, 60000L);
+        expiringCache.put("removed", "value");
+        expiringCache.put("kept", "value");
+        expiringCacheStore.save(expiringCache);
+
+        ExpiringCache<String> nextRunCache = new ExpiringCache<>(10, 60000L);
+        expiringCacheStore.load(nextRunCache);
+        nextRunCache.invalidate("removed");
+        expiringCacheStore.save(nextRunCache);
+
+        ExpiringCache<String> loadedCache = new ExpiringCache<>(10, 60000L);
+        expiringCacheStore.load(loadedCache);
+
+        Assert.assertFalse(loadedCache.get("removed").isPresent());
+        Assert.assertEquals(Optional.of("value"), loadedCache.get("kept"));
+    }
+
+    @Test
+    public void concurrentSaveTest() throws Exception {
+        File cacheFile = new File(temporaryFolder.getRoot(), "cache/test.json");
+        int writers = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> saves = new ArrayList<>();
+        for (int writer = 0; writer < writers; writer++) {
+            String key = "repository-" + writer;
+            saves.add(executorService.submit(() -> {
+                ExpiringCache<String> expiringCache = new ExpiringCache<>(100, 60000L);
+                expiringCache.put(key, key);
+                start.await();
+                new ExpiringCacheStore<>(cacheFile, String.class).save(expiringCache);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> save : saves) {
+            save.get(10, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+
+        ExpiringCache<String> loadedCache = new ExpiringCache<>(100, 60000L);
+        new ExpiringCacheStore<>(cacheFile, String.class).load(loadedCache);
+
+        Assert.assertEquals(writers, loadedCache.size());
+        String[] temporaryFiles = cacheFile.getParentFile().list((directory, name) -> name.endsWith(".tmp"));
+        Assert.assertEquals(0, temporaryFiles.length);
+    }
+
+    @Test
+    public void mergeKeepsMaximumSizeTest() {
+        ExpiringCache<String> expiringCache = new ExpiringCache<>(2, 60000L);
+        expiringCache.put("own", "value");
+        Map<String, ExpiringCache.Entry<String>> storedEntries = new LinkedHashMap<>();
+        storedEntries.put("expired", new ExpiringCache.Entry<>("value", 0L));
+        storedEntries.put("first", new ExpiringCache.Entry<>("value", Long.MAX_VALUE));
+        storedEntries.put("second", new ExpiringCache.Entry<>("value", Long.MAX_VALUE));
+
+        Map<String, ExpiringCache.Entry<String>> mergedEntries = expiringCache.mergeUnexpiredEntries(storedEntries);
+
+        Assert.assertEquals(2, mergedEntries.size());
+        Assert.assertTrue(mergedEntries.containsKey("own"));
+        Assert.assertTrue(mergedEntries.containsKey("first"));
+    }
+
+}
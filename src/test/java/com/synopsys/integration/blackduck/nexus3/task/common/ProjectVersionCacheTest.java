@@ -0,0 +1,34 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.service.model.ProjectVersionWrapper;
+
+public class ProjectVersionCacheTest {
+
+    @Test
+    public void getAndInvalidateTest() {
+        long[] now = { 0L };
+        ProjectVersionCache projectVersionCache = new ProjectVersionCache(new ExpiringCache<>(10, 100L, () -> now[0]), new ExpiringCache<>(10, 100L, () -> now[0]));
+        ProjectVersionWrapper projectVersionWrapper = new ProjectVersionWrapper(new ProjectView(), new ProjectVersionView());
+
+        projectVersionCache.put("maven-releases", "1.0.0", projectVersionWrapper);
+        projectVersionCache.markTagged("maven-releases");
+
+        Assert.assertTrue(projectVersionCache.get("maven-releases", "1.0.0").isPresent());
+        Assert.assertFalse(projectVersionCache.get("maven-releases", "2.0.0").isPresent());
+        Assert.assertTrue(projectVersionCache.isTagged("maven-releases"));
+
+        projectVersionCache.invalidate("maven-releases", "1.0.0");
+        Assert.assertFalse(projectVersionCache.get("maven-releases", "1.0.0").isPresent());
+        Assert.assertFalse(projectVersionCache.isTagged("maven-releases"));
+
+        projectVersionCache.put("maven-releases", "1.0.0", projectVersionWrapper);
+        now[0] = 100L;
+        Assert.assertFalse(projectVersionCache.get("maven-releases", "1.0.0").isPresent());
+    }
+
+}
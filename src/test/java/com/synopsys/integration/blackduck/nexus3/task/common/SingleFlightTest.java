@@ -0,0 +1,120 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+public class SingleFlightTest {
+
+    @Test
+    public void concurrentCallsShareOneLoadTest() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = executorService.submit(() -> singleFlight.execute("key", () -> {
+                loadCount.incrementAndGet();
+                loadStarted.countDown();
+                await(releaseLoad);
+                return "value";
+            }));
+            Assert.assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(executorService.submit(() -> singleFlight.execute("key", () -> {
+                    loadCount.incrementAndGet();
+                    return "other";
+                })));
+            }
+            // the followers have to be waiting on the flight before it completes
+            awaitWaiting(singleFlight, "key", 3);
+            releaseLoad.countDown();
+
+            Assert.assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                Assert.assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, loadCount.get());
+            Assert.assertEquals(0, singleFlight.getInFlightCount());
+            Assert.assertEquals(0, singleFlight.getWaitingCount("key"));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failureIsSharedAndNotKeptTest() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executorService.submit(() -> singleFlight.execute("key", () -> {
+                loadStarted.countDown();
+                await(releaseLoad);
+                throw new IntegrationException("Black Duck failed");
+            }));
+            Assert.assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executorService.submit(() -> singleFlight.execute("key", () -> "other"));
+            awaitWaiting(singleFlight, "key", 1);
+            releaseLoad.countDown();
+
+            assertFailed(leader);
+            assertFailed(follower);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Assert.assertEquals("value", singleFlight.execute("key", () -> "value"));
+    }
+
+    @Test
+    public void differentKeysLoadSeparatelyTest() throws IntegrationException {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        Assert.assertEquals("first", singleFlight.execute("first", () -> "first"));
+        Assert.assertEquals("second", singleFlight.execute("second", () -> "second"));
+    }
+
+    private static void await(CountDownLatch latch) throws IntegrationException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException(e.getMessage(), e);
+        }
+    }
+
+    private void awaitWaiting(SingleFlight<String, String> singleFlight, String key, int waitingCount) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getWaitingCount(key) < waitingCount && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Assert.assertEquals(waitingCount, singleFlight.getWaitingCount(key));
+    }
+
+    private void assertFailed(Future<String> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("The Black Duck failure should have been shared.");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IntegrationException);
+            Assert.assertEquals("Black Duck failed", e.getCause().getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.synopsys.integration.blackduck.nexus3.task.common;
+
+import java.math.BigDecimal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.generated.enumeration.ComponentVersionRiskProfileRiskDataCountsCountTypeType;
+
+public class VulnerabilityLevelsTest {
+
+    @Test
+    public void allCountsTest() {
+        VulnerabilityLevels vulnerabilityLevels = new VulnerabilityLevels();
+        Assert.assertEquals("0 Critical, 0 High, 0 Medium, 0 Low.", vulnerabilityLevels.getAllCounts());
+
+        vulnerabilityLevels.addVulnerability(ComponentVersionRiskProfileRiskDataCountsCountTypeType.CRITICAL);
+        vulnerabilityLevels.addVulnerabilities(ComponentVersionRiskProfileRiskDataCountsCountTypeType.HIGH, 3);
+        vulnerabilityLevels.addXVulnerabilities(ComponentVersionRiskProfileRiskDataCountsCountTypeType.MEDIUM, new BigDecimal(2));
+        vulnerabilityLevels.addXVulnerabilities(ComponentVersionRiskProfileRiskDataCountsCountTypeType.LOW, null);
+        vulnerabilityLevels.addVulnerabilities(ComponentVersionRiskProfileRiskDataCountsCountTypeType.OK, 5);
+        vulnerabilityLevels.addVulnerability(null);
+
+        Assert.assertEquals("1 Critical, 3 High, 2 Medium, 0 Low.", vulnerabilityLevels.getAllCounts());
+        Assert.assertEquals(new BigDecimal(3), vulnerabilityLevels.getHighVulnerabilityCount());
+        Assert.assertEquals(5, vulnerabilityLevels.getVulnerabilityCount(ComponentVersionRiskProfileRiskDataCountsCountTypeType.OK));
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.synopsys.integration.blackduck.nexus3.task.common.bom;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.generated.enumeration.ComponentVersionRiskProfileRiskDataCountsCountTypeType;
+import com.synopsys.integration.blackduck.api.generated.enumeration.PolicyStatusType;
+
+public class BomComponentPageParserTest {
+
+    @Test
+    public void parsePageTest() throws IOException {
+        String page = "{\"totalCount\":2,\"items\":["
+                          + "{\"componentName\":\"lodash\",\"licenses\":[{\"licenseDisplay\":\"MIT\"}],\"origins\":[{\"name\":\"4.17.15\",\"externalId\":\"lodash/4.17.15\"}],"
+                          + "\"policyStatus\":\"IN_VIOLATION\",\"securityRiskProfile\":{\"counts\":[{\"countType\":\"HIGH\",\"count\":2},{\"countType\":\"LOW\",\"count\":1}]}},"
+                          + "{\"componentName\":\"express\",\"origins\":null,\"policyStatus\":\"NEW_STATUS\",\"securityRiskProfile\":null}"
+                          + "],\"_meta\":{\"href\":\"https://blackduck/api/projects/1/versions/2/components\"}}";
+        List<BomComponentSummary> bomComponents = new ArrayList<>();
+
+        int componentCount = new BomComponentPageParser().parsePage(new StringReader(page), bomComponents::add);
+
+        Assert.assertEquals(2, componentCount);
+        BomComponentSummary lodash = bomComponents.get(0);
+        Assert.assertEquals("lodash/4.17.15", lodash.getOriginExternalIds().get(0));
+        Assert.assertEquals(PolicyStatusType.IN_VIOLATION, lodash.getPolicyStatus());
+        Assert.assertEquals(2, lodash.getRiskCount(ComponentVersionRiskProfileRiskDataCountsCountTypeType.HIGH));
+        Assert.assertEquals(1, lodash.getRiskCount(ComponentVersionRiskProfileRiskDataCountsCountTypeType.LOW));
+        Assert.assertEquals(0, lodash.getRiskCount(ComponentVersionRiskProfileRiskDataCountsCountTypeType.CRITICAL));
+
+        BomComponentSummary express = bomComponents.get(1);
+        Assert.assertTrue(express.getOriginExternalIds().isEmpty());
+        Assert.assertNull(express.getPolicyStatus());
+    }
+
+}
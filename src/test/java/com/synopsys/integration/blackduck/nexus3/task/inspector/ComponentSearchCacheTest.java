@@ -0,0 +1,83 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector;
+
+import java.io.File;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.blackduck.nexus3.task.common.ExpiringCache;
+import com.synopsys.integration.blackduck.nexus3.task.common.ExpiringCacheStore;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.model.ComponentSearchResult;
+
+public class ComponentSearchCacheTest {
+    private static final String COMPONENT_VERSION_URL = "https://blackduck.example.com/api/components/1/versions/2";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void notFoundExpiresSoonerTest() {
+        AtomicLong clock = new AtomicLong(0);
+        ComponentSearchCache componentSearchCache = new ComponentSearchCache(new ExpiringCache<>(10, 1000L, clock::get), createStore(), 100L);
+        ExternalId foundExternalId = createExternalId("found");
+        ExternalId missingExternalId = createExternalId("missing");
+
+        componentSearchCache.put(foundExternalId, new ComponentSearchResult(COMPONENT_VERSION_URL, "org:found:1.0"));
+        componentSearchCache.put(missingExternalId, ComponentSearchResult.notFound());
+        Assert.assertFalse(componentSearchCache.get(missingExternalId).get().isFound());
+
+        clock.set(100L);
+        Assert.assertFalse(componentSearchCache.get(missingExternalId).isPresent());
+        Assert.assertTrue(componentSearchCache.get(foundExternalId).isPresent());
+
+        clock.set(1000L);
+        Assert.assertFalse(componentSearchCache.get(foundExternalId).isPresent());
+    }
+
+    @Test
+    public void saveAndLoadTest() {
+        ExpiringCacheStore<ComponentSearchResult> expiringCacheStore = createStore();
+        ComponentSearchCache componentSearchCache = new ComponentSearchCache(new ExpiringCache<>(10, 60000L), expiringCacheStore, 60000L);
+        ExternalId externalId = createExternalId("found");
+        componentSearchCache.put(externalId, new ComponentSearchResult(COMPONENT_VERSION_URL, "org:found:1.0"));
+        componentSearchCache.save();
+
+        ComponentSearchCache loadedCache = new ComponentSearchCache(new ExpiringCache<>(10, 60000L), expiringCacheStore, 60000L);
+        loadedCache.load();
+
+        Optional<ComponentSearchResult> loadedSearchResult = loadedCache.get(externalId);
+        Assert.assertTrue(loadedSearchResult.isPresent());
+        Assert.assertEquals(COMPONENT_VERSION_URL, loadedSearchResult.get().getComponentVersionUrl());
+        Assert.assertEquals("org:found:1.0", loadedSearchResult.get().getOriginId());
+    }
+
+    @Test
+    public void invalidateTest() {
+        ComponentSearchCache componentSearchCache = new ComponentSearchCache(new ExpiringCache<>(10, 60000L), createStore(), 60000L);
+        ExternalId externalId = createExternalId("found");
+        componentSearchCache.put(externalId, new ComponentSearchResult(COMPONENT_VERSION_URL, "org:found:1.0"));
+
+        componentSearchCache.invalidate(externalId);
+
+        Assert.assertFalse(componentSearchCache.get(externalId).isPresent());
+    }
+
+    private ExpiringCacheStore<ComponentSearchResult> createStore() {
+        return new ExpiringCacheStore<>(new File(temporaryFolder.getRoot(), "cache/component-search.json"), ComponentSearchResult.class);
+    }
+
+    private ExternalId createExternalId(String name) {
+        ExternalId externalId = new ExternalId(Forge.MAVEN);
+        externalId.setGroup("org");
+        externalId.setName(name);
+        externalId.setVersion("1.0");
+        return externalId;
+    }
+
+}
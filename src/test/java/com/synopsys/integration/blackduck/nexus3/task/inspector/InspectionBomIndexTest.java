@@ -0,0 +1,42 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.generated.enumeration.PolicyStatusType;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentSummary;
+
+public class InspectionBomIndexTest {
+
+    @Test
+    public void needsRefreshTest() {
+        InspectionBomIndex bomIndex = new InspectionBomIndex();
+        Assert.assertTrue(bomIndex.needsRefresh(Collections.emptyList()));
+
+        bomIndex.clear();
+        bomIndex.addComponent(new BomComponentSummary(Collections.singletonList("lodash/4.17.15"), PolicyStatusType.NOT_IN_VIOLATION, BomComponentSummary.createRiskCounts()));
+        bomIndex.markRefreshed(new Date(1000L));
+
+        Assert.assertFalse(bomIndex.needsRefresh(Collections.singletonList("lodash/4.17.15")));
+        Assert.assertTrue(bomIndex.needsRefresh(Arrays.asList("lodash/4.17.15", "express/4.17.1")));
+        Assert.assertTrue(bomIndex.findComponent("lodash/4.17.15").isPresent());
+        Assert.assertFalse(bomIndex.findComponent("express/4.17.1").isPresent());
+
+        Assert.assertTrue(bomIndex.isUnchangedSince(new Date(1000L)));
+        Assert.assertFalse(bomIndex.isUnchangedSince(new Date(2000L)));
+
+        // the BOM has to be downloaded again after adding components, even when bomLastUpdatedAt did not change yet
+        bomIndex.markComponentsAdded();
+        Assert.assertTrue(bomIndex.needsRefresh(Collections.singletonList("lodash/4.17.15")));
+        Assert.assertFalse(bomIndex.isUnchangedSince(new Date(1000L)));
+
+        bomIndex.markRefreshed(new Date(1000L));
+        Assert.assertFalse(bomIndex.needsRefresh(Collections.singletonList("lodash/4.17.15")));
+        Assert.assertTrue(bomIndex.isUnchangedSince(new Date(1000L)));
+    }
+
+}
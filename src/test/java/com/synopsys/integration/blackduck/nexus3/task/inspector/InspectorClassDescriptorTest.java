@@ -41,7 +41,7 @@ public class InspectorClassDescriptorTest {
 
         final boolean containsRepoField = formFields.stream().anyMatch(field -> RepositoryTaskSupport.REPOSITORY_NAME_FIELD_ID.equals(field.getId()));
 
-        Assert.assertEquals(5, formFields.size());
+        Assert.assertEquals(6, formFields.size());
         Assert.assertTrue(containsRepoField);
     }
 }
@@ -0,0 +1,66 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.generated.enumeration.PolicyStatusType;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.api.manual.throwaway.generated.response.VersionRiskProfileView;
+import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
+import com.synopsys.integration.blackduck.nexus3.task.common.CommonMetaDataProcessor;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentReader;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentSummary;
+import com.synopsys.integration.blackduck.service.BlackDuckService;
+import com.synopsys.integration.exception.IntegrationException;
+
+public class InspectorMetaDataProcessorTest {
+    private final List<BomComponentSummary> bomComponents = new ArrayList<>();
+
+    @Test
+    public void refreshBomIndexAfterAddingComponentsTest() throws IntegrationException {
+        VersionRiskProfileView riskProfileView = new VersionRiskProfileView();
+        riskProfileView.setBomLastUpdatedAt(new Date(1000L));
+        CommonMetaDataProcessor commonMetaDataProcessor = Mockito.mock(CommonMetaDataProcessor.class);
+        Mockito.when(commonMetaDataProcessor.getRiskProfile(Mockito.any(), Mockito.any())).thenReturn(Optional.of(riskProfileView));
+        BomComponentReader bomComponentReader = Mockito.mock(BomComponentReader.class);
+        Mockito.when(bomComponentReader.readComponents(Mockito.any(), Mockito.any())).thenAnswer(invocation -> readComponents(invocation.getArguments()[1]));
+
+        InspectorMetaDataProcessor inspectorMetaDataProcessor = new InspectorMetaDataProcessor(commonMetaDataProcessor, new DateTimeParser());
+        BlackDuckService blackDuckService = Mockito.mock(BlackDuckService.class);
+        ProjectVersionView projectVersionView = new ProjectVersionView();
+        InspectionBomIndex bomIndex = new InspectionBomIndex();
+        bomComponents.add(createBomComponent("lodash/4.17.15"));
+        inspectorMetaDataProcessor.refreshBomIndex(blackDuckService, bomComponentReader, projectVersionView, bomIndex, Collections.singletonList("lodash/4.17.15"));
+
+        // Black Duck has not updated bomLastUpdatedAt for the added component yet
+        bomComponents.add(createBomComponent("express/4.17.1"));
+        bomIndex.markComponentsAdded();
+        inspectorMetaDataProcessor.refreshBomIndex(blackDuckService, bomComponentReader, projectVersionView, bomIndex, Collections.singletonList("express/4.17.1"));
+
+        Assert.assertTrue(bomIndex.findComponent("express/4.17.1").isPresent());
+        Mockito.verify(bomComponentReader, Mockito.times(2)).readComponents(Mockito.any(), Mockito.any());
+
+        // without changes to the BOM a missing component is not worth downloading the BOM again
+        inspectorMetaDataProcessor.refreshBomIndex(blackDuckService, bomComponentReader, projectVersionView, bomIndex, Collections.singletonList("react/16.12.0"));
+        Mockito.verify(bomComponentReader, Mockito.times(2)).readComponents(Mockito.any(), Mockito.any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private int readComponents(Object componentConsumer) {
+        bomComponents.forEach((Consumer<BomComponentSummary>) componentConsumer);
+        return bomComponents.size();
+    }
+
+    private BomComponentSummary createBomComponent(String originId) {
+        return new BomComponentSummary(Collections.singletonList(originId), PolicyStatusType.NOT_IN_VIOLATION, BomComponentSummary.createRiskCounts());
+    }
+
+}
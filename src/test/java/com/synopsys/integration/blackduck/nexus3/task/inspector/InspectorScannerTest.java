@@ -0,0 +1,393 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.sonatype.nexus.common.entity.EntityId;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.Component;
+import org.sonatype.nexus.repository.storage.Query;
+import org.sonatype.nexus.scheduling.TaskConfiguration;
+
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.blackduck.api.generated.enumeration.PolicyStatusType;
+import com.synopsys.integration.blackduck.api.generated.response.ComponentsView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.api.manual.component.ResourceLink;
+import com.synopsys.integration.blackduck.api.manual.component.ResourceMetadata;
+import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationData;
+import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationService;
+import com.synopsys.integration.blackduck.codelocation.CodeLocationWaitResult;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.BdioUploadService;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadBatchOutput;
+import com.synopsys.integration.blackduck.configuration.BlackDuckServerConfig;
+import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
+import com.synopsys.integration.blackduck.nexus3.database.PagedResult;
+import com.synopsys.integration.blackduck.nexus3.database.QueryManager;
+import com.synopsys.integration.blackduck.nexus3.mock.model.MockAsset;
+import com.synopsys.integration.blackduck.nexus3.mock.model.MockBlob;
+import com.synopsys.integration.blackduck.nexus3.mock.model.MockComponent;
+import com.synopsys.integration.blackduck.nexus3.task.AssetWrapper;
+import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
+import com.synopsys.integration.blackduck.nexus3.task.TaskStatus;
+import com.synopsys.integration.blackduck.nexus3.task.common.CommonRepositoryTaskHelper;
+import com.synopsys.integration.blackduck.nexus3.task.common.CommonTaskFilters;
+import com.synopsys.integration.blackduck.nexus3.task.common.CompiledTaskFilter;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentReader;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentSummary;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.dependency.DependencyGenerator;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.dependency.DependencyType;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.model.TemporaryOriginView;
+import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
+import com.synopsys.integration.blackduck.service.BlackDuckService;
+import com.synopsys.integration.blackduck.service.ComponentService;
+import com.synopsys.integration.blackduck.service.ProjectBomService;
+import com.synopsys.integration.blackduck.service.ProjectService;
+import com.synopsys.integration.rest.RestConstants;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+
+public class InspectorScannerTest {
+    private static final String REPOSITORY_NAME = "npm-proxy";
+    private static final String BLACKDUCK_URL = "https://blackduck.example.com";
+    private static final String PROJECT_VERSION_URL = BLACKDUCK_URL + "/api/projects/1/versions/2";
+    private static final String COMPONENTS_URL = PROJECT_VERSION_URL + "/components";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+    private final Map<String, Component> components = new HashMap<>();
+    private final List<List<Asset>> pages = new ArrayList<>();
+    private final Set<String> updatedOriginIds = new HashSet<>();
+
+    private CommonRepositoryTaskHelper commonRepositoryTaskHelper;
+    private InspectorMetaDataProcessor inspectorMetaDataProcessor;
+    private BlackDuckService blackDuckService;
+    private ComponentService componentService;
+    private ProjectBomService projectBomService;
+    private BdioUploadService bdioUploadService;
+    private CodeLocationCreationService codeLocationCreationService;
+    private ProjectVersionView projectVersionView;
+    private TaskConfiguration taskConfiguration;
+
+    @Before
+    public void setup() throws Exception {
+        QueryManager queryManager = Mockito.mock(QueryManager.class);
+        Mockito.when(queryManager.getComponent(Mockito.any(), Mockito.any())).thenAnswer(invocation -> components.get(((EntityId) invocation.getArguments()[1]).getValue()));
+        Mockito.when(queryManager.getBlob(Mockito.any(), Mockito.any())).thenReturn(new MockBlob());
+
+        BlackDuckServerConfig blackDuckServerConfig = Mockito.mock(BlackDuckServerConfig.class);
+        Mockito.when(blackDuckServerConfig.getBlackDuckUrl()).thenReturn(new URL(BLACKDUCK_URL));
+        Mockito.when(blackDuckServerConfig.getTimeout()).thenReturn(120);
+
+        commonRepositoryTaskHelper = Mockito.mock(CommonRepositoryTaskHelper.class);
+        Mockito.when(commonRepositoryTaskHelper.getBlackDuckServerConfig()).thenReturn(blackDuckServerConfig);
+        Mockito.when(commonRepositoryTaskHelper.getQueryManager()).thenReturn(queryManager);
+        Mockito.when(commonRepositoryTaskHelper.isBlackDuckAvailable()).thenReturn(true);
+        Mockito.when(commonRepositoryTaskHelper.getWorkingDirectory(Mockito.any())).thenReturn(temporaryFolder.getRoot());
+        Mockito.when(commonRepositoryTaskHelper.createPagedQuery(Mockito.any())).thenAnswer(invocation -> {
+            Optional<?> lastName = (Optional<?>) invocation.getArguments()[0];
+            return Query.builder().where("name > ").param(lastName.map(Object::toString).orElse(""));
+        });
+        Mockito.when(commonRepositoryTaskHelper.retrievePagedAssets(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            Query query = (Query) invocation.getArguments()[1];
+            return retrievePage((String) query.getParameters().values().iterator().next());
+        });
+
+        projectVersionView = createProjectVersionView();
+        inspectorMetaDataProcessor = Mockito.mock(InspectorMetaDataProcessor.class);
+        Mockito.when(inspectorMetaDataProcessor.getOrCreateProjectVersion(Mockito.any(), Mockito.any(), Mockito.anyString())).thenReturn(projectVersionView);
+        Mockito.when(inspectorMetaDataProcessor.findComponent(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            ExternalId externalId = (ExternalId) invocation.getArguments()[1];
+            ComponentsView componentsView = new ComponentsView();
+            componentsView.setVersion(getComponentVersionUrl(externalId.getName(), externalId.getVersion()));
+            componentsView.setOriginId(externalId.createExternalId());
+            return Optional.of(componentsView);
+        });
+        Mockito.doAnswer(invocation -> {
+            Map<?, ?> originIdToAsset = (Map<?, ?>) invocation.getArguments()[3];
+            originIdToAsset.keySet().forEach(originId -> updatedOriginIds.add((String) originId));
+            return null;
+        }).when(inspectorMetaDataProcessor).updateRepositoryMetaData(Mockito.any(), Mockito.anyString(), Mockito.any(), Mockito.any());
+
+        blackDuckService = Mockito.mock(BlackDuckService.class);
+        componentService = Mockito.mock(ComponentService.class);
+        projectBomService = Mockito.mock(ProjectBomService.class);
+        bdioUploadService = Mockito.mock(BdioUploadService.class);
+        codeLocationCreationService = Mockito.mock(CodeLocationCreationService.class);
+        taskConfiguration = new TaskConfiguration();
+    }
+
+    @Test
+    public void bdioUploadTest() throws Exception {
+        Asset lodash = createAsset("lodash/-/lodash-4.17.15.tgz", "lodash", "4.17.15");
+        Asset express = createAsset("express/-/express-4.17.1.tgz", "express", "4.17.1");
+        Asset react = createAsset("react/-/react-16.12.0.tgz", "react", "16.12.0");
+        pages.add(Collections.singletonList(express));
+        pages.add(Collections.singletonList(lodash));
+        pages.add(Collections.singletonList(react));
+
+        mockBdioUpload(CodeLocationWaitResult.Status.COMPLETE);
+
+        taskConfiguration.setBoolean(InspectorTaskDescriptor.KEY_BDIO_UPLOAD, true);
+        createInspectorScanner().inspectRepository();
+
+        // all pages go into the one code location of the repository
+        Mockito.verify(bdioUploadService, Mockito.times(1)).uploadBdio(Mockito.any());
+        Mockito.verifyZeroInteractions(projectBomService);
+        Set<String> expectedOriginIds = new HashSet<>();
+        expectedOriginIds.add(createExternalId("lodash", "4.17.15").createExternalId());
+        expectedOriginIds.add(createExternalId("express", "4.17.1").createExternalId());
+        expectedOriginIds.add(createExternalId("react", "16.12.0").createExternalId());
+        Assert.assertEquals(expectedOriginIds, updatedOriginIds);
+    }
+
+    @Test
+    public void bdioUploadSkippedWhenUnchangedTest() throws Exception {
+        Asset express = createAsset("express/-/express-4.17.1.tgz", "express", "4.17.1");
+        Asset lodash = createAsset("lodash/-/lodash-4.17.15.tgz", "lodash", "4.17.15");
+        pages.add(Collections.singletonList(express));
+        pages.add(Collections.singletonList(lodash));
+        mockBdioUpload(CodeLocationWaitResult.Status.COMPLETE);
+
+        taskConfiguration.setBoolean(InspectorTaskDescriptor.KEY_BDIO_UPLOAD, true);
+        createInspectorScanner().inspectRepository();
+        updatedOriginIds.clear();
+        createInspectorScanner().inspectRepository();
+
+        // the assets are still refreshed from the BOM, only the code location is not uploaded again
+        Mockito.verify(bdioUploadService, Mockito.times(1)).uploadBdio(Mockito.any());
+        Assert.assertEquals(2, updatedOriginIds.size());
+
+        Asset react = createAsset("react/-/react-16.12.0.tgz", "react", "16.12.0");
+        pages.add(Collections.singletonList(react));
+        createInspectorScanner().inspectRepository();
+
+        Mockito.verify(bdioUploadService, Mockito.times(2)).uploadBdio(Mockito.any());
+    }
+
+    @Test
+    public void bdioUploadNotProcessedKeepsStatusTest() throws Exception {
+        Asset express = createAsset("express/-/express-4.17.1.tgz", "express", "4.17.1");
+        pages.add(Collections.singletonList(express));
+        mockBdioUpload(CodeLocationWaitResult.Status.PARTIAL);
+
+        taskConfiguration.setBoolean(InspectorTaskDescriptor.KEY_BDIO_UPLOAD, true);
+        createInspectorScanner().inspectRepository();
+        createInspectorScanner().inspectRepository();
+
+        // the code location is uploaded again because Black Duck never processed it
+        Mockito.verify(bdioUploadService, Mockito.times(2)).uploadBdio(Mockito.any());
+        Assert.assertNull(getStatus(express));
+        Assert.assertTrue(updatedOriginIds.isEmpty());
+    }
+
+    @Test
+    public void bdioUploadWaitsForAllPagesTest() throws Exception {
+        Asset express = createAsset("express/-/express-4.17.1.tgz", "express", "4.17.1");
+        Asset lodash = createAsset("lodash/-/lodash-4.17.15.tgz", "lodash", "4.17.15");
+        pages.add(Collections.singletonList(express));
+        pages.add(Collections.singletonList(lodash));
+        Mockito.when(commonRepositoryTaskHelper.isBlackDuckAvailable()).thenReturn(true, false);
+
+        taskConfiguration.setBoolean(InspectorTaskDescriptor.KEY_BDIO_UPLOAD, true);
+        createInspectorScanner().inspectRepository();
+
+        // a code location of only the first page would remove the components of the other pages from the BOM
+        Mockito.verifyZeroInteractions(bdioUploadService);
+        Assert.assertNull(getStatus(express));
+        Assert.assertNull(getStatus(lodash));
+    }
+
+    @Test
+    public void inspectComponentOncePerPageTest() throws Exception {
+        Asset express = createAsset("express/-/express-4.17.1.tgz", "express", "4.17.1");
+        Asset lodashMetadata = createAsset("lodash/-/lodash-4.17.15.json", "lodash", "4.17.15");
+        Asset lodashTarball = createAsset("lodash/-/lodash-4.17.15.tgz", "lodash", "4.17.15");
+        pages.add(Arrays.asList(express, lodashMetadata, lodashTarball));
+
+        createInspectorScanner().inspectRepository();
+
+        // both lodash assets belong to the same component
+        Mockito.verify(inspectorMetaDataProcessor, Mockito.times(1)).findComponent(componentService, createExternalId("lodash", "4.17.15"));
+        Mockito.verify(inspectorMetaDataProcessor, Mockito.times(1)).findComponent(componentService, createExternalId("express", "4.17.1"));
+        Mockito.verify(projectBomService, Mockito.times(2)).addComponentToProjectVersion(Mockito.anyString(), Mockito.eq(COMPONENTS_URL), Mockito.anyString());
+        Assert.assertEquals(TaskStatus.PENDING, getStatus(lodashMetadata));
+        Assert.assertEquals(TaskStatus.PENDING, getStatus(lodashTarball));
+        Assert.assertEquals(Collections.singleton(createExternalId("lodash", "4.17.15").createExternalId()), getOriginIds(lodashMetadata, lodashTarball));
+    }
+
+    @Test
+    public void skipComponentAlreadyInBomTest() throws Exception {
+        Asset express = createAsset("express/-/express-4.17.1.tgz", "express", "4.17.1");
+        Asset lodash = createAsset("lodash/-/lodash-4.17.15.tgz", "lodash", "4.17.15");
+        pages.add(Collections.singletonList(express));
+        pages.add(Collections.singletonList(lodash));
+        Mockito.doAnswer(invocation -> {
+            InspectionBomIndex bomIndex = (InspectionBomIndex) invocation.getArguments()[3];
+            bomIndex.clear();
+            bomIndex.addComponent(createBomComponent("express", "4.17.1"));
+            bomIndex.addComponent(createBomComponent("lodash", "4.17.15"));
+            bomIndex.markRefreshed(null);
+            return null;
+        }).when(inspectorMetaDataProcessor).refreshBomIndex(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+
+        createInspectorScanner().inspectRepository();
+
+        // the BOM index is only loaded after the first page, so only lodash can skip the request
+        Mockito.verify(projectBomService).addComponentToProjectVersion(Mockito.anyString(), Mockito.eq(COMPONENTS_URL), Mockito.eq(getComponentVersionUrl("express", "4.17.1")));
+        Mockito.verify(projectBomService, Mockito.never()).addComponentToProjectVersion(Mockito.anyString(), Mockito.anyString(), Mockito.eq(getComponentVersionUrl("lodash", "4.17.15")));
+        Assert.assertEquals(TaskStatus.PENDING, getStatus(lodash));
+        Assert.assertEquals(Collections.singleton(createExternalId("lodash", "4.17.15").createExternalId()), getOriginIds(lodash));
+    }
+
+    @Test
+    public void preconditionFailedTest() throws Exception {
+        Asset express = createAsset("express/-/express-4.17.1.tgz", "express", "4.17.1");
+        pages.add(Collections.singletonList(express));
+        IntegrationRestException preconditionFailed = new IntegrationRestException(RestConstants.PRECON_FAILED_412, "Precondition Failed", "{}", "The component is already in the BOM");
+        Mockito.doThrow(new BlackDuckApiException(preconditionFailed, preconditionFailed.getMessage(), "{central.constraint_violation.project_component_duplicate}"))
+            .when(projectBomService).addComponentToProjectVersion(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+
+        createInspectorScanner().inspectRepository();
+
+        Assert.assertEquals(TaskStatus.PENDING, getStatus(express));
+        Assert.assertEquals(Collections.singleton(createExternalId("express", "4.17.1").createExternalId()), updatedOriginIds);
+    }
+
+    @Test
+    public void missingOriginIdTest() throws Exception {
+        Asset express = createAsset("express/-/express-4.17.1.tgz", "express", "4.17.1");
+        pages.add(Collections.singletonList(express));
+        Mockito.when(inspectorMetaDataProcessor.findComponent(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            ComponentsView componentsView = new ComponentsView();
+            componentsView.setVersion(getComponentVersionUrl("express", "4.17.1"));
+            return Optional.of(componentsView);
+        });
+        Mockito.when(blackDuckService.getResponse(Mockito.anyString(), Mockito.eq(TemporaryOriginView.class))).thenReturn(new TemporaryOriginView());
+
+        createInspectorScanner().inspectRepository();
+
+        // an asset without an originId would never leave the pending status
+        Assert.assertEquals(TaskStatus.FAILURE, getStatus(express));
+        Assert.assertTrue(updatedOriginIds.isEmpty());
+    }
+
+    private void mockBdioUpload(CodeLocationWaitResult.Status waitStatus) throws Exception {
+        UploadBatchOutput uploadBatchOutput = Mockito.mock(UploadBatchOutput.class);
+        Mockito.when(uploadBatchOutput.getSuccessfulCodeLocationNames()).thenReturn(Collections.singleton("Nexus3Inspection/npm-proxy"));
+        Mockito.when(bdioUploadService.uploadBdio(Mockito.any())).thenReturn(new CodeLocationCreationData<>(null, uploadBatchOutput));
+        CodeLocationWaitResult codeLocationWaitResult = Mockito.mock(CodeLocationWaitResult.class);
+        Mockito.when(codeLocationWaitResult.getStatus()).thenReturn(waitStatus);
+        Mockito.when(codeLocationCreationService.waitForCodeLocations(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyLong())).thenReturn(codeLocationWaitResult);
+    }
+
+    private InspectorScanner createInspectorScanner() {
+        Repository repository = Mockito.mock(Repository.class);
+        Mockito.when(repository.getName()).thenReturn(REPOSITORY_NAME);
+        InspectorConfiguration inspectorConfiguration = InspectorConfiguration.createConfiguration(repository, DependencyType.NPM, blackDuckService, componentService, Mockito.mock(ProjectService.class),
+            codeLocationCreationService, bdioUploadService, projectBomService, Mockito.mock(BomComponentReader.class));
+
+        DependencyGenerator dependencyGenerator = Mockito.mock(DependencyGenerator.class);
+        Mockito.when(dependencyGenerator.createExternalId(Mockito.any(), Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+            .thenAnswer(invocation -> createExternalId((String) invocation.getArguments()[1], (String) invocation.getArguments()[2]));
+        Mockito.when(dependencyGenerator.createDependency(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+            .thenAnswer(invocation -> new Dependency((String) invocation.getArguments()[0], (String) invocation.getArguments()[1], (ExternalId) invocation.getArguments()[2]));
+
+        CommonTaskFilters commonTaskFilters = Mockito.mock(CommonTaskFilters.class);
+        Mockito.when(commonTaskFilters.doesAssetPathAndExtensionMatch(Mockito.anyString(), Mockito.anyString(), Mockito.any(CompiledTaskFilter.class))).thenReturn(true);
+
+        return new InspectorScanner(commonRepositoryTaskHelper, new DateTimeParser(), dependencyGenerator, inspectorMetaDataProcessor, commonTaskFilters, taskConfiguration, inspectorConfiguration);
+    }
+
+    private PagedResult<Asset> retrievePage(String lastName) {
+        int pageIndex = 0;
+        if (!lastName.isEmpty()) {
+            pageIndex = pages.size();
+            for (int index = 0; index < pages.size(); index++) {
+                List<Asset> page = pages.get(index);
+                if (lastName.equals(page.get(page.size() - 1).name())) {
+                    pageIndex = index + 1;
+                }
+            }
+        }
+        if (pageIndex >= pages.size()) {
+            return new PagedResult<>(Collections.emptyList(), Optional.empty());
+        }
+        List<Asset> page = pages.get(pageIndex);
+        return new PagedResult<>(page, Optional.of(page.get(page.size() - 1).name()));
+    }
+
+    private Asset createAsset(String assetName, String componentName, String version) {
+        String componentKey = componentName + "/" + version;
+        components.put(componentKey, new MockComponent(null, componentName, version));
+        return new MockAsset(assetName, new DateTime()) {
+            @Override
+            public EntityId componentId() {
+                return new EntityId() {
+                    @Override
+                    public String getValue() {
+                        return componentKey;
+                    }
+                };
+            }
+        };
+    }
+
+    private ExternalId createExternalId(String name, String version) {
+        return externalIdFactory.createNameVersionExternalId(Forge.NPMJS, name, version);
+    }
+
+    private String getComponentVersionUrl(String name, String version) {
+        return BLACKDUCK_URL + "/api/components/" + name + "/versions/" + version;
+    }
+
+    private BomComponentSummary createBomComponent(String name, String version) {
+        return new BomComponentSummary(Collections.singletonList(createExternalId(name, version).createExternalId()), PolicyStatusType.NOT_IN_VIOLATION, BomComponentSummary.createRiskCounts());
+    }
+
+    private TaskStatus getStatus(Asset asset) {
+        return AssetWrapper.createInspectionAssetWrapper(asset, null, null).getBlackDuckStatus();
+    }
+
+    private Set<String> getOriginIds(Asset... assets) {
+        Set<String> originIds = new HashSet<>();
+        for (Asset asset : assets) {
+            originIds.add(AssetWrapper.createInspectionAssetWrapper(asset, null, null).getFromBlackDuckAssetPanel(AssetPanelLabel.ASSET_ORIGIN_ID));
+        }
+        return originIds;
+    }
+
+    private ProjectVersionView createProjectVersionView() {
+        ResourceLink componentsLink = new ResourceLink();
+        componentsLink.setRel(ProjectVersionView.COMPONENTS_LINK);
+        componentsLink.setHref(COMPONENTS_URL);
+        ResourceMetadata resourceMetadata = new ResourceMetadata();
+        resourceMetadata.setHref(PROJECT_VERSION_URL);
+        resourceMetadata.setLinks(Collections.singletonList(componentsLink));
+        ProjectVersionView projectVersionView = new ProjectVersionView();
+        projectVersionView.setVersionName(InspectorTask.INSPECTOR_VERSION_NAME);
+        projectVersionView.setMeta(resourceMetadata);
+        return projectVersionView;
+    }
+
+}
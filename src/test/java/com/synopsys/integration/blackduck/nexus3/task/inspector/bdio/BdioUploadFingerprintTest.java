@@ -0,0 +1,49 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector.bdio;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+
+public class BdioUploadFingerprintTest {
+    private static final String PROJECT_VERSION_URL = "https://blackduck.example.com/api/projects/1/versions/2";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+
+    @Test
+    public void calculateTest() {
+        ExternalId lodash = externalIdFactory.createNameVersionExternalId(Forge.NPMJS, "lodash", "4.17.15");
+        ExternalId express = externalIdFactory.createNameVersionExternalId(Forge.NPMJS, "express", "4.17.1");
+
+        // the order the pages returned the assets in does not matter
+        String fingerprint = BdioUploadFingerprint.calculate(PROJECT_VERSION_URL, Arrays.asList(lodash, express));
+        Assert.assertEquals(fingerprint, BdioUploadFingerprint.calculate(PROJECT_VERSION_URL, Arrays.asList(express, lodash)));
+
+        Assert.assertNotEquals(fingerprint, BdioUploadFingerprint.calculate(PROJECT_VERSION_URL, Arrays.asList(lodash)));
+        Assert.assertNotEquals(fingerprint, BdioUploadFingerprint.calculate("https://blackduck.example.com/api/projects/1/versions/3", Arrays.asList(lodash, express)));
+    }
+
+    @Test
+    public void saveAndLoadTest() {
+        BdioUploadFingerprint uploadFingerprint = BdioUploadFingerprint.createFingerprint(temporaryFolder.getRoot(), "npm-proxy");
+        Assert.assertFalse(uploadFingerprint.load().isPresent());
+
+        String fingerprint = BdioUploadFingerprint.calculate(PROJECT_VERSION_URL, Arrays.asList(externalIdFactory.createNameVersionExternalId(Forge.NPMJS, "lodash", "4.17.15")));
+        uploadFingerprint.save(fingerprint);
+        Assert.assertEquals(fingerprint, BdioUploadFingerprint.createFingerprint(temporaryFolder.getRoot(), "npm-proxy").load().orElse(null));
+        Assert.assertFalse(BdioUploadFingerprint.createFingerprint(temporaryFolder.getRoot(), "maven-proxy").load().isPresent());
+
+        uploadFingerprint.remove();
+        Assert.assertFalse(uploadFingerprint.load().isPresent());
+    }
+
+}
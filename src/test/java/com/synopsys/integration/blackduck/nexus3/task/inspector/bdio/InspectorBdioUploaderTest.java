@@ -0,0 +1,102 @@
+package com.synopsys.integration.blackduck.nexus3.task.inspector.bdio;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.SimpleBdioDocument;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationData;
+import com.synopsys.integration.blackduck.codelocation.CodeLocationCreationService;
+import com.synopsys.integration.blackduck.codelocation.CodeLocationWaitResult;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.BdioUploadService;
+import com.synopsys.integration.blackduck.codelocation.bdioupload.UploadBatchOutput;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.util.NameVersion;
+
+public class InspectorBdioUploaderTest {
+    private static final String CODE_LOCATION_NAME = "Nexus3Inspection/npm-proxy";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void createCodeLocationNameTest() {
+        String codeLocationName = InspectorBdioUploader.createCodeLocationName("Nexus3Inspection", "npm-proxy");
+
+        Assert.assertEquals(CODE_LOCATION_NAME, codeLocationName);
+    }
+
+    @Test
+    public void createBdioDocumentTest() {
+        InspectorBdioUploader inspectorBdioUploader = new InspectorBdioUploader(null, null);
+        ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+        Dependency lodash = new Dependency("lodash", "4.17.15", externalIdFactory.createNameVersionExternalId(Forge.NPMJS, "lodash", "4.17.15"));
+        Dependency express = new Dependency("express", "4.17.1", externalIdFactory.createNameVersionExternalId(Forge.NPMJS, "express", "4.17.1"));
+        List<Dependency> dependencies = Arrays.asList(lodash, express);
+
+        SimpleBdioDocument bdioDocument = inspectorBdioUploader.createBdioDocument(CODE_LOCATION_NAME, new NameVersion("npm-proxy", "Nexus3Inspection"), Forge.NPMJS, dependencies);
+
+        Assert.assertEquals("npm-proxy", bdioDocument.getProject().name);
+        Assert.assertEquals("Nexus3Inspection", bdioDocument.getProject().version);
+        Assert.assertEquals(2, bdioDocument.getComponents().size());
+    }
+
+    @Test
+    public void uploadAndWaitTest() throws Exception {
+        BdioUploadService bdioUploadService = mockUpload(CODE_LOCATION_NAME);
+        CodeLocationCreationService codeLocationCreationService = Mockito.mock(CodeLocationCreationService.class);
+        CodeLocationWaitResult codeLocationWaitResult = Mockito.mock(CodeLocationWaitResult.class);
+        Mockito.when(codeLocationWaitResult.getStatus()).thenReturn(CodeLocationWaitResult.Status.COMPLETE);
+        Mockito.when(codeLocationCreationService.waitForCodeLocations(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyLong())).thenReturn(codeLocationWaitResult);
+
+        InspectorBdioUploader inspectorBdioUploader = new InspectorBdioUploader(bdioUploadService, codeLocationCreationService);
+        File bdioFile = writeBdioFile(inspectorBdioUploader);
+        boolean uploadComplete = inspectorBdioUploader.uploadAndWait(new NameVersion("npm-proxy", "Nexus3Inspection"), CODE_LOCATION_NAME, bdioFile, 600);
+
+        Assert.assertTrue(uploadComplete);
+        Mockito.verify(bdioUploadService).uploadBdio(Mockito.any());
+        Mockito.verify(codeLocationCreationService).waitForCodeLocations(Mockito.any(), Mockito.any(), Mockito.eq(Collections.singleton(CODE_LOCATION_NAME)), Mockito.eq(1), Mockito.eq(600L));
+    }
+
+    @Test
+    public void uploadAndWaitFailedUploadTest() throws Exception {
+        BdioUploadService bdioUploadService = mockUpload("Nexus3Inspection/maven-releases");
+        CodeLocationCreationService codeLocationCreationService = Mockito.mock(CodeLocationCreationService.class);
+
+        InspectorBdioUploader inspectorBdioUploader = new InspectorBdioUploader(bdioUploadService, codeLocationCreationService);
+        File bdioFile = writeBdioFile(inspectorBdioUploader);
+        try {
+            inspectorBdioUploader.uploadAndWait(new NameVersion("npm-proxy", "Nexus3Inspection"), CODE_LOCATION_NAME, bdioFile, 600);
+            Assert.fail("The upload should have failed");
+        } catch (IntegrationException e) {
+            Assert.assertTrue(e.getMessage().contains(CODE_LOCATION_NAME));
+        }
+        Mockito.verifyZeroInteractions(codeLocationCreationService);
+    }
+
+    private BdioUploadService mockUpload(String successfulCodeLocationName) throws IntegrationException {
+        UploadBatchOutput uploadBatchOutput = Mockito.mock(UploadBatchOutput.class);
+        Mockito.when(uploadBatchOutput.getSuccessfulCodeLocationNames()).thenReturn(Collections.singleton(successfulCodeLocationName));
+        BdioUploadService bdioUploadService = Mockito.mock(BdioUploadService.class);
+        Mockito.when(bdioUploadService.uploadBdio(Mockito.any())).thenReturn(new CodeLocationCreationData<>(null, uploadBatchOutput));
+        return bdioUploadService;
+    }
+
+    private File writeBdioFile(InspectorBdioUploader inspectorBdioUploader) throws Exception {
+        ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+        Dependency lodash = new Dependency("lodash", "4.17.15", externalIdFactory.createNameVersionExternalId(Forge.NPMJS, "lodash", "4.17.15"));
+        SimpleBdioDocument bdioDocument = inspectorBdioUploader.createBdioDocument(CODE_LOCATION_NAME, new NameVersion("npm-proxy", "Nexus3Inspection"), Forge.NPMJS, Collections.singletonList(lodash));
+        return inspectorBdioUploader.writeBdioFile(temporaryFolder.getRoot(), CODE_LOCATION_NAME, bdioDocument);
+    }
+
+}
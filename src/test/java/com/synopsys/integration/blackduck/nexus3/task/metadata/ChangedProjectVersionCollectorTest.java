@@ -0,0 +1,44 @@
+package com.synopsys.integration.blackduck.nexus3.task.metadata;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.manual.component.AffectedProjectVersion;
+import com.synopsys.integration.blackduck.api.manual.component.LicenseLimitNotificationContent;
+import com.synopsys.integration.blackduck.api.manual.component.RuleViolationNotificationContent;
+import com.synopsys.integration.blackduck.api.manual.component.VulnerabilityNotificationContent;
+import com.synopsys.integration.blackduck.api.manual.view.LicenseLimitNotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.RuleViolationNotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.VulnerabilityNotificationView;
+
+public class ChangedProjectVersionCollectorTest {
+
+    @Test
+    public void collectProjectVersionUrlsTest() {
+        RuleViolationNotificationContent ruleViolationContent = new RuleViolationNotificationContent();
+        ruleViolationContent.setProjectVersion("https://blackduck/api/projects/1/versions/1");
+        RuleViolationNotificationView ruleViolationView = new RuleViolationNotificationView();
+        ruleViolationView.setContent(ruleViolationContent);
+
+        AffectedProjectVersion affectedProjectVersion = new AffectedProjectVersion();
+        affectedProjectVersion.setProjectVersion("https://blackduck/api/projects/2/versions/2");
+        VulnerabilityNotificationContent vulnerabilityContent = new VulnerabilityNotificationContent();
+        vulnerabilityContent.setAffectedProjectVersions(Collections.singletonList(affectedProjectVersion));
+        VulnerabilityNotificationView vulnerabilityView = new VulnerabilityNotificationView();
+        vulnerabilityView.setContent(vulnerabilityContent);
+
+        LicenseLimitNotificationView licenseLimitView = new LicenseLimitNotificationView();
+        licenseLimitView.setContent(new LicenseLimitNotificationContent());
+
+        Set<String> projectVersionUrls = new ChangedProjectVersionCollector().collectProjectVersionUrls(Arrays.asList(ruleViolationView, vulnerabilityView, licenseLimitView));
+
+        Assert.assertEquals(2, projectVersionUrls.size());
+        Assert.assertTrue(projectVersionUrls.contains("https://blackduck/api/projects/1/versions/1"));
+        Assert.assertTrue(projectVersionUrls.contains("https://blackduck/api/projects/2/versions/2"));
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.synopsys.integration.blackduck.nexus3.task.metadata;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.synopsys.integration.blackduck.api.manual.component.RuleViolationNotificationContent;
+import com.synopsys.integration.blackduck.api.manual.component.VersionBomCodeLocationBomComputedNotificationContent;
+import com.synopsys.integration.blackduck.api.manual.view.RuleViolationNotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.VersionBomCodeLocationBomComputedNotificationView;
+
+public class ComputedCodeLocationCollectorTest {
+
+    @Test
+    public void collectCodeLocationUrlsTest() {
+        VersionBomCodeLocationBomComputedNotificationContent bomComputedContent = new VersionBomCodeLocationBomComputedNotificationContent();
+        bomComputedContent.setCodeLocation("https://blackduck/api/codelocations/1");
+        VersionBomCodeLocationBomComputedNotificationView bomComputedView = new VersionBomCodeLocationBomComputedNotificationView();
+        bomComputedView.setContent(bomComputedContent);
+
+        VersionBomCodeLocationBomComputedNotificationView emptyBomComputedView = new VersionBomCodeLocationBomComputedNotificationView();
+        emptyBomComputedView.setContent(new VersionBomCodeLocationBomComputedNotificationContent());
+
+        RuleViolationNotificationContent ruleViolationContent = new RuleViolationNotificationContent();
+        ruleViolationContent.setProjectVersion("https://blackduck/api/projects/1/versions/1");
+        RuleViolationNotificationView ruleViolationView = new RuleViolationNotificationView();
+        ruleViolationView.setContent(ruleViolationContent);
+
+        Set<String> codeLocationUrls = new ComputedCodeLocationCollector().collectCodeLocationUrls(Arrays.asList(bomComputedView, emptyBomComputedView, ruleViolationView));
+
+        Assert.assertEquals(1, codeLocationUrls.size());
+        Assert.assertTrue(codeLocationUrls.contains("https://blackduck/api/codelocations/1"));
+    }
+
+}
@@ -41,7 +41,7 @@ public class MetaDataTaskDescriptorTest {
 
         final boolean containsRepoField = formFields.stream().anyMatch(field -> RepositoryTaskSupport.REPOSITORY_NAME_FIELD_ID.equals(field.getId()));
 
-        Assert.assertEquals(1, formFields.size());
+        Assert.assertEquals(3, formFields.size());
         Assert.assertTrue(containsRepoField);
     }
 }
@@ -0,0 +1,145 @@
+package com.synopsys.integration.blackduck.nexus3.task.metadata;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.Query;
+import org.sonatype.nexus.scheduling.TaskConfiguration;
+
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.configuration.BlackDuckServerConfig;
+import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
+import com.synopsys.integration.blackduck.nexus3.database.PagedResult;
+import com.synopsys.integration.blackduck.nexus3.database.QueryManager;
+import com.synopsys.integration.blackduck.nexus3.mock.model.MockAsset;
+import com.synopsys.integration.blackduck.nexus3.task.AssetWrapper;
+import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
+import com.synopsys.integration.blackduck.nexus3.task.TaskStatus;
+import com.synopsys.integration.blackduck.nexus3.task.common.CommonMetaDataProcessor;
+import com.synopsys.integration.blackduck.nexus3.task.common.CommonRepositoryTaskHelper;
+import com.synopsys.integration.blackduck.nexus3.task.common.bom.BomComponentReader;
+import com.synopsys.integration.blackduck.nexus3.task.inspector.InspectorMetaDataProcessor;
+import com.synopsys.integration.blackduck.nexus3.task.scan.ScanMetaDataProcessor;
+import com.synopsys.integration.blackduck.nexus3.ui.AssetPanelLabel;
+import com.synopsys.integration.blackduck.service.BlackDuckService;
+import com.synopsys.integration.blackduck.service.NotificationService;
+import com.synopsys.integration.blackduck.service.ProjectBomService;
+import com.synopsys.integration.blackduck.service.ProjectService;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+
+public class MetadataRepositoryScannerTest {
+    private static final String REPOSITORY_NAME = "npm-proxy";
+    private static final String BLACKDUCK_URL = "https://blackduck.example.com";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<List<Asset>> pages = new ArrayList<>();
+
+    private CommonRepositoryTaskHelper commonRepositoryTaskHelper;
+    private CommonMetaDataProcessor commonMetaDataProcessor;
+    private InspectorMetaDataProcessor inspectorMetaDataProcessor;
+    private QueryManager queryManager;
+
+    @Before
+    public void setup() throws Exception {
+        queryManager = Mockito.mock(QueryManager.class);
+
+        BlackDuckServerConfig blackDuckServerConfig = Mockito.mock(BlackDuckServerConfig.class);
+        Mockito.when(blackDuckServerConfig.getBlackDuckUrl()).thenReturn(new URL(BLACKDUCK_URL));
+
+        commonRepositoryTaskHelper = Mockito.mock(CommonRepositoryTaskHelper.class);
+        Mockito.when(commonRepositoryTaskHelper.getBlackDuckServerConfig()).thenReturn(blackDuckServerConfig);
+        Mockito.when(commonRepositoryTaskHelper.isBlackDuckAvailable()).thenReturn(true);
+        Mockito.when(commonRepositoryTaskHelper.getWorkingDirectory(Mockito.any())).thenReturn(temporaryFolder.getRoot());
+        Mockito.when(commonRepositoryTaskHelper.createPagedQuery(Mockito.any())).thenAnswer(invocation -> {
+            Optional<?> lastName = (Optional<?>) invocation.getArguments()[0];
+            return Query.builder().where("name > ").param(lastName.map(Object::toString).orElse(""));
+        });
+        Mockito.when(commonRepositoryTaskHelper.retrievePagedAssets(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            Query query = (Query) invocation.getArguments()[1];
+            return retrievePage((String) query.getParameters().values().iterator().next());
+        });
+
+        commonMetaDataProcessor = Mockito.mock(CommonMetaDataProcessor.class);
+        inspectorMetaDataProcessor = Mockito.mock(InspectorMetaDataProcessor.class);
+        Mockito.when(inspectorMetaDataProcessor.getOrCreateProjectVersion(Mockito.any(), Mockito.any(), Mockito.anyString())).thenReturn(new ProjectVersionView());
+    }
+
+    @Test
+    public void proxyBomIndexErrorTest() throws Exception {
+        Asset express = createAsset("express/-/express-4.17.1.tgz", "npm:express:4.17.1");
+        Asset lodash = createAsset("lodash/-/lodash-4.17.15.tgz", "npm:lodash:4.17.15");
+        Asset react = createAsset("react/-/react-16.12.0.tgz", "npm:react:16.12.0");
+        pages.add(Collections.singletonList(express));
+        pages.add(Collections.singletonList(lodash));
+        pages.add(Collections.singletonList(react));
+        IntegrationRestException forbidden = new IntegrationRestException(403, "Forbidden", "{}", "Not allowed to read the BOM");
+        Mockito.when(inspectorMetaDataProcessor.createBomIndex(Mockito.any(), Mockito.any())).thenThrow(new BlackDuckApiException(forbidden, forbidden.getMessage(), "{central.forbidden}"));
+
+        createScanner().scanRepository();
+
+        // the error of the first page is reused instead of reading the BOM again for every page
+        Mockito.verify(inspectorMetaDataProcessor, Mockito.times(1)).getOrCreateProjectVersion(Mockito.any(), Mockito.any(), Mockito.anyString());
+        Mockito.verify(inspectorMetaDataProcessor, Mockito.times(1)).createBomIndex(Mockito.any(), Mockito.any());
+        Mockito.verify(inspectorMetaDataProcessor, Mockito.times(1)).invalidateProjectVersion(Mockito.eq(REPOSITORY_NAME), Mockito.any());
+        Mockito.verify(inspectorMetaDataProcessor, Mockito.never()).updateRepositoryMetaData(Mockito.any(), Mockito.anyString(), Mockito.any(), Mockito.any());
+        Assert.assertEquals(TaskStatus.FAILURE, getStatus(express));
+        Assert.assertEquals(TaskStatus.FAILURE, getStatus(lodash));
+        Assert.assertEquals(TaskStatus.FAILURE, getStatus(react));
+        Mockito.verify(queryManager, Mockito.times(3)).updateAsset(Mockito.any(), Mockito.any());
+    }
+
+    private MetadataRepositoryScanner createScanner() {
+        Repository repository = Mockito.mock(Repository.class);
+        Mockito.when(repository.getName()).thenReturn(REPOSITORY_NAME);
+        MetaDataScanConfiguration metaDataScanConfiguration = MetaDataScanConfiguration.createConfiguration(repository, true, AssetPanelLabel.INSPECTION_TASK_STATUS,
+            Mockito.mock(BlackDuckService.class), Mockito.mock(ProjectService.class), Mockito.mock(ProjectBomService.class), Mockito.mock(BomComponentReader.class),
+            Mockito.mock(NotificationService.class));
+        return new MetadataRepositoryScanner(commonRepositoryTaskHelper, queryManager, commonMetaDataProcessor, inspectorMetaDataProcessor, Mockito.mock(ScanMetaDataProcessor.class),
+            new DateTimeParser(), new TaskConfiguration(), metaDataScanConfiguration);
+    }
+
+    private PagedResult<Asset> retrievePage(String lastName) {
+        int pageIndex = 0;
+        if (!lastName.isEmpty()) {
+            pageIndex = pages.size();
+            for (int index = 0; index < pages.size(); index++) {
+                List<Asset> page = pages.get(index);
+                if (lastName.equals(page.get(page.size() - 1).name())) {
+                    pageIndex = index + 1;
+                }
+            }
+        }
+        if (pageIndex >= pages.size()) {
+            return new PagedResult<>(Collections.emptyList(), Optional.empty());
+        }
+        List<Asset> page = pages.get(pageIndex);
+        return new PagedResult<>(page, Optional.of(page.get(page.size() - 1).name()));
+    }
+
+    private Asset createAsset(String assetName, String originId) {
+        Asset asset = new MockAsset(assetName, new DateTime());
+        AssetWrapper assetWrapper = AssetWrapper.createInspectionAssetWrapper(asset, null, null);
+        assetWrapper.addSuccessToBlackDuckPanel("Found in Black Duck");
+        assetWrapper.addToBlackDuckAssetPanel(AssetPanelLabel.ASSET_ORIGIN_ID, originId);
+        return asset;
+    }
+
+    private TaskStatus getStatus(Asset asset) {
+        return AssetWrapper.createInspectionAssetWrapper(asset, null, null).getBlackDuckStatus();
+    }
+
+}
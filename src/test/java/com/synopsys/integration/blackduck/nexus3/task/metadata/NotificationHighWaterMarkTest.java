@@ -0,0 +1,61 @@
+package com.synopsys.integration.blackduck.nexus3.task.metadata;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.synopsys.integration.blackduck.api.manual.view.BomEditNotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.NotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.RuleViolationNotificationView;
+
+public class NotificationHighWaterMarkTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void saveAndLoadTest() throws Exception {
+        NotificationHighWaterMark highWaterMark = NotificationHighWaterMark.createHighWaterMark(temporaryFolder.getRoot(), "maven-releases");
+        Assert.assertFalse(highWaterMark.load().isPresent());
+
+        highWaterMark.save(new Date(1000L));
+        Optional<Date> loadedHighWaterMark = NotificationHighWaterMark.createHighWaterMark(temporaryFolder.getRoot(), "maven-releases").load();
+
+        Assert.assertEquals(Optional.of(new Date(1000L)), loadedHighWaterMark);
+        Assert.assertTrue(new File(temporaryFolder.getRoot(), "notifications/metadata-maven-releases.txt").isFile());
+    }
+
+    @Test
+    public void windowStartTest() {
+        Date highWaterMark = new Date(NotificationHighWaterMark.WINDOW_OVERLAP_MILLIS * 2);
+
+        Assert.assertEquals(new Date(NotificationHighWaterMark.WINDOW_OVERLAP_MILLIS), NotificationHighWaterMark.getWindowStart(highWaterMark));
+    }
+
+    @Test
+    public void advanceTest() {
+        Date highWaterMark = new Date(5000L);
+        NotificationView overlappingNotification = createNotification(new RuleViolationNotificationView(), new Date(4000L));
+        NotificationView newestNotification = createNotification(new BomEditNotificationView(), new Date(9000L));
+        NotificationView newNotification = createNotification(new RuleViolationNotificationView(), new Date(7000L));
+        NotificationView undatedNotification = createNotification(new BomEditNotificationView(), null);
+
+        Assert.assertEquals(new Date(9000L), NotificationHighWaterMark.advance(highWaterMark, Arrays.asList(overlappingNotification, newestNotification, newNotification, undatedNotification)));
+        // only the notifications of the overlap were found, so the mark does not move back
+        Assert.assertEquals(highWaterMark, NotificationHighWaterMark.advance(highWaterMark, Collections.singletonList(overlappingNotification)));
+        Assert.assertEquals(highWaterMark, NotificationHighWaterMark.advance(highWaterMark, Collections.emptyList()));
+    }
+
+    private NotificationView createNotification(NotificationView notificationView, Date createdAt) {
+        notificationView.setCreatedAt(createdAt);
+        return notificationView;
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.synopsys.integration.blackduck.nexus3.task.metadata;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.synopsys.integration.util.NameVersion;
+
+public class ProjectVersionGroupsTest {
+
+    @Test
+    public void takeClosedGroupsTest() {
+        NameVersion commonsIo = new NameVersion("commons-io", "2.6");
+        NameVersion guava = new NameVersion("guava", "28.1");
+        ProjectVersionGroups<String> projectVersionGroups = new ProjectVersionGroups<>();
+        projectVersionGroups.add(commonsIo, "commons-io-2.6.jar");
+        projectVersionGroups.add(commonsIo, "commons-io-2.6.pom");
+        projectVersionGroups.add(guava, "guava-28.1.jar");
+
+        Map<NameVersion, List<String>> closedGroups = projectVersionGroups.takeClosedGroups();
+
+        Assert.assertEquals(1, closedGroups.size());
+        Assert.assertEquals(Arrays.asList("commons-io-2.6.jar", "commons-io-2.6.pom"), closedGroups.get(commonsIo));
+        Assert.assertFalse(projectVersionGroups.isEmpty());
+
+        projectVersionGroups.add(guava, "guava-28.1.pom");
+        Map<NameVersion, List<String>> allGroups = projectVersionGroups.takeAllGroups();
+
+        Assert.assertEquals(1, allGroups.size());
+        Assert.assertEquals(Arrays.asList("guava-28.1.jar", "guava-28.1.pom"), allGroups.get(guava));
+        Assert.assertTrue(projectVersionGroups.isEmpty());
+    }
+
+    @Test
+    public void takeClosedGroupsWhenEmptyTest() {
+        ProjectVersionGroups<String> projectVersionGroups = new ProjectVersionGroups<>();
+
+        Assert.assertTrue(projectVersionGroups.takeClosedGroups().isEmpty());
+        Assert.assertTrue(projectVersionGroups.takeAllGroups().isEmpty());
+    }
+
+}
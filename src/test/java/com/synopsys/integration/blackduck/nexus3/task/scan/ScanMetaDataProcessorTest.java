@@ -0,0 +1,71 @@
+package com.synopsys.integration.blackduck.nexus3.task.scan;
+
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.generated.enumeration.ComponentVersionRiskProfileRiskDataCountsCountTypeType;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionPolicyStatusView;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
+import com.synopsys.integration.blackduck.api.manual.throwaway.generated.response.VersionRiskProfileView;
+import com.synopsys.integration.blackduck.nexus3.task.DateTimeParser;
+import com.synopsys.integration.blackduck.nexus3.task.common.CommonMetaDataProcessor;
+import com.synopsys.integration.blackduck.nexus3.task.common.VulnerabilityLevels;
+import com.synopsys.integration.blackduck.service.BlackDuckService;
+import com.synopsys.integration.blackduck.service.ProjectBomService;
+import com.synopsys.integration.exception.IntegrationException;
+
+public class ScanMetaDataProcessorTest {
+    private static final String BOM_FINGERPRINT = "1000:2000";
+
+    private CommonMetaDataProcessor commonMetaDataProcessor;
+    private BlackDuckService blackDuckService;
+    private ProjectBomService projectBomService;
+    private ProjectVersionView projectVersionView;
+
+    @Before
+    public void setup() throws IntegrationException {
+        commonMetaDataProcessor = Mockito.mock(CommonMetaDataProcessor.class);
+        blackDuckService = Mockito.mock(BlackDuckService.class);
+        projectBomService = Mockito.mock(ProjectBomService.class);
+        projectVersionView = new ProjectVersionView();
+        Optional<VersionRiskProfileView> riskProfileView = Optional.of(new VersionRiskProfileView());
+        Mockito.when(commonMetaDataProcessor.checkAssetPolicy(blackDuckService, projectVersionView)).thenReturn(Optional.of(new ProjectVersionPolicyStatusView()));
+        Mockito.when(commonMetaDataProcessor.getRiskProfile(blackDuckService, projectVersionView)).thenReturn(riskProfileView);
+        Mockito.when(commonMetaDataProcessor.createBomFingerprint(Mockito.any(), Mockito.any())).thenReturn(Optional.of(BOM_FINGERPRINT));
+    }
+
+    @Test
+    public void riskProfileCountsWithUnchangedBomTest() throws IntegrationException {
+        VulnerabilityLevels vulnerabilityLevels = new VulnerabilityLevels();
+        vulnerabilityLevels.addVulnerability(ComponentVersionRiskProfileRiskDataCountsCountTypeType.HIGH);
+        Mockito.when(commonMetaDataProcessor.getVulnerableComponentCounts(Mockito.any())).thenReturn(Optional.of(vulnerabilityLevels));
+
+        ScanMetaDataProcessor scanMetaDataProcessor = new ScanMetaDataProcessor(commonMetaDataProcessor, new DateTimeParser());
+        HostedMetaData hostedMetaData = scanMetaDataProcessor.fetchRepositoryMetaData(blackDuckService, projectBomService, BOM_FINGERPRINT, "https://blackduck", projectVersionView);
+
+        // a new vulnerability in the KB changes neither bomLastUpdatedAt nor the policies
+        Assert.assertEquals("0 Critical, 1 High, 0 Medium, 0 Low.", hostedMetaData.getVulnerabilityLevels().map(VulnerabilityLevels::getAllCounts).orElse(null));
+        Mockito.verify(commonMetaDataProcessor, Mockito.never()).getBomComponents(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void skipBomComponentsWithUnchangedBomTest() throws IntegrationException {
+        Mockito.when(commonMetaDataProcessor.getVulnerableComponentCounts(Mockito.any())).thenReturn(Optional.empty());
+
+        ScanMetaDataProcessor scanMetaDataProcessor = new ScanMetaDataProcessor(commonMetaDataProcessor, new DateTimeParser());
+        HostedMetaData unchangedMetaData = scanMetaDataProcessor.fetchRepositoryMetaData(blackDuckService, projectBomService, BOM_FINGERPRINT, "https://blackduck", projectVersionView);
+
+        Assert.assertFalse(unchangedMetaData.getVulnerabilityLevels().isPresent());
+        Mockito.verify(commonMetaDataProcessor, Mockito.never()).getBomComponents(Mockito.any(), Mockito.any());
+
+        HostedMetaData changedMetaData = scanMetaDataProcessor.fetchRepositoryMetaData(blackDuckService, projectBomService, "1000:1000", "https://blackduck", projectVersionView);
+
+        Assert.assertTrue(changedMetaData.getVulnerabilityLevels().isPresent());
+        Mockito.verify(commonMetaDataProcessor).getBomComponents(projectBomService, projectVersionView);
+    }
+
+}
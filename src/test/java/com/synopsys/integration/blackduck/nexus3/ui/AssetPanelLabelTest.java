@@ -11,6 +11,7 @@ public class AssetPanelLabelTest {
         Assert.assertEquals("scan_status", AssetPanelLabel.SCAN_TASK_STATUS.getLabel());
         Assert.assertEquals("blackduck_url", AssetPanelLabel.BLACKDUCK_URL.getLabel());
         Assert.assertEquals("processed_on", AssetPanelLabel.TASK_FINISHED_TIME.getLabel());
+        Assert.assertEquals("processed_on_epoch", AssetPanelLabel.TASK_FINISHED_EPOCH.getLabel());
     }
 
     @Test
@@ -20,5 +21,6 @@ public class AssetPanelLabelTest {
         Assert.assertEquals("policy_status_overall", AssetPanelLabel.OVERALL_POLICY_STATUS.getLabel());
         Assert.assertEquals("policy_status", AssetPanelLabel.POLICY_STATUS.getLabel());
         Assert.assertEquals("vulnerabilities", AssetPanelLabel.VULNERABILITIES.getLabel());
+        Assert.assertEquals("bom_fingerprint", AssetPanelLabel.BOM_FINGERPRINT.getLabel());
     }
 }